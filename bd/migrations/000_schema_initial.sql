@@ -0,0 +1,18 @@
+-- Schéma d'origine de l'application (celui de bd/blogdb.sql, sans données) : point de départ des migrations
+-- suivantes pour une base vide. Non rejoué sur une base existante (voir spring.flyway.baseline-version).
+CREATE TABLE IF NOT EXISTS articles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    contenu TEXT NOT NULL,
+    date_publication TIMESTAMP(6) NOT NULL,
+    titre VARCHAR(255) NOT NULL,
+    CONSTRAINT uk3veovm5eqxuqxc83c6vly1fbr UNIQUE (titre)
+);
+
+CREATE TABLE IF NOT EXISTS commentaires (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    auteur VARCHAR(255) NOT NULL,
+    contenu TEXT NOT NULL,
+    date_commentaire TIMESTAMP(6) NOT NULL,
+    article_id BIGINT NOT NULL,
+    CONSTRAINT fkj1jy041e3qu2sas505gailad0 FOREIGN KEY (article_id) REFERENCES articles (id)
+);
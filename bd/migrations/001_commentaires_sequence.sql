@@ -0,0 +1,4 @@
+-- Les identifiants des commentaires sont désormais alloués par la séquence commentaires_id_seq
+-- par blocs de 50 (optimiseur "pooled" de Hibernate), ce qui permet les INSERT en lots JDBC.
+-- La séquence existe déjà (colonne IDENTITY) : il suffit d'aligner son pas sur allocationSize.
+ALTER SEQUENCE public.commentaires_id_seq INCREMENT BY 50;
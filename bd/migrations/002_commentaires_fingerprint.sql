@@ -0,0 +1,53 @@
+-- Détection des doublons de commentaires par empreinte (voir CommentFingerprint) au lieu de comparer les colonnes TEXT.
+ALTER TABLE public.commentaires ADD COLUMN IF NOT EXISTS fingerprint character varying(64);
+
+-- Même calcul que CommentFingerprint.of : SHA-256 hexadécimal de
+--   longueur en octets de l'auteur normalisé || ':' || auteur normalisé || contenu normalisé
+-- auteur normalisé = sans espaces ASCII en début/fin, lettres ASCII en minuscules ; contenu normalisé = sans espaces
+-- ASCII en début/fin. translate() plutôt que lower(), dont le résultat dépend de la locale de la base.
+-- (sha256() est disponible à partir de PostgreSQL 11)
+CREATE OR REPLACE FUNCTION public.commentaire_fingerprint(auteur text, contenu text) RETURNS character varying(64)
+    LANGUAGE sql IMMUTABLE STRICT AS
+$$
+SELECT encode(sha256(convert_to(octet_length(convert_to(a, 'UTF8')) || ':' || a || c, 'UTF8')), 'hex')
+FROM (SELECT translate(btrim(auteur, E' \t\n\f\r' || chr(11)), 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz') AS a,
+             btrim(contenu, E' \t\n\f\r' || chr(11)) AS c) normalise
+$$;
+
+UPDATE public.commentaires
+SET fingerprint = public.commentaire_fingerprint(auteur, contenu)
+WHERE fingerprint IS NULL;
+
+-- Doublons existants (même article, même empreinte) : archivés ici avec l'ID du commentaire conservé (le plus ancien
+-- du groupe), à vérifier avant de purger la table. Ils sont retirés de commentaires pour créer l'index unique.
+CREATE TABLE IF NOT EXISTS public.commentaires_doublons (
+    id BIGINT PRIMARY KEY,
+    article_id BIGINT NOT NULL,
+    auteur VARCHAR(255) NOT NULL,
+    contenu TEXT NOT NULL,
+    date_commentaire TIMESTAMP(6) NOT NULL,
+    fingerprint character varying(64) NOT NULL,
+    doublon_de BIGINT NOT NULL, -- Commentaire conservé
+    date_archivage TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+INSERT INTO public.commentaires_doublons (id, article_id, auteur, contenu, date_commentaire, fingerprint, doublon_de)
+SELECT id, article_id, auteur, contenu, date_commentaire, fingerprint, doublon_de
+FROM (SELECT c.*, min(c.id) OVER (PARTITION BY c.article_id, c.fingerprint) AS doublon_de
+      FROM public.commentaires c) groupes
+WHERE id <> doublon_de
+ON CONFLICT (id) DO NOTHING;
+
+DO $$
+BEGIN
+    RAISE NOTICE '% commentaire(s) en doublon archivé(s) dans commentaires_doublons',
+        (SELECT count(*) FROM public.commentaires_doublons);
+END
+$$;
+
+DELETE FROM public.commentaires c
+USING public.commentaires_doublons doublon
+WHERE c.id = doublon.id;
+
+ALTER TABLE public.commentaires
+    ADD CONSTRAINT uk_commentaires_article_fingerprint UNIQUE (article_id, fingerprint);
@@ -0,0 +1,17 @@
+-- Article.contenu n'est plus annoté @Lob : la colonne TEXT contient désormais directement le texte.
+-- Les articles enregistrés auparavant y stockent l'OID d'un large object (ex: '57507') :
+-- on remplace cet OID par le texte du large object, puis on supprime le large object.
+CREATE TEMPORARY TABLE articles_lob AS
+SELECT a.id, a.contenu::oid AS lob
+FROM public.articles a
+WHERE a.contenu ~ '^[0-9]+$'
+  AND EXISTS (SELECT 1 FROM pg_catalog.pg_largeobject_metadata m WHERE m.oid = a.contenu::oid);
+
+UPDATE public.articles a
+SET contenu = convert_from(lo_get(l.lob), 'UTF8')
+FROM articles_lob l
+WHERE a.id = l.id;
+
+SELECT lo_unlink(lob) FROM articles_lob;
+
+DROP TABLE articles_lob;
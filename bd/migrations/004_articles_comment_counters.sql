@@ -0,0 +1,17 @@
+-- Compteurs dénormalisés des commentaires sur les articles (commentCount, lastCommentAt)
+-- À exécuter avant de démarrer la nouvelle version sur une base existante.
+
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS last_comment_at TIMESTAMP(6);
+
+-- Initialisation à partir des commentaires existants
+UPDATE articles a
+SET comment_count = s.nb, last_comment_at = s.dernier
+FROM (SELECT article_id, COUNT(*) AS nb, MAX(date_commentaire) AS dernier
+      FROM commentaires
+      GROUP BY article_id) s
+WHERE a.id = s.article_id;
+
+-- Index des classements "les plus commentés" et "activité récente"
+CREATE INDEX IF NOT EXISTS idx_articles_comment_count_id ON articles (comment_count, id);
+CREATE INDEX IF NOT EXISTS idx_articles_last_comment_at_id ON articles (last_comment_at, id);
@@ -0,0 +1,5 @@
+-- Index du fil de commentaires d'un article trié sur (date_commentaire, id) : pagination par curseur
+-- et chargement groupé des commentaires des listes d'articles.
+-- CONCURRENTLY : la table n'est pas verrouillée en écriture pendant la création (hors transaction).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_commentaires_article_date_id
+    ON commentaires (article_id, date_commentaire, id);
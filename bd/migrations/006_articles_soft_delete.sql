@@ -0,0 +1,28 @@
+-- Suppression logique des articles (Article.deletedAt) : un article supprimé est masqué aussitôt,
+-- puis ses commentaires et l'article lui-même sont supprimés par lots en arrière-plan (ArticlePurger).
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_articles_deleted_at ON articles (deleted_at);
+
+-- Le titre reste unique parmi les articles non supprimés seulement : un article en attente de purge
+-- n'empêche pas d'en créer un nouveau sous le même titre. L'index partiel est créé avant de retirer
+-- l'ancienne contrainte UNIQUE (générée par Hibernate, nom variable), pour ne jamais perdre l'unicité.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_articles_titre_actif
+    ON articles (titre) WHERE deleted_at IS NULL;
+
+DO $$
+DECLARE
+    contrainte text;
+BEGIN
+    FOR contrainte IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute att ON att.attrelid = c.conrelid AND att.attnum = c.conkey[1]
+        WHERE c.conrelid = 'articles'::regclass
+          AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND att.attname = 'titre'
+    LOOP
+        EXECUTE format('ALTER TABLE articles DROP CONSTRAINT %I', contrainte);
+    END LOOP;
+END $$;
@@ -0,0 +1,7 @@
+-- Sauvegarde périodique des scores de tendance (GET /api/v1/articles/trending, TrendingEngine).
+-- Pas de clé étrangère : la table est entièrement réécrite à chaque sauvegarde, les articles purgés en disparaissent.
+CREATE TABLE IF NOT EXISTS article_trending_scores (
+    article_id BIGINT PRIMARY KEY,
+    score DOUBLE PRECISION NOT NULL,
+    scored_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Colonnes et index ajoutés jusqu'ici par Hibernate (spring.jpa.hibernate.ddl-auto=update) sans script de migration :
+-- versions (verrouillage optimiste, ETag), dates de modification (Last-Modified) et index de la pagination par curseur.
+-- Sans effet sur une base déjà mise à jour par Hibernate.
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS date_modification TIMESTAMP(6);
+ALTER TABLE commentaires ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE commentaires ADD COLUMN IF NOT EXISTS date_modification TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_articles_date_publication_id ON articles (date_publication, id);
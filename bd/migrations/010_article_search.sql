@@ -0,0 +1,12 @@
+-- Index de recherche plein texte (ArticleSearchServiceImpl) : voir src/main/resources/db/search/schema-postgresql.sql,
+-- exécuté aussi au démarrage quand le schéma n'est pas géré par Flyway.
+-- Une ligne par article : document tsvector pondéré (A = titre, B = contenu, C = commentaires),
+-- et version de l'article au moment de l'indexation (sert à la réindexation incrémentale).
+CREATE TABLE IF NOT EXISTS article_search (
+    article_id BIGINT PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE,
+    document TSVECTOR NOT NULL,
+    indexed_version BIGINT NOT NULL
+);
+
+-- Index inversé : les requêtes "document @@ tsquery" ne lisent que les documents contenant les termes recherchés
+CREATE INDEX IF NOT EXISTS idx_article_search_document ON article_search USING GIN (document);
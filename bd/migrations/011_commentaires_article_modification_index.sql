@@ -0,0 +1,5 @@
+-- Index de la date de modification des commentaires de chaque article : la version d'un article (ETag, Last-Modified)
+-- inclut la date du commentaire modifié le plus récemment, lue sur cet index (MAX sans parcourir les commentaires).
+-- CONCURRENTLY : la table n'est pas verrouillée en écriture pendant la création (hors transaction).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_commentaires_article_modification
+    ON commentaires (article_id, date_modification);
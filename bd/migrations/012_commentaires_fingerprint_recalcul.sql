@@ -0,0 +1,58 @@
+-- Recalcul des empreintes des commentaires avec le calcul actuel de CommentFingerprint.of (préfixe de longueur au lieu
+-- du séparateur chr(0), espaces et casse ASCII seulement) : les bases où la première version de la migration 002
+-- a été appliquée ont des empreintes calculées avec btrim / lower, que l'application ne reproduit plus.
+-- Le calcul (fonction commentaire_fingerprint) est celui de 002, recréé ici pour ces bases.
+CREATE OR REPLACE FUNCTION public.commentaire_fingerprint(auteur text, contenu text) RETURNS character varying(64)
+    LANGUAGE sql IMMUTABLE STRICT AS
+$$
+SELECT encode(sha256(convert_to(octet_length(convert_to(a, 'UTF8')) || ':' || a || c, 'UTF8')), 'hex')
+FROM (SELECT translate(btrim(auteur, E' \t\n\f\r' || chr(11)), 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz') AS a,
+             btrim(contenu, E' \t\n\f\r' || chr(11)) AS c) normalise
+$$;
+
+CREATE TABLE IF NOT EXISTS public.commentaires_doublons (
+    id BIGINT PRIMARY KEY,
+    article_id BIGINT NOT NULL,
+    auteur VARCHAR(255) NOT NULL,
+    contenu TEXT NOT NULL,
+    date_commentaire TIMESTAMP(6) NOT NULL,
+    fingerprint character varying(64) NOT NULL,
+    doublon_de BIGINT NOT NULL, -- Commentaire conservé
+    date_archivage TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+-- L'index unique est retiré pendant le recalcul : deux commentaires distincts avec l'ancien calcul peuvent devenir
+-- des doublons avec le nouveau (ex : auteurs « alice » et « alice » suivi d'une tabulation, que btrim ne retirait pas)
+ALTER TABLE public.commentaires DROP CONSTRAINT IF EXISTS uk_commentaires_article_fingerprint;
+
+UPDATE public.commentaires
+SET fingerprint = public.commentaire_fingerprint(auteur, contenu)
+WHERE fingerprint IS DISTINCT FROM public.commentaire_fingerprint(auteur, contenu);
+
+-- Nouveaux doublons : archivés (voir 002), puis retirés
+INSERT INTO public.commentaires_doublons (id, article_id, auteur, contenu, date_commentaire, fingerprint, doublon_de)
+SELECT id, article_id, auteur, contenu, date_commentaire, fingerprint, doublon_de
+FROM (SELECT c.*, min(c.id) OVER (PARTITION BY c.article_id, c.fingerprint) AS doublon_de
+      FROM public.commentaires c) groupes
+WHERE id <> doublon_de
+ON CONFLICT (id) DO NOTHING;
+
+DO $$
+BEGIN
+    RAISE NOTICE '% commentaire(s) en doublon archivé(s) dans commentaires_doublons',
+        (SELECT count(*) FROM public.commentaires_doublons);
+END
+$$;
+
+DELETE FROM public.commentaires c
+USING public.commentaires_doublons doublon
+WHERE c.id = doublon.id;
+
+-- Compteurs des articles dont des commentaires viennent d'être archivés (voir 004)
+UPDATE public.articles a
+SET comment_count = (SELECT COUNT(*) FROM public.commentaires c WHERE c.article_id = a.id),
+    last_comment_at = (SELECT MAX(c.date_commentaire) FROM public.commentaires c WHERE c.article_id = a.id)
+WHERE a.id IN (SELECT article_id FROM public.commentaires_doublons);
+
+ALTER TABLE public.commentaires
+    ADD CONSTRAINT uk_commentaires_article_fingerprint UNIQUE (article_id, fingerprint);
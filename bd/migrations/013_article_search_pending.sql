@@ -0,0 +1,13 @@
+-- Réindexation de la recherche (ArticleSearchServiceImpl) : voir src/main/resources/db/search/schema-postgresql.sql,
+-- exécuté aussi au démarrage quand le schéma n'est pas géré par Flyway.
+
+-- État des commentaires au moment de l'indexation : un commentaire ajouté, modifié ou supprimé ne change pas la version
+-- de l'article, la réindexation incrémentale compare donc aussi le nombre de commentaires et leur dernière modification
+ALTER TABLE article_search ADD COLUMN IF NOT EXISTS indexed_comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE article_search ADD COLUMN IF NOT EXISTS indexed_comments_modified TIMESTAMP(6);
+
+-- Articles modifiés en attente de réindexation, marqués dans la transaction de la modification (auparavant gardés
+-- en mémoire, et perdus au redémarrage)
+CREATE TABLE IF NOT EXISTS article_search_pending (
+    article_id BIGINT PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE
+);
@@ -0,0 +1,26 @@
+-- Position des commentaires dans le fil de leur article (Comment.threadPosition) et dernière position attribuée
+-- par article (Article.lastThreadPosition). Le fil paginé (GET .../comments/page) et les identifiants des événements
+-- SSE suivent cette position, attribuée sous le verrou de la ligne de l'article : contrairement à (date, id), elle
+-- devient visible dans l'ordre croissant et un client qui interroge régulièrement l'API ne saute aucun commentaire.
+-- À exécuter avant de démarrer la nouvelle version sur une base existante (les curseurs déjà émis deviennent invalides).
+
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS last_thread_position BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE commentaires ADD COLUMN IF NOT EXISTS thread_position BIGINT NOT NULL DEFAULT 0;
+
+-- Numérotation des commentaires existants dans l'ordre (date, id) de l'ancien fil
+UPDATE commentaires c
+SET thread_position = numerotes.position
+FROM (SELECT id, row_number() OVER (PARTITION BY article_id ORDER BY date_commentaire, id) AS position
+      FROM commentaires) numerotes
+WHERE c.id = numerotes.id;
+
+UPDATE articles a
+SET last_thread_position = s.derniere
+FROM (SELECT article_id, MAX(thread_position) AS derniere
+      FROM commentaires
+      GROUP BY article_id) s
+WHERE a.id = s.article_id;
+
+-- Pagination du fil dans les deux sens, et garantie qu'une position n'est attribuée qu'une fois par article
+ALTER TABLE commentaires
+    ADD CONSTRAINT uk_commentaires_article_position UNIQUE (article_id, thread_position);
@@ -0,0 +1,8 @@
+-- Sauvegarde des scores de tendance par instance (TrendingEngine, blog.trending.node-id) : chaque instance ne réécrit
+-- plus que ses propres lignes, au lieu de remplacer toute la table et d'effacer la sauvegarde des autres.
+-- Les lignes existantes (node_id '') sont reprises par une instance quand elles ont plus de blog.trending.orphan-after.
+ALTER TABLE article_trending_scores ADD COLUMN IF NOT EXISTS node_id VARCHAR(255) NOT NULL DEFAULT '';
+ALTER TABLE article_trending_scores ALTER COLUMN node_id DROP DEFAULT;
+
+ALTER TABLE article_trending_scores DROP CONSTRAINT IF EXISTS article_trending_scores_pkey;
+ALTER TABLE article_trending_scores ADD PRIMARY KEY (node_id, article_id);
@@ -0,0 +1,7 @@
+-- Position des commentaires dans le fil (Comment.threadPosition) inscrite après leur INSERT, à la fin de la
+-- transaction qui les ajoute : la ligne de l'article n'est plus verrouillée pendant l'INSERT ni pendant tout un import
+-- en masse, mais seulement de la réservation des positions au commit. La colonne est vide entre les deux (jamais
+-- après le commit) ; l'index unique (article_id, thread_position) admet plusieurs valeurs vides.
+-- Sans valeur par défaut : deux commentaires en cours d'ajout sur le même article auraient la même position.
+ALTER TABLE commentaires ALTER COLUMN thread_position DROP NOT NULL;
+ALTER TABLE commentaires ALTER COLUMN thread_position DROP DEFAULT;
@@ -0,0 +1,82 @@
+package com.ngaland.blog_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.cache.ArticlePayloadCache;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.model.Article;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Coût CPU d'une réponse GET /api/v1/articles/{id} : sérialisation à chaque requête, sérialisation + gzip
+ * à chaque requête (compression dynamique de Tomcat), ou octets déjà prêts servis par ArticlePayloadCache.
+ * Les octets par réponse (JSON brut / gzip) sont affichés au setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticlePayloadBenchmark {
+
+    private static final String VERSION = "0.0.0";
+
+    @Param({"10", "200"})
+    private int commentCount;
+
+    private ObjectMapper objectMapper;
+    private ArticleResponseDTO article;
+    private ArticlePayloadCache payloadCache;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Article entity = BenchmarkData.article(1, commentCount);
+        List<CommentResponseDTO> comments = entity.getCommentaires().stream()
+                .map(comment -> new CommentResponseDTO(comment.getId(), comment.getContenu(), comment.getAuteur(),
+                        comment.getDateCommentaire(), entity.getId(), comment.getThreadPosition()))
+                .toList();
+        article = new ArticleResponseDTO(entity.getId(), entity.getTitre(), entity.getContenu(),
+                entity.getDatePublication(), entity.getVersion(), comments);
+        payloadCache = new ArticlePayloadCache(objectMapper, new SimpleMeterRegistry(),
+                DataSize.ofMegabytes(64), DataSize.ofKilobytes(2));
+
+        ArticlePayloadCache.ArticlePayload payload = payloadCache.get(article.getId(), VERSION, () -> article, () -> VERSION);
+        System.out.printf("%n%d commentaires : %d octets JSON, %d octets gzip (niveau par défaut), %d octets gzip (pré-compressé)%n",
+                commentCount, payload.json().length, serializeAndGzip().length,
+                payload.gzip() != null ? payload.gzip().length : payload.json().length);
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipPerRequest() throws IOException {
+        return serializeAndGzip();
+    }
+
+    @Benchmark
+    public byte[] cachedPayload() {
+        return payloadCache.get(article.getId(), VERSION, () -> article, () -> VERSION).gzip();
+    }
+
+    private byte[] serializeAndGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(objectMapper.writeValueAsBytes(article));
+        }
+        return bytes.toByteArray();
+    }
+}
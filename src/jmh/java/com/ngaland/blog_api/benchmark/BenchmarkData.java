@@ -0,0 +1,36 @@
+package com.ngaland.blog_api.benchmark;
+
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.model.Comment;
+
+import java.time.LocalDateTime;
+
+// Jeux de données en mémoire partagés par les benchmarks de conversion et de sérialisation
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    // Article (non persisté) et ses commentaires, avec des ID fixés comme s'ils sortaient de la base
+    public static Article article(long id, int commentCount) {
+        LocalDateTime now = LocalDateTime.now();
+        Article article = new Article();
+        article.setId(id);
+        article.setTitre("Article de benchmark " + id);
+        article.setContenu("Contenu de l'article de benchmark. ".repeat(40));
+        article.setDatePublication(now);
+        article.setVersion(0L);
+        for (int i = 0; i < commentCount; i++) {
+            Comment comment = new Comment();
+            comment.setId(id * 100_000 + i);
+            comment.setAuteur("auteur" + (i % 50));
+            comment.setContenu("Commentaire numéro " + i + " sur l'article " + id);
+            comment.setDateCommentaire(now.plusSeconds(i));
+            comment.setThreadPosition(i + 1L);
+            comment.setVersion(0L);
+            comment.setArticle(article);
+            article.getCommentaires().add(comment);
+        }
+        return article;
+    }
+}
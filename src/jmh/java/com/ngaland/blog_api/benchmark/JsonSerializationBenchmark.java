@@ -0,0 +1,55 @@
+package com.ngaland.blog_api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.model.Article;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON d'une réponse liste d'articles (GET /api/v1/articles, pages, export),
+ * avec un ObjectMapper configuré comme celui de Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int articleCount;
+
+    @Param({"10"})
+    private int commentsPerArticle;
+
+    private ObjectMapper objectMapper;
+    private List<ArticleResponseDTO> articles;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        articles = new ArrayList<>(articleCount);
+        for (int i = 1; i <= articleCount; i++) {
+            Article article = BenchmarkData.article(i, commentsPerArticle);
+            List<CommentResponseDTO> comments = article.getCommentaires().stream()
+                    .map(comment -> new CommentResponseDTO(comment.getId(), comment.getContenu(), comment.getAuteur(),
+                            comment.getDateCommentaire(), article.getId(), comment.getThreadPosition()))
+                    .toList();
+            articles.add(new ArticleResponseDTO(article.getId(), article.getTitre(), article.getContenu(),
+                    article.getDatePublication(), article.getVersion(), comments));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeArticleList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(articles);
+    }
+}
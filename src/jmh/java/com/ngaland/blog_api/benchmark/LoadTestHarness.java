@@ -0,0 +1,214 @@
+package com.ngaland.blog_api.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test de charge d'une instance de l'API déjà démarrée : N clients simultanés (une connexion chacun)
+ * enchaînent des GET sur un même chemin pendant une durée fixe, puis le débit et les percentiles
+ * de latence sont affichés et écrits en JSON.
+ * <p>
+ * Pour comparer les modes d'exécution, lancer l'application avec BLOG_VIRTUAL_THREADS=false puis true,
+ * ou le jar du mode réactif (mvn -Preactive package), et exécuter le test contre chacune (voir le README, section Benchmarks).
+ * <p>
+ * La mémoire (tas utilisé) et le nombre de threads du serveur sont relevés par Actuator avant la charge puis chaque seconde
+ * pendant la charge : le pic, rapporté au nombre de clients, donne la mémoire par connexion de chaque mode.
+ * <p>
+ * Arguments : url [clients=1000] [durée en secondes=30] [chemin=/api/v1/articles/page?size=20] [libellé=run]
+ */
+public class LoadTestHarness {
+
+    // Métriques Actuator du serveur testé : tas utilisé (octets) et threads de la JVM (plateforme, hors threads virtuels)
+    private static final String HEAP_METRIC = "/actuator/metrics/jvm.memory.used?tag=area:heap";
+    private static final String THREADS_METRIC = "/actuator/metrics/jvm.threads.live";
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : LoadTestHarness url [clients] [durée-secondes] [chemin] [libellé]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        String path = args.length > 3 ? args[3] : "/api/v1/articles/page?size=20";
+        String label = args.length > 4 ? args[4] : "run";
+
+        ServerSampler sampler = new ServerSampler(baseUrl);
+        ServerUsage baseline = sampler.sample();
+        Thread samplerThread = Thread.ofVirtual().start(sampler);
+        Result result;
+        try {
+            result = run(URI.create(baseUrl + path), clients, duration);
+        } finally {
+            samplerThread.interrupt();
+            samplerThread.join();
+        }
+        String json = result.toJson(label, baseUrl + path, clients, baseline, sampler.peak());
+        System.out.println(json);
+        Path output = Path.of("target", "loadtest-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+    }
+
+    static Result run(URI uri, int clients, Duration duration) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        AtomicLong errors = new AtomicLong();
+
+        // Un thread virtuel par client : le générateur de charge ne doit pas être le goulet d'étranglement
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> runClient(httpClient, request, deadline, errors)));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int total = 0;
+        List<long[]> perClient = new ArrayList<>(clients);
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            perClient.add(latencies);
+            total += latencies.length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] latencies : perClient) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+        return new Result(all, errors.get(), elapsed);
+    }
+
+    // Latences (ns) des réponses 2xx d'un client jusqu'à l'échéance
+    private static long[] runClient(HttpClient httpClient, HttpRequest request, long deadline, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sent;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    // Tas utilisé (octets) et threads vivants du serveur ; -1 si Actuator ne les expose pas
+    record ServerUsage(double heapBytes, double threads) {
+
+        ServerUsage max(ServerUsage other) {
+            return new ServerUsage(Math.max(heapBytes, other.heapBytes), Math.max(threads, other.threads));
+        }
+    }
+
+    // Relève chaque seconde la mémoire et les threads du serveur, jusqu'à interruption, et garde le maximum
+    static final class ServerSampler implements Runnable {
+
+        private final String baseUrl;
+        private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        private volatile ServerUsage peak = new ServerUsage(-1, -1);
+
+        ServerSampler(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        ServerUsage peak() {
+            return peak;
+        }
+
+        ServerUsage sample() throws InterruptedException {
+            return new ServerUsage(metric(HEAP_METRIC), metric(THREADS_METRIC));
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    peak = peak.max(sample());
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private double metric(String path) throws InterruptedException {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(5)).GET().build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = METRIC_VALUE.matcher(response.body());
+                return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+            } catch (IOException e) {
+                return -1; // Serveur saturé ou Actuator absent : ce relevé est ignoré
+            }
+        }
+    }
+
+    record Result(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        String toJson(String label, String url, int clients, ServerUsage baseline, ServerUsage peak) {
+            // Mémoire par connexion : croissance du tas au pic de la charge, répartie sur les clients simultanés
+            double heapPerClientKb = baseline.heapBytes() < 0 || peak.heapBytes() < 0
+                    ? -1 : Math.max(0, peak.heapBytes() - baseline.heapBytes()) / clients / 1024;
+            return String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"url\":\"%s\",\"clients\":%d,\"requests\":%d,\"errors\":%d,"
+                            + "\"throughputPerSecond\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f,"
+                            + "\"heapBaselineMb\":%.1f,\"heapPeakMb\":%.1f,\"heapPerClientKb\":%.1f,"
+                            + "\"threadsBaseline\":%.0f,\"threadsPeak\":%.0f}",
+                    label, url, clients, sortedLatencies.length, errors, throughput(),
+                    percentileMillis(50), percentileMillis(99), percentileMillis(100),
+                    baseline.heapBytes() / (1024 * 1024), peak.heapBytes() / (1024 * 1024), heapPerClientKb,
+                    baseline.threads(), peak.threads());
+        }
+    }
+}
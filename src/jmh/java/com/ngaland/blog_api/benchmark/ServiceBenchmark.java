@@ -0,0 +1,83 @@
+package com.ngaland.blog_api.benchmark;
+
+import com.ngaland.blog_api.BlogApiApplication;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appels de bout en bout aux services (transactions, requêtes SQL, conversion) sur la base H2 en mémoire
+ * de la configuration de test (src/test/resources/config/application.properties).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"100"})
+    private int articleCount;
+
+    @Param({"10"})
+    private int commentsPerArticle;
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private CommentService commentService;
+    private Long articleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        articleService = context.getBean(ArticleService.class);
+        commentService = context.getBean(CommentService.class);
+        for (int i = 1; i <= articleCount; i++) {
+            articleId = articleService.createArticle(
+                    new ArticleRequestDTO("Article de benchmark " + i, "Contenu de l'article de benchmark " + i)).getId();
+            for (int j = 1; j <= commentsPerArticle; j++) {
+                commentService.addCommentToArticle(articleId, new CommentRequestDTO("Commentaire " + j, "auteur" + j));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ArticleResponseDTO getArticleById() {
+        return articleService.getArticleById(articleId); // Servi par le cache après le premier appel
+    }
+
+    @Benchmark
+    public CursorPageDTO<ArticleResponseDTO> getArticlesPage() {
+        return articleService.getArticlesPage(null, 20);
+    }
+
+    @Benchmark
+    public List<ArticleResponseDTO> getAllArticles() {
+        return articleService.getAllArticles();
+    }
+
+    @Benchmark
+    public List<CommentResponseDTO> getCommentsByArticleId() {
+        return commentService.getCommentsByArticleId(articleId);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ngaland.blog_api.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Temps de démarrage d'un jar de l'application : chaque exécution lance une nouvelle JVM, envoie un GET sur le chemin
+ * donné dès que possible et mesure le délai jusqu'à la première réponse 2xx (time-to-first-request), qui compte aussi
+ * ce que l'initialisation paresseuse reporte sur la première requête. Le temps de démarrage annoncé par Spring Boot
+ * ("Started ... in X seconds") est relevé dans le journal de l'exécution.
+ * <p>
+ * Pour comparer le jar classique et celui du profil Maven "prod" (AOT + CDS), lancer le benchmark sur chacun avec
+ * les options JVM correspondantes (voir le README, section Benchmarks). La base PostgreSQL doit être accessible.
+ * <p>
+ * Arguments : jar [exécutions=5] [libellé=run] [options JVM=""] [chemin=/api/v1/articles/page?size=20] [port=18080]
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : StartupBenchmark jar [exécutions] [libellé] [options-jvm] [chemin] [port]");
+            System.exit(1);
+        }
+        Path jar = Path.of(args[0]);
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String label = args.length > 2 ? args[2] : "run";
+        List<String> jvmOptions = args.length > 3 && !args[3].isBlank() ? List.of(args[3].trim().split("\\s+")) : List.of();
+        String path = args.length > 4 ? args[4] : "/api/v1/articles/page?size=20";
+        int port = args.length > 5 ? Integer.parseInt(args[5]) : 18080;
+
+        Path logDirectory = Path.of("target", "startup-" + label);
+        Files.createDirectories(logDirectory);
+        List<Run> results = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            Run run = run(jar, jvmOptions, URI.create("http://localhost:" + port + path), port, logDirectory.resolve("run-" + i + ".log"));
+            System.out.printf(Locale.ROOT, "Exécution %d : première réponse après %.0f ms (démarrage annoncé : %.0f ms)%n",
+                    i + 1, run.firstResponseMillis(), run.startedMillis());
+            results.add(run);
+        }
+
+        String json = toJson(label, jar, jvmOptions, path, results);
+        System.out.println(json);
+        Path output = Path.of("target", "startup-" + label + ".json");
+        Files.writeString(output, json);
+    }
+
+    // Délai (ms) entre le lancement de la JVM et la première réponse 2xx, et démarrage annoncé par Spring Boot
+    record Run(double firstResponseMillis, double startedMillis) {
+    }
+
+    static Run run(Path jar, List<String> jvmOptions, URI uri, int port, Path log) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("L'application s'est arrêtée pendant le démarrage, voir " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Aucune réponse après " + TIMEOUT + ", voir " + log);
+                }
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 == 2) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Serveur pas encore à l'écoute
+                }
+                Thread.sleep(5);
+            }
+            double firstResponseMillis = (System.nanoTime() - start) / 1e6;
+            return new Run(firstResponseMillis, startedMillis(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static double startedMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) * 1000 : -1;
+    }
+
+    private static String toJson(String label, Path jar, List<String> jvmOptions, String path, List<Run> results) {
+        double[] firstResponse = results.stream().mapToDouble(Run::firstResponseMillis).sorted().toArray();
+        double[] started = results.stream().mapToDouble(Run::startedMillis).sorted().toArray();
+        return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"jar\":\"%s\",\"jvmOptions\":\"%s\",\"path\":\"%s\",\"runs\":%d,"
+                        + "\"firstResponseMedianMs\":%.0f,\"firstResponseMinMs\":%.0f,\"firstResponseMaxMs\":%.0f,"
+                        + "\"startedMedianMs\":%.0f,\"firstResponseMs\":%s}",
+                label, jar, String.join(" ", jvmOptions), path, results.size(),
+                median(firstResponse), firstResponse[0], firstResponse[firstResponse.length - 1],
+                median(started), Arrays.toString(results.stream().mapToLong(run -> Math.round(run.firstResponseMillis())).toArray()));
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
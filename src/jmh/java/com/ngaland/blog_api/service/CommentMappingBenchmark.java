@@ -0,0 +1,40 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.benchmark.BenchmarkData;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.model.Comment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de CommentServiceImpl.convertToDto sur la liste des commentaires d'un article,
+ * comme dans getCommentsByArticleId, sans base de données.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentMappingBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int commentCount;
+
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        comments = BenchmarkData.article(1L, commentCount).getCommentaires();
+    }
+
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(CommentServiceImpl.convertToDto(comment));
+        }
+    }
+}
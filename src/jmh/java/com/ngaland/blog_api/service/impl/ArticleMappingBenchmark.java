@@ -0,0 +1,37 @@
+package com.ngaland.blog_api.service.impl;
+
+import com.ngaland.blog_api.benchmark.BenchmarkData;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.model.Article;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de ArticleServiceImpl.convertToDto (article et tous ses commentaires vers ArticleResponseDTO),
+ * sans base de données : les entités sont construites en mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleMappingBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int commentCount;
+
+    private Article article;
+
+    @Setup
+    public void setUp() {
+        article = BenchmarkData.article(1L, commentCount);
+    }
+
+    @Benchmark
+    public ArticleResponseDTO convertToDto() {
+        return ArticleServiceImpl.convertToDto(article);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.ngaland.blog_api.admin;
+
+import com.ngaland.blog_api.service.ArticleSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reconstruction de l'index de recherche, réservée à l'exploitation : endpoint Actuator (POST /actuator/searchindex,
+ * corps {"full": true} facultatif), absent de l'API publique et non exposé tant qu'il n'est pas ajouté à
+ * management.endpoints.web.exposure.include (voir application.properties).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog.search.enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    private final ArticleSearchService articleSearchService;
+
+    // full absent ou false : seuls les articles absents de l'index ou modifiés depuis leur indexation ; true : tous
+    @WriteOperation
+    public Map<String, Integer> reindex(@Nullable Boolean full) {
+        int indexed = articleSearchService.reindex(Boolean.TRUE.equals(full));
+        return Map.of("articlesIndexes", indexed);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ngaland.blog_api.cache;
+
+import com.ngaland.blog_api.event.ArticleChangedEvent;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.model.Comment;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+/**
+ * Retire du cache (DTO et réponse sérialisée) l'article concerné par chaque modification d'article ou de commentaire,
+ * après le commit de la transaction. Une lecture qui a chargé l'ancienne version avant ce commit ne la remet pas
+ * en cache : ArticleResponseCache détecte l'invalidation survenue pendant la lecture.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleCacheInvalidator {
+
+    private final ArticleResponseCache articleResponseCache;
+    private final ArticlePayloadCache articlePayloadCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true) // fallbackExecution : s'exécute aussi hors transaction
+    public void onArticleChanged(ArticleChangedEvent event) {
+        evict(event.articleId());
+        if (event.type() == ChangeType.UPDATED) {
+            // La modification a remis dans le cache de second niveau l'état chargé avant elle, compteurs de commentaires
+            // compris (colonnes updatable = false) : un commentaire ajouté entre-temps n'y serait pas compté
+            refreshSecondLevelCache(event.articleId());
+        }
+        if (event.type() == ChangeType.DELETED) {
+            // Les commentaires de l'article supprimé sont masqués par Comment @SQLRestriction, que le cache de second
+            // niveau ne consulte pas : ils en sont retirés (suppression rare, toute la région est vidée)
+            entityManagerFactory.getCache().evict(Comment.class);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        // Les commentaires sont inclus dans ArticleResponseDTO : l'article en cache n'est plus à jour
+        evict(event.articleId());
+    }
+
+    // Retirer l'entrée ne suffit pas : une lecture commencée avant le commit y remettrait l'ancienne version.
+    // L'article est relu aussitôt (hors transaction, donc sur la base principale) et remis en cache : Hibernate
+    // n'y remplace plus ensuite une version par une plus ancienne.
+    private void refreshSecondLevelCache(Long articleId) {
+        entityManagerFactory.getCache().evict(Article.class, articleId);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.find(Article.class, articleId, Map.of(
+                    AvailableSettings.JAKARTA_SHARED_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS,
+                    AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.REFRESH));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void evict(Long articleId) {
+        articleResponseCache.invalidate(articleId);
+        articlePayloadCache.evict(articleId); // Réponse sérialisée de l'ancienne version : libère la mémoire
+    }
+}
@@ -0,0 +1,136 @@
+package com.ngaland.blog_api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Réponses GET /api/v1/articles/{id} prêtes à envoyer : JSON déjà sérialisé et sa version compressée en gzip.
+ * <p>
+ * Une entrée n'est servie que pour la version de l'article et de ses commentaires lue par le contrôleur (celle de
+ * l'ETag) : une modification change la version, l'ancienne entrée n'est donc jamais renvoyée même avant son éviction
+ * (faite par ArticleCacheInvalidator). Le cache est borné en octets ; Caffeine y garde les articles les plus demandés.
+ */
+@Component
+public class ArticlePayloadCache {
+
+    public static final String CACHE_NAME = "article-payloads";
+
+    private final ObjectMapper objectMapper;
+    private final long compressionMinSize;
+    private final Cache<Long, ArticlePayload> payloads;
+
+    public ArticlePayloadCache(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${blog.articles.payload-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${server.compression.min-response-size:2KB}") DataSize compressionMinSize) {
+        this.objectMapper = objectMapper;
+        this.compressionMinSize = compressionMinSize.toBytes();
+        this.payloads = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, ArticlePayload payload) -> payload.size())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, payloads, CACHE_NAME);
+    }
+
+    // Réponse de l'article pour cette version. En cas d'absence seulement, loader lit l'article en base (conversion
+    // + sérialisation + compression) puis currentVersion relit sa version : si elle n'a pas changé depuis version, aucune
+    // modification n'a été validée pendant la lecture et la réponse est gardée. Sinon, elle est renvoyée sans version.
+    public ArticlePayload get(Long id, String version, Supplier<ArticleResponseDTO> loader, Supplier<String> currentVersion) {
+        ArticlePayload cached = payloads.getIfPresent(id);
+        if (cached != null && version.equals(cached.version())) {
+            return cached;
+        }
+        ArticleResponseDTO article = loader.get();
+        if (!version.equals(currentVersion.get())) {
+            return toPayload(article, null);
+        }
+        ArticlePayload payload = toPayload(article, version);
+        payloads.put(id, payload);
+        return payload;
+    }
+
+    public void evict(Long id) {
+        payloads.invalidate(id);
+    }
+
+    ArticlePayload toPayload(ArticleResponseDTO article, String version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(article);
+            // Comme pour la compression dynamique de Tomcat, les petites réponses ne sont pas compressées
+            byte[] gzip = json.length >= compressionMinSize ? gzip(json) : null;
+            return new ArticlePayload(version, json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Compression maximale : elle n'est payée qu'une fois par version d'article, pas à chaque requête
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Le client accepte-t-il gzip (en-tête Accept-Encoding, gzip;q=0 exclu) ?
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+            String name = parts[0].trim();
+            if (!name.equals("gzip") && !name.equals("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=")) {
+                    refused = parameter.matches("q=0(\\.0{0,3})?");
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Réponse d'une version d'article : corps JSON, et sa version gzip (null si le JSON est trop petit pour être compressé).
+     * version est null si une modification concurrente empêche de savoir quelle version a été lue.
+     */
+    public record ArticlePayload(String version, byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ngaland.blog_api.cache;
+
+import com.ngaland.blog_api.config.CacheConfig;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Articles complets (ArticleResponseDTO, commentaires inclus) dans le cache Spring "articles" (Caffeine, local à
+ * l'instance). Il sert les lectures groupées (GET /api/v1/articles?ids=...) et ArticleService.getArticleById ;
+ * GET /api/v1/articles/{id} passe par ArticlePayloadCache (réponses déjà sérialisées), alimenté par
+ * ArticleService.loadArticleById sans passer par ce cache. Chaque instance n'évince que les articles modifiés par
+ * ses propres requêtes : les autres instances gardent leur entrée jusqu'à son expiration (spring.cache.caffeine.spec).
+ * <p>
+ * Une lecture commencée avant le commit d'une modification peut se terminer après l'éviction de l'article : la mettre
+ * en cache telle quelle y replacerait l'ancienne version jusqu'à l'expiration de l'entrée. Chaque invalidation écrit
+ * donc un nouveau jeton dans le cache "article-invalidations", puis évince l'article. Une lecture relève le jeton
+ * avant d'interroger la base, met le résultat en cache, puis relit le jeton : s'il a changé, l'entrée qu'elle vient
+ * d'écrire est aussitôt retirée. Une invalidation postérieure à cette relecture évince elle-même l'entrée.
+ */
+@Component
+public class ArticleResponseCache {
+
+    private final CacheManager cacheManager;
+
+    public ArticleResponseCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Article en cache, ou null
+    public ArticleResponseDTO get(Long id) {
+        Cache articles = cacheManager.getCache(CacheConfig.ARTICLES_CACHE);
+        return articles != null ? articles.get(id, ArticleResponseDTO.class) : null;
+    }
+
+    // Article en cache ; sinon lu par loader (dont les exceptions sont propagées) puis mis en cache
+    public ArticleResponseDTO get(Long id, Supplier<ArticleResponseDTO> loader) {
+        ArticleResponseDTO cached = get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Object token = invalidationToken(id);
+        ArticleResponseDTO article = loader.get();
+        put(article, token);
+        return article;
+    }
+
+    // Jeton d'invalidation de l'article, à relever avant de le lire en base (voir put)
+    public Object invalidationToken(Long id) {
+        Cache invalidations = cacheManager.getCache(CacheConfig.ARTICLE_INVALIDATIONS_CACHE);
+        Cache.ValueWrapper token = invalidations != null ? invalidations.get(id) : null;
+        return token != null ? token.get() : null;
+    }
+
+    // Met en cache un article lu en base après le relevé de tokenBeforeRead, sauf s'il a été invalidé entre-temps
+    public void put(ArticleResponseDTO article, Object tokenBeforeRead) {
+        Cache articles = cacheManager.getCache(CacheConfig.ARTICLES_CACHE);
+        if (articles == null || cacheManager.getCache(CacheConfig.ARTICLE_INVALIDATIONS_CACHE) == null) {
+            return; // Sans jeton, une lecture périmée ne pourrait pas être détectée : pas de mise en cache
+        }
+        articles.put(article.getId(), article);
+        if (!Objects.equals(tokenBeforeRead, invalidationToken(article.getId()))) {
+            articles.evict(article.getId());
+        }
+    }
+
+    // Appelé après le commit de chaque modification de l'article ou de ses commentaires (ArticleCacheInvalidator)
+    public void invalidate(Long id) {
+        Cache invalidations = cacheManager.getCache(CacheConfig.ARTICLE_INVALIDATIONS_CACHE);
+        if (invalidations != null) {
+            invalidations.put(id, UUID.randomUUID().toString()); // Avant l'éviction (voir la description de la classe)
+        }
+        Cache articles = cacheManager.getCache(CacheConfig.ARTICLES_CACHE);
+        if (articles != null) {
+            articles.evict(id);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ngaland.blog_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching // Active les annotations @Cacheable / @CacheEvict ; le backend est choisi par spring.cache.type
+public class CacheConfig {
+
+    // Cache des articles complets (ArticleResponseDTO), indexé par l'ID de l'article
+    public static final String ARTICLES_CACHE = "articles";
+
+    // Jeton de la dernière invalidation de chaque article (voir ArticleResponseCache)
+    public static final String ARTICLE_INVALIDATIONS_CACHE = "article-invalidations";
+}
@@ -0,0 +1,18 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.realtime.CommentEventBroker;
+import com.ngaland.blog_api.realtime.InMemoryCommentEventBroker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CommentStreamConfig {
+
+    // Broker local par défaut ; un autre bean CommentEventBroker (ex: Redis) le remplace pour partager les événements entre instances
+    @Bean
+    @ConditionalOnMissingBean(CommentEventBroker.class)
+    public CommentEventBroker commentEventBroker() {
+        return new InMemoryCommentEventBroker();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.datasource.ReadWriteRoutingDataSource;
+import com.ngaland.blog_api.datasource.ReplicaReadCacheModeListener;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectures sur réplicas (actif si blog.datasource.replica-urls est renseigné) : remplace la source de données
+ * de Spring Boot par un ReadWriteRoutingDataSource. Les pools (principal et réplicas) reprennent les réglages
+ * spring.datasource.hikari.*.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.replica-urls")
+public class DataSourceRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    // Attente maximale d'une connexion d'un réplica avant de se replier sur la base principale
+    private static final long REPLICA_CONNECTION_TIMEOUT_MS = 1000;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${blog.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${blog.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${blog.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariConfig config = new HikariConfig();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(config));
+            config.setPoolName("replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setReadOnly(true);
+            config.setMetricRegistry(meterRegistry);
+            config.setInitializationFailTimeout(-1); // Un réplica injoignable n'empêche pas le démarrage
+            // Attente courte : un réplica qui ne répond plus est vite écarté au profit de la base principale
+            config.setConnectionTimeout(Math.min(config.getConnectionTimeout(), REPLICA_CONNECTION_TIMEOUT_MS));
+            replicas.add(new HikariDataSource(config));
+        }
+        log.info("Lectures seules réparties sur {} réplica(s)", replicas.size());
+
+        // Connexion obtenue à la première requête SQL, une fois la transaction (et son caractère readOnly) démarrée
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas, meterRegistry));
+    }
+
+    // Enregistré par Spring Boot auprès du gestionnaire de transactions : les lectures des réplicas n'alimentent pas
+    // le cache de second niveau
+    @Bean
+    public ReplicaReadCacheModeListener replicaReadCacheModeListener(EntityManagerFactory entityManagerFactory) {
+        return new ReplicaReadCacheModeListener(entityManagerFactory);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ngaland.blog_api.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Initialisation paresseuse (spring.main.lazy-initialization=true, profil prod) : restent créés au démarrage les beans
+ * qui ont des tâches @Scheduled (purge, relais des modifications, tendances...), jamais planifiées sinon, et ceux
+ * qui démarrent un traitement dans leur @PostConstruct (rejeu du journal d'écriture différée).
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledAndStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || method.isAnnotationPresent(PostConstruct.class));
+    }
+}
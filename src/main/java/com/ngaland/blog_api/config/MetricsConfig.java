@@ -0,0 +1,28 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Nom du timer des méthodes de service (@Timed sur les implémentations des services)
+    public static final String SERVICE_TIMER = "blog.service";
+
+    // Active @Timed : un timer par méthode, avec les tags class, method et exception
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Fait passer chaque requête SQL préparée par Hibernate par le compteur par requête HTTP
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
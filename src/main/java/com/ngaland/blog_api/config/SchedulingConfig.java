@@ -0,0 +1,9 @@
+package com.ngaland.blog_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Active les tâches @Scheduled (ex: indexation différée de la recherche)
+public class SchedulingConfig {
+}
@@ -0,0 +1,29 @@
+package com.ngaland.blog_api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Migrations Flyway du profil prod (bd/migrations). Avec blog.schema.migrate-on-startup=false, les migrations sont
+ * appliquées par une étape du déploiement : les instances démarrent sans verrouiller ni lire l'historique Flyway
+ * (c'est aussi ce que fait l'exécution d'entraînement de l'archive CDS, qui n'a pas de base à sa disposition).
+ */
+@Slf4j
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${blog.schema.migrate-on-startup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("Migrations du schéma non appliquées au démarrage (blog.schema.migrate-on-startup=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.ngaland.blog_api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate : entités Article et Comment, collection Article.commentaires et résultats de
+ * ArticleRepository.findByTitre, dans des caches Caffeine exposés par l'API JCache.
+ * Chaque région est bornée en nombre d'entrées et en durée (blog.l2-cache.regions.&lt;région&gt;.max-entries /
+ * expire-after-write) ; ses statistiques sont publiées par Micrometer (hibernate.second.level.cache.*, tag region).
+ * <p>
+ * Le cache est local à chaque instance : une modification n'est retirée que du cache de l'instance qui l'a faite.
+ * Avec plusieurs instances, les autres servent l'ancienne version jusqu'à l'expiration de l'entrée ; les durées par
+ * défaut sont donc courtes (1 minute). Une instance unique peut les allonger sans risque.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String ARTICLES_REGION = "articles";
+    public static final String ARTICLE_COMMENTS_REGION = "article-comments";
+    public static final String COMMENTS_REGION = "comments";
+    public static final String ARTICLE_TITLES_REGION = "article-titles";
+
+    private static final String REGIONS_PREFIX = "blog.l2-cache.regions.";
+
+    // Réglages par défaut des régions, surchargeables une à une par les propriétés. La durée de vie borne le retard
+    // d'une instance sur les modifications faites par une autre
+    private static final Map<String, RegionSettings> DEFAULT_REGIONS = Map.of(
+            ARTICLES_REGION, new RegionSettings(10_000, Duration.ofMinutes(1)),
+            ARTICLE_COMMENTS_REGION, new RegionSettings(10_000, Duration.ofMinutes(1)),
+            COMMENTS_REGION, new RegionSettings(100_000, Duration.ofMinutes(1)),
+            ARTICLE_TITLES_REGION, new RegionSettings(10_000, Duration.ofMinutes(1)),
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, new RegionSettings(1_000, Duration.ofMinutes(1)));
+
+    record RegionSettings(long maxEntries, Duration expireAfterWrite) {
+    }
+
+    // Un gestionnaire par contexte Spring (URI unique) : plusieurs contextes coexistent dans les tests
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("blog-l2-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        Binder binder = Binder.get(environment);
+        Map<String, RegionSettings> regions = new LinkedHashMap<>();
+        DEFAULT_REGIONS.forEach((name, defaults) -> regions.put(name, new RegionSettings(
+                binder.bind(REGIONS_PREFIX + name + ".max-entries", Long.class).orElse(defaults.maxEntries()),
+                binder.bind(REGIONS_PREFIX + name + ".expire-after-write", Duration.class).orElse(defaults.expireAfterWrite()))));
+        regions.forEach((name, settings) -> cacheManager.createCache(name, configuration(settings)));
+
+        // Dates de dernière modification des tables, qui invalident les résultats de requêtes en cache :
+        // jamais bornée ni expirée, sans quoi une requête pourrait renvoyer un résultat périmé (sur cette instance :
+        // les modifications faites par une autre ne sont pas vues, d'où la durée de vie courte du cache de requêtes)
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    // Hibernate utilise ce gestionnaire ; une région sans cache configuré fait échouer le démarrage
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(RegionSettings settings) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Les entrées de Hibernate (état "désassemblé" des entités) sont immuables : pas de copie à chaque accès
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(settings.maxEntries()));
+        configuration.setExpireAfterWrite(OptionalLong.of(settings.expireAfterWrite().toNanos()));
+        return configuration;
+    }
+}
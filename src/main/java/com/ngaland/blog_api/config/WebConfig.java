@@ -0,0 +1,34 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.dto.ArticleRanking;
+import com.ngaland.blog_api.dto.ArticleView;
+import com.ngaland.blog_api.dto.CommentDirection;
+import com.ngaland.blog_api.ratelimit.RateLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<RateLimitInterceptor> rateLimitInterceptor; // Présent si blog.rate-limit.enabled=true
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // Paramètres view, by et direction insensibles à la casse (?view=summary, ?by=comments, ?direction=newer) ; une valeur inconnue donne une réponse 400
+        registry.addConverter(String.class, ArticleView.class, (Converter<String, ArticleView>) ArticleView::fromParameter);
+        registry.addConverter(String.class, ArticleRanking.class, (Converter<String, ArticleRanking>) ArticleRanking::fromParameter);
+        registry.addConverter(String.class, CommentDirection.class, (Converter<String, CommentDirection>) CommentDirection::fromParameter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Limitation du débit et cloison des écritures de l'API (les lectures passent sans contrôle)
+        rateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+}
@@ -1,8 +1,20 @@
 package com.ngaland.blog_api.controller;
 
+import com.ngaland.blog_api.cache.ArticlePayloadCache;
+import com.ngaland.blog_api.cache.ArticlePayloadCache.ArticlePayload;
+import com.ngaland.blog_api.dto.ArticleBatchDTO;
+import com.ngaland.blog_api.dto.ArticleRanking;
 import com.ngaland.blog_api.dto.ArticleRequestDTO;
 import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.ArticleView;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
+import com.ngaland.blog_api.dto.TrendingArticleDTO;
+import com.ngaland.blog_api.ratelimit.ExportBulkhead;
 import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.trending.TrendingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,10 +24,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController // Indique que c'est un contrôleur REST
@@ -24,7 +43,14 @@ import java.util.List;
 @Tag(name = "Articles", description = "API pour la gestion des articles de blog")
 public class ArticleController {
 
+    // Type de contenu JSON délimité par des retours à la ligne (un objet JSON par ligne)
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final ArticleService articleService;
+    private final ArticlePayloadCache articlePayloadCache;
+    private final ObjectMapper objectMapper;
+    private final TrendingEngine trendingEngine;
+    private final ExportBulkhead exportBulkhead;
 
     @Operation(summary = "Crée un nouvel article de blog")
     @ApiResponses(value = {
@@ -33,6 +59,8 @@ public class ArticleController {
             @ApiResponse(responseCode = "400", description = "Requête invalide (données manquantes ou format incorrect)",
                     content = @Content),
             @ApiResponse(responseCode = "409", description = "Un article avec ce titre existe déjà",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @PostMapping // Mappe les requêtes POST sur ce chemin
@@ -43,29 +71,171 @@ public class ArticleController {
         return new ResponseEntity<>(createdArticle, HttpStatus.CREATED); // Retourne 201 Created
     }
 
-    @Operation(summary = "Récupère tous les articles de blog")
+    @Operation(summary = "Récupère tous les articles de blog (view=summary : résumés sans contenu complet ni commentaires)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Liste des articles récupérée avec succès",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Liste des articles récupérée avec succès (ArticleResponseDTO, ou ArticleSummaryDTO avec view=summary)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Valeur de view invalide",
+                    content = @Content)
     })
     @GetMapping // Mappe les requêtes GET sur ce chemin
-    public ResponseEntity<List<ArticleResponseDTO>> getAllArticles() {
-        List<ArticleResponseDTO> articles = articleService.getAllArticles();
+    public ResponseEntity<List<?>> getAllArticles(
+            @Parameter(description = "Représentation des articles : full (contenu et commentaires) ou summary (titre, date, extrait, nombre de commentaires)")
+            @RequestParam(defaultValue = "full") ArticleView view) {
+        List<?> articles = view == ArticleView.SUMMARY
+                ? articleService.getArticleSummaries()
+                : articleService.getAllArticles();
         return ResponseEntity.ok(articles); // Retourne 200 OK
     }
 
-    @Operation(summary = "Récupère un article de blog par son ID")
+    @Operation(summary = "Récupère plusieurs articles par leurs ID en un seul appel (view=summary : résumés)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Articles trouvés dans l'ordre demandé, et ID sans article correspondant",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleBatchDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Liste d'ID ou valeur de view invalide",
+                    content = @Content),
+            @ApiResponse(responseCode = "413", description = "Trop d'ID demandés (100 au maximum)",
+                    content = @Content)
+    })
+    @GetMapping(params = "ids") // Mappe les requêtes GET sur /articles?ids=1,2,3
+    public ResponseEntity<ArticleBatchDTO<?>> getArticlesByIds(
+            @Parameter(description = "ID des articles, séparés par des virgules (100 au maximum)")
+            @RequestParam List<Long> ids,
+            @Parameter(description = "Représentation des articles : full (contenu et commentaires) ou summary (titre, date, extrait, nombre de commentaires)")
+            @RequestParam(defaultValue = "full") ArticleView view) {
+        ArticleBatchDTO<?> batch = view == ArticleView.SUMMARY
+                ? articleService.getArticleSummariesByIds(ids)
+                : articleService.getArticlesByIds(ids);
+        return ResponseEntity.ok(batch); // Retourne 200 OK, même si certains ID n'existent pas (voir missingIds)
+    }
+
+    @Operation(summary = "Récupère les articles page par page (pagination par curseur, les plus récents d'abord)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page d'articles récupérée avec succès (ArticleResponseDTO, ou ArticleSummaryDTO avec view=summary)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Curseur de pagination ou valeur de view invalide",
+                    content = @Content)
+    })
+    @GetMapping("/page") // Mappe les requêtes GET sur /articles/page
+    public ResponseEntity<CursorPageDTO<?>> getArticlesPage(
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre d'articles par page (100 au maximum)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Représentation des articles : full (contenu et commentaires) ou summary (titre, date, extrait, nombre de commentaires)")
+            @RequestParam(defaultValue = "full") ArticleView view) {
+        CursorPageDTO<?> page = view == ArticleView.SUMMARY
+                ? articleService.getArticleSummariesPage(cursor, size)
+                : articleService.getArticlesPage(cursor, size);
+        return ResponseEntity.ok(page); // Retourne 200 OK
+    }
+
+    @Operation(summary = "Classement des articles : les plus commentés (by=comments) ou commentés le plus récemment (by=activity)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Classement récupéré avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleSummaryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Valeur de by invalide",
+                    content = @Content)
+    })
+    @GetMapping("/ranking") // Mappe les requêtes GET sur /articles/ranking
+    public ResponseEntity<List<ArticleSummaryDTO>> getArticleRanking(
+            @Parameter(description = "Critère du classement : comments ou activity")
+            @RequestParam(defaultValue = "comments") ArticleRanking by,
+            @Parameter(description = "Nombre d'articles du classement (100 au maximum)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(articleService.getArticleRanking(by, limit)); // Retourne 200 OK
+    }
+
+    @Operation(summary = "Articles tendance : activité récente (commentaires et consultations), les événements anciens comptant de moins en moins")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Classement récupéré avec succès (mis à jour chaque seconde, sans accès à la base)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrendingArticleDTO.class)))
+    })
+    @GetMapping("/trending") // Mappe les requêtes GET sur /articles/trending
+    public ResponseEntity<List<TrendingArticleDTO>> getTrendingArticles(
+            @Parameter(description = "Nombre d'articles du classement (blog.trending.capacity au maximum)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingEngine.getTrending(limit)); // Retourne 200 OK
+    }
+
+    @Operation(summary = "Exporte tous les articles et leurs commentaires en flux NDJSON (un article par ligne)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export en cours d'envoi",
+                    content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "429", description = "Trop d'exports en cours sur cette instance (voir l'en-tête Retry-After)",
+                    content = @Content)
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE) // Mappe les requêtes GET sur /articles/export
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        // Une connexion reste prise tant que le client lit : nombre d'exports simultanés borné (429 au-delà)
+        exportBulkhead.acquire();
+        // Le corps est écrit au fil de la lecture en base, sur un thread asynchrone : rien n'est accumulé en mémoire
+        StreamingResponseBody body = outputStream -> {
+            try {
+                articleService.exportArticles(chunk -> writeNdjsonChunk(outputStream, chunk));
+                outputStream.flush();
+            } finally {
+                exportBulkhead.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body); // Retourne 200 OK
+    }
+
+    // Écrit un lot d'articles, une ligne JSON par article, puis envoie immédiatement le lot au client
+    private void writeNdjsonChunk(OutputStream outputStream, List<ArticleResponseDTO> chunk) {
+        try {
+            for (ArticleResponseDTO article : chunk) {
+                outputStream.write(objectMapper.writeValueAsBytes(article));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Operation(summary = "Récupère un article de blog par son ID (supporte If-None-Match / If-Modified-Since)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Article récupéré avec succès",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Article inchangé depuis la version connue du client",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Article non trouvé",
                     content = @Content)
     })
     @GetMapping("/{id}") // Mappe les requêtes GET sur /articles/{id}
-    public ResponseEntity<ArticleResponseDTO> getArticleById(
-            @Parameter(description = "ID de l'article à récupérer") @PathVariable Long id) {
-        ArticleResponseDTO article = articleService.getArticleById(id);
-        return ResponseEntity.ok(article); // Retourne 200 OK
+    public ResponseEntity<byte[]> getArticleById(
+            @Parameter(description = "ID de l'article à récupérer") @PathVariable Long id,
+            WebRequest webRequest) {
+        // Deux représentations (JSON brut ou gzip) selon Accept-Encoding : chacune a son propre ETag fort
+        boolean gzipAccepted = ArticlePayloadCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String representation = gzipAccepted ? "article-gzip" : "article";
+
+        // On compare d'abord la version connue du client à une lecture légère de la version en base
+        ResourceVersionDTO version = articleService.getArticleVersion(id);
+        trendingEngine.recordView(id); // L'article existe (sinon 404 ci-dessus) : la consultation compte pour les tendances
+        if (webRequest.checkNotModified(version.toETag(representation), version.lastModifiedMillis())) {
+            return null; // 304 Not Modified : Spring a déjà positionné le statut et les en-têtes, sans corps
+        }
+        // Corps déjà sérialisé (et compressé) pour cette version : ni conversion, ni Jackson, ni gzip à chaque requête.
+        // En cas d'absence, l'article est lu en base (et non dans le cache des articles, qui peut encore contenir
+        // la version précédente juste après un commit), puis sa version relue.
+        ArticlePayload payload = articlePayloadCache.get(id, version.getVersion(),
+                () -> articleService.loadArticleById(id), () -> articleService.getArticleVersion(id).getVersion());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // Sans version connue (modification pendant la lecture), ni ETag ni Last-Modified : le client relira l'article
+        if (payload.version() != null) {
+            response.eTag(version.toETag(representation)).lastModified(version.lastModifiedMillis());
+        }
+        if (gzipAccepted && payload.gzip() != null) {
+            // Content-Encoding déjà positionné : Tomcat ne recompresse pas la réponse
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip()); // Retourne 200 OK
+        }
+        return response.body(payload.json()); // Retourne 200 OK
     }
 
     @Operation(summary = "Met à jour un article de blog existant")
@@ -77,6 +247,8 @@ public class ArticleController {
             @ApiResponse(responseCode = "404", description = "Article non trouvé",
                     content = @Content),
             @ApiResponse(responseCode = "409", description = "Un autre article avec ce titre existe déjà",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @PutMapping("/{id}") // Mappe les requêtes PUT sur /articles/{id}
@@ -92,6 +264,8 @@ public class ArticleController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Article supprimé avec succès"),
             @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @DeleteMapping("/{id}") // Mappe les requêtes DELETE sur /articles/{id}
@@ -0,0 +1,39 @@
+package com.ngaland.blog_api.controller;
+
+import com.ngaland.blog_api.dto.ArticleSearchPageDTO;
+import com.ngaland.blog_api.service.ArticleSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/articles/search")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog.search.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Recherche", description = "API de recherche plein texte dans les articles et leurs commentaires")
+public class ArticleSearchController {
+
+    private final ArticleSearchService articleSearchService;
+
+    @Operation(summary = "Recherche des articles par mots-clés (titre, contenu et commentaires), triés par pertinence")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Résultats de la recherche",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleSearchPageDTO.class)))
+    })
+    @GetMapping // Mappe les requêtes GET sur /articles/search
+    public ResponseEntity<ArticleSearchPageDTO> search(
+            @Parameter(description = "Termes recherchés (syntaxe web : \"expression exacte\", -exclu, or)", example = "spring boot")
+            @RequestParam("q") String query,
+            @Parameter(description = "Numéro de la page (à partir de 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Nombre de résultats par page (50 au maximum)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(articleSearchService.search(query, page, size));
+    }
+}
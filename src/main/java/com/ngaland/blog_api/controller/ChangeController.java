@@ -0,0 +1,39 @@
+package com.ngaland.blog_api.controller;
+
+import com.ngaland.blog_api.dto.ChangeFeedPageDTO;
+import com.ngaland.blog_api.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+@Tag(name = "Modifications", description = "Flux des modifications d'articles et de commentaires, pour la synchronisation incrémentale")
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Operation(summary = "Récupère les modifications publiées après since, dans l'ordre (repartir du nextSince renvoyé)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page du flux des modifications",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChangeFeedPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètre since ou limit invalide",
+                    content = @Content)
+    })
+    @GetMapping // Mappe les requêtes GET sur /changes
+    public ResponseEntity<ChangeFeedPageDTO> getChanges(
+            @Parameter(description = "Numéro de la dernière modification déjà traitée (0 : depuis le début du flux conservé)")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Nombre de modifications par page (1000 au maximum)")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+}
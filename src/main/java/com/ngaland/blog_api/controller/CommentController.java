@@ -1,22 +1,52 @@
 package com.ngaland.blog_api.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.ngaland.blog_api.datasource.ReadWriteRoutingDataSource;
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentDirection;
 import com.ngaland.blog_api.dto.CommentRequestDTO;
 import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CommentSubmissionDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
+import com.ngaland.blog_api.exception.BulkLimitExceededException;
+import com.ngaland.blog_api.ratelimit.RateLimit;
+import com.ngaland.blog_api.ratelimit.RateLimiter;
+import com.ngaland.blog_api.realtime.CommentStreamHub;
 import com.ngaland.blog_api.service.CommentService;
+import com.ngaland.blog_api.writebehind.CommentWriteBehindQueue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/articles/{articleId}/comments")
@@ -24,57 +54,248 @@ import java.util.List;
 @Tag(name = "Commentaires", description = "API pour la gestion des commentaires d'articles de blog")
 public class CommentController {
 
+    // Type de contenu JSON délimité par des retours à la ligne (un objet JSON par ligne)
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final CommentService commentService;
+    private final CommentStreamHub commentStreamHub;
+    private final ObjectProvider<CommentWriteBehindQueue> writeBehindQueue; // Présente si blog.comments.write-behind.enabled=true
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RateLimiter> rateLimiter; // Présent si blog.rate-limit.enabled=true
 
-    @Operation(summary = "Ajoute un commentaire à un article spécifique")
+    @Operation(summary = "Ajoute un commentaire à un article spécifique (accepté puis enregistré en différé si l'écriture différée est activée)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Commentaire ajouté avec succès",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "202", description = "Commentaire accepté, enregistré en différé (écriture différée activée)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentSubmissionDTO.class))),
             @ApiResponse(responseCode = "400", description = "Requête invalide",
                     content = @Content),
             @ApiResponse(responseCode = "404", description = "Article non trouvé",
                     content = @Content),
             @ApiResponse(responseCode = "409", description = "Un commentaire identique de cet auteur existe déjà sur cet article",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de commentaires (client, auteur ou article) ou file d'écriture différée pleine (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @PostMapping // Mappe les requêtes POST sur /articles/{articleId}/comments
-    public ResponseEntity<CommentResponseDTO> addCommentToArticle(
+    public ResponseEntity<?> addCommentToArticle(
             @Parameter(description = "ID de l'article auquel ajouter le commentaire") @PathVariable Long articleId,
             @Valid @RequestBody @Parameter(description = "Objet CommentRequestDTO pour la création du commentaire")
             CommentRequestDTO commentRequestDTO) {
+        // Limite par auteur (les limites par client et par article sont appliquées avant, par RateLimitInterceptor)
+        rateLimiter.ifAvailable(limiter -> limiter.check(RateLimit.COMMENT_AUTHOR,
+                commentRequestDTO.getAuteur().strip().toLowerCase(Locale.ROOT)));
+        CommentWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue != null) {
+            // Écriture différée : aucune requête SQL ici, l'existence de l'article est vérifiée à l'enregistrement
+            CommentSubmissionDTO submission = queue.submit(articleId, commentRequestDTO);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/submissions/{trackingId}")
+                    .buildAndExpand(submission.getTrackingId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(submission);
+        }
         CommentResponseDTO createdComment = commentService.addCommentToArticle(articleId, commentRequestDTO);
         return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Récupère tous les commentaires d'un article spécifique")
+    @Operation(summary = "Suit l'enregistrement d'un commentaire accepté en écriture différée",
+            description = "Les états sont gardés en mémoire par l'instance qui a accepté le commentaire "
+                    + "(les blog.comments.write-behind.status-retention plus récents). Après un redémarrage de cette instance, "
+                    + "ou interrogé sur une autre instance, l'identifiant est inconnu (404) : un commentaire rejoué depuis le "
+                    + "journal le redevient une fois enregistré, un commentaire enregistré avant le redémarrage se retrouve "
+                    + "dans les commentaires de l'article.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "État du commentaire (PENDING, CREATED, DUPLICATE ou REJECTED)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentSubmissionDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Identifiant de suivi inconnu, trop ancien, ou accepté avant un redémarrage de l'instance",
+                    content = @Content)
+    })
+    @GetMapping("/submissions/{trackingId}") // Mappe les requêtes GET sur /articles/{articleId}/comments/submissions/{trackingId}
+    public ResponseEntity<CommentSubmissionDTO> getCommentSubmission(
+            @Parameter(description = "ID de l'article commenté") @PathVariable Long articleId,
+            @Parameter(description = "Identifiant de suivi renvoyé lors de l'acceptation") @PathVariable UUID trackingId) {
+        CommentWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        return Optional.ofNullable(queue)
+                .flatMap(q -> q.getSubmission(trackingId))
+                .filter(submission -> submission.getArticleId().equals(articleId))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new EntityNotFoundException("Soumission non trouvée avec l'identifiant: " + trackingId));
+    }
+
+    @Operation(summary = "Importe en masse des commentaires sur un article (tableau JSON)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import traité : un résultat par commentaire (CREATED, DUPLICATE ou INVALID)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkCommentResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Corps illisible ou qui n'est pas un tableau JSON",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "413", description = "Trop de commentaires dans la requête",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
+                    content = @Content)
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody( // Corps lu en flux (InputStream) : décrit ici pour Swagger
+            description = "Tableau de CommentRequestDTO (validés un par un, sans faire échouer tout l'import)",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = CommentRequestDTO.class))))
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE) // Mappe les requêtes POST sur /articles/{articleId}/comments/bulk
+    public ResponseEntity<List<BulkCommentResultDTO>> addCommentsToArticle(
+            @Parameter(description = "ID de l'article auquel ajouter les commentaires") @PathVariable Long articleId,
+            InputStream body) throws IOException {
+        // Tableau lu élément par élément, comme le flux NDJSON : un tableau trop long est refusé (413) dès l'élément de
+        // trop, sans être entièrement lu ni désérialisé en mémoire
+        List<CommentRequestDTO> commentRequestDTOs = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, List.class, "Tableau JSON de commentaires attendu");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw MismatchedInputException.from(parser, List.class, "Tableau JSON incomplet");
+                }
+                checkBulkLimit(commentRequestDTOs);
+                commentRequestDTOs.add(objectMapper.readValue(parser, CommentRequestDTO.class));
+            }
+        }
+        List<BulkCommentResultDTO> results = commentService.addCommentsToArticle(articleId, commentRequestDTOs);
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Importe en masse des commentaires sur un article (flux NDJSON, un commentaire JSON par ligne)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import traité : un résultat par commentaire (CREATED, DUPLICATE ou INVALID)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkCommentResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Ligne NDJSON illisible",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "413", description = "Trop de commentaires dans la requête",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
+                    content = @Content)
+    })
+    @PostMapping(value = "/bulk", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkCommentResultDTO>> addCommentsToArticleFromNdjson(
+            @Parameter(description = "ID de l'article auquel ajouter les commentaires") @PathVariable Long articleId,
+            InputStream body) throws IOException {
+        List<CommentRequestDTO> commentRequestDTOs = new ArrayList<>();
+        try (MappingIterator<CommentRequestDTO> lines = objectMapper.readerFor(CommentRequestDTO.class).readValues(body)) {
+            while (lines.hasNextValue()) { // hasNextValue/nextValue : une ligne illisible lève une JsonProcessingException (400)
+                checkBulkLimit(commentRequestDTOs);
+                commentRequestDTOs.add(lines.nextValue());
+            }
+        }
+        List<BulkCommentResultDTO> results = commentService.addCommentsToArticle(articleId, commentRequestDTOs);
+        return ResponseEntity.ok(results);
+    }
+
+    // Commentaire de trop : 413 sans lire (ni garder en mémoire) le reste du corps
+    private static void checkBulkLimit(List<CommentRequestDTO> commentRequestDTOs) {
+        if (commentRequestDTOs.size() == CommentService.MAX_BULK_SIZE) {
+            throw new BulkLimitExceededException("Un import ne peut pas dépasser " + CommentService.MAX_BULK_SIZE + " commentaires.");
+        }
+    }
+
+    @Operation(summary = "Récupère tous les commentaires d'un article spécifique (supporte If-None-Match / If-Modified-Since)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Liste des commentaires récupérée avec succès",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Commentaires inchangés depuis la version connue du client",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Article non trouvé",
                     content = @Content)
     })
     @GetMapping // Mappe les requêtes GET sur /articles/{articleId}/comments
     public ResponseEntity<List<CommentResponseDTO>> getCommentsByArticleId(
-            @Parameter(description = "ID de l'article dont récupérer les commentaires") @PathVariable Long articleId) {
-        List<CommentResponseDTO> comments = commentService.getCommentsByArticleId(articleId);
-        return ResponseEntity.ok(comments);
+            @Parameter(description = "ID de l'article dont récupérer les commentaires") @PathVariable Long articleId,
+            WebRequest webRequest) {
+        // Version combinée de l'article et de ses commentaires (version de l'article, nombre de commentaires, date de
+        // modification la plus récente, voir ResourceVersionDTO) : elle change à chaque ajout, modification ou suppression
+        ResourceVersionDTO version = commentService.getCommentsVersion(articleId);
+        String eTag = version.toETag("article-comments");
+        if (webRequest.checkNotModified(eTag, version.lastModifiedMillis())) {
+            return null; // 304 Not Modified
+        }
+        // Liste lue sur la base principale : lue sur un réplica plus en retard que celui qui a fourni la version, elle
+        // partirait sous un ETag plus récent qu'elle, et le client recevrait des 304 sur une liste périmée
+        List<CommentResponseDTO> comments = ReadWriteRoutingDataSource.readFromPrimary(
+                () -> commentService.getCommentsByArticleId(articleId));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(version.lastModifiedMillis())
+                .body(comments);
+    }
+
+    @Operation(summary = "Récupère le fil de commentaires d'un article page par page (pagination par curseur sur la position du commentaire dans le fil)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de commentaires récupérée avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Curseur de pagination ou direction invalide",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content)
+    })
+    @GetMapping("/page") // Mappe les requêtes GET sur /articles/{articleId}/comments/page
+    public ResponseEntity<CursorPageDTO<CommentResponseDTO>> getCommentsPage(
+            @Parameter(description = "ID de l'article dont récupérer les commentaires") @PathVariable Long articleId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de commentaires par page (100 au maximum)")
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "newer : du plus ancien au plus récent ; le curseur renvoyé permet ensuite de ne récupérer que les nouveaux commentaires. "
+                    + "older : du plus récent au plus ancien")
+            @RequestParam(defaultValue = "newer") CommentDirection direction) {
+        return ResponseEntity.ok(commentService.getCommentsPage(articleId, cursor, size, direction)); // Retourne 200 OK
+    }
+
+    @Operation(summary = "S'abonne en temps réel (Server-Sent Events) aux commentaires ajoutés, modifiés et supprimés sur un article")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flux d'événements : ready (version courante), puis created / updated / deleted",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Nombre maximal d'abonnés atteint sur cette instance",
+                    content = @Content)
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE) // Mappe les requêtes GET sur /articles/{articleId}/comments/stream
+    public SseEmitter streamComments(
+            @Parameter(description = "ID de l'article dont suivre les commentaires") @PathVariable Long articleId) {
+        // Vérifie l'existence de l'article (404) et fournit la version de départ du client
+        ResourceVersionDTO version = commentService.getCommentsVersion(articleId);
+        return commentStreamHub.subscribe(articleId, version);
     }
 
     @Operation(summary = "Récupère un commentaire spécifique par son ID (indépendant de l'article pour cette opération)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Commentaire récupéré avec succès",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Commentaire inchangé depuis la version connue du client",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
                     content = @Content)
     })
     @GetMapping("/{commentId}") // Mappe les requêtes GET sur /articles/{articleId}/comments/{commentId}
     public ResponseEntity<CommentResponseDTO> getCommentById(
             @Parameter(description = "ID de l'article (non utilisé ici, mais présent pour la cohérence du chemin)") @PathVariable Long articleId, // Gardé pour la cohérence du chemin, bien que l'ID du commentaire soit suffisant
-            @Parameter(description = "ID du commentaire à récupérer") @PathVariable Long commentId) {
+            @Parameter(description = "ID du commentaire à récupérer") @PathVariable Long commentId,
+            WebRequest webRequest) {
         // Note: Ici, nous récupérons le commentaire directement par son ID.
         // On pourrait ajouter une vérification que ce commentaire appartient bien à l'articleId donné si nécessaire.
-        CommentResponseDTO comment = commentService.getCommentById(commentId);
-        return ResponseEntity.ok(comment);
+        ResourceVersionDTO version = commentService.getCommentVersion(commentId);
+        String eTag = version.toETag("comment");
+        if (webRequest.checkNotModified(eTag, version.lastModifiedMillis())) {
+            return null; // 304 Not Modified
+        }
+        CommentResponseDTO comment = ReadWriteRoutingDataSource.readFromPrimary(
+                () -> commentService.getCommentById(commentId)); // Sur la base principale, comme getCommentsByArticleId
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(version.lastModifiedMillis())
+                .body(comment);
     }
 
     @Operation(summary = "Met à jour un commentaire existant")
@@ -86,6 +307,8 @@ public class CommentController {
             @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
                     content = @Content),
             @ApiResponse(responseCode = "409", description = "Un commentaire identique de cet auteur existe déjà sur cet article",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @PutMapping("/{commentId}") // Mappe les requêtes PUT sur /articles/{articleId}/comments/{commentId}
@@ -102,6 +325,8 @@ public class CommentController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Commentaire supprimé avec succès"),
             @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Trop de requêtes d'écriture (voir l'en-tête Retry-After)",
                     content = @Content)
     })
     @DeleteMapping("/{commentId}") // Mappe les requêtes DELETE sur /articles/{articleId}/comments/{commentId}
@@ -0,0 +1,79 @@
+package com.ngaland.blog_api.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lecture de ses propres écritures malgré le retard des réplicas : après une requête d'écriture (POST, PUT, PATCH,
+ * DELETE), le client reçoit le cookie blog-primary-until et ses lectures sont servies par la base principale
+ * pendant blog.datasource.pin-to-primary-ms.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.datasource.replica-urls")
+public class PrimaryPinFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "blog-primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long pinMillis;
+
+    public PrimaryPinFilter(@Value("${blog.datasource.pin-to-primary-ms:5000}") long pinMillis) {
+        this.pinMillis = pinMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean pinned;
+        if (READ_METHODS.contains(request.getMethod())) {
+            pinned = pinnedUntil(request) > now;
+        } else {
+            // Posé avant le traitement : la réponse peut être envoyée (flux, erreur...) avant la fin de la requête
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + pinMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (pinMillis + 999) / 1000));
+            response.addCookie(cookie);
+            pinned = true;
+        }
+
+        if (!pinned) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
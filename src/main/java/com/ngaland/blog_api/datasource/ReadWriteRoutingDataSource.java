@@ -0,0 +1,168 @@
+package com.ngaland.blog_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Source de données qui envoie les transactions en lecture seule (@Transactional(readOnly = true)) vers les réplicas,
+ * à tour de rôle parmi ceux en bonne santé, et tout le reste vers la base principale.
+ * <p>
+ * Doit être enveloppée dans un LazyConnectionDataSourceProxy : la connexion n'est alors demandée qu'à la première
+ * requête SQL, quand le caractère lecture seule de la transaction est connu (voir DataSourceRoutingConfig).
+ * Un réplica injoignable est écarté jusqu'à la prochaine vérification réussie ; sans réplica disponible,
+ * les lectures se font sur la base principale.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    // Requête HTTP épinglée sur la base principale (lecture de ses propres écritures, voir PrimaryPinFilter)
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    public static final String CONNECTIONS_METRIC = "blog.datasource.connections";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Counter primaryConnections;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(dataSource -> new Replica(dataSource, connectionCounter(meterRegistry, dataSource.getPoolName())))
+                .toList();
+        this.primaryConnections = connectionCounter(meterRegistry, primary.getPoolName());
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    // Exécute des lectures sur la base principale, même dans des transactions en lecture seule : données destinées
+    // à un cache, qu'une lecture sur un réplica en retard y laisserait périmées jusqu'à leur expiration
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        if (isPinnedToPrimary()) {
+            return reads.get(); // Déjà épinglé (PrimaryPinFilter) : l'épinglage reste en place après les lectures
+        }
+        pinToPrimary();
+        try {
+            return reads.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Vérifie chaque réplica : un réplica écarté est réintégré dès qu'il répond de nouveau
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(2)) {
+                    throw new SQLException("Connexion invalide");
+                }
+                if (!replica.healthy) {
+                    log.info("Réplica {} de nouveau disponible", replica.dataSource.getPoolName());
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        // La base principale est la source « par défaut » (métriques du pool, détection du dialecte...)
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get() != null) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            log.warn("Réplica {} indisponible, lectures envoyées aux autres sources : {}",
+                    replica.dataSource.getPoolName(), e.getMessage());
+            replica.healthy = false;
+        }
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String poolName) {
+        return Counter.builder(CONNECTIONS_METRIC)
+                .description("Connexions obtenues, par base (principale ou réplica)")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private final Counter connections;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource, Counter connections) {
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+    }
+}
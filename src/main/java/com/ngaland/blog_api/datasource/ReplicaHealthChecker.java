@@ -0,0 +1,33 @@
+package com.ngaland.blog_api.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Vérifie périodiquement les réplicas du ReadWriteRoutingDataSource, et ferme leurs pools à l'arrêt.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.datasource.replica-urls")
+public class ReplicaHealthChecker {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public ReplicaHealthChecker(DataSource dataSource) throws SQLException {
+        this.routingDataSource = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.datasource.replica-check-interval-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas();
+    }
+
+    @PreDestroy
+    public void close() {
+        routingDataSource.close();
+    }
+}
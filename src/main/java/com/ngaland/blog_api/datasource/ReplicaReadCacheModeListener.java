@@ -0,0 +1,36 @@
+package com.ngaland.blog_api.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Les transactions en lecture seule lisent sur un réplica, éventuellement en retard sur la base principale :
+ * elles consultent le cache de second niveau sans jamais l'alimenter (CacheStoreMode.BYPASS). Sinon, une ligne lue
+ * sur le réplica juste après une modification resterait en cache, périmée, bien après la fin du retard.
+ * Les transactions épinglées sur la base principale (ReadWriteRoutingDataSource.pinToPrimary) alimentent le cache.
+ */
+public class ReplicaReadCacheModeListener implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ReplicaReadCacheModeListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction() || !transaction.isReadOnly()
+                || ReadWriteRoutingDataSource.isPinnedToPrimary()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder) {
+            // Propriété de l'EntityManager (et non Session.setCacheMode) : c'est elle que consulte EntityManager.find
+            holder.getEntityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour le résultat d'une lecture groupée d'articles par liste d'ID")
+public class ArticleBatchDTO<T> {
+
+    @Schema(description = "Articles trouvés, dans l'ordre des ID demandés")
+    private List<T> items;
+
+    @Schema(description = "ID demandés sans article correspondant", example = "[42]")
+    private List<Long> missingIds;
+}
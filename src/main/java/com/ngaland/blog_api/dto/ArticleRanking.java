@@ -0,0 +1,14 @@
+package com.ngaland.blog_api.dto;
+
+import java.util.Locale;
+
+// Classements d'articles proposés (paramètre de requête by)
+public enum ArticleRanking {
+    COMMENTS, // Les plus commentés
+    ACTIVITY; // Commentés le plus récemment
+
+    // Accepte by=comments comme by=COMMENTS
+    public static ArticleRanking fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,7 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO pour la réponse d'un article")
-public class ArticleResponseDTO {
+public class ArticleResponseDTO implements Serializable {
 
     @Schema(description = "Identifiant unique de l'article", example = "1")
     private Long id;
@@ -26,6 +27,9 @@ public class ArticleResponseDTO {
     @Schema(description = "Date et heure de publication de l'article", example = "2025-05-30T10:00:00")
     private LocalDateTime datePublication;
 
+    @Schema(description = "Version de l'article, incrémentée à chaque modification de l'article (titre, contenu)", example = "3")
+    private Long version;
+
     @Schema(description = "Liste des commentaires associés à cet article")
     private List<CommentResponseDTO> commentaires; // Inclut les commentaires sous forme de DTO
 }
\ No newline at end of file
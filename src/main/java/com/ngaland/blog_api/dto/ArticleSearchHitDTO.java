@@ -0,0 +1,31 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour un résultat de recherche d'articles")
+public class ArticleSearchHitDTO {
+
+    @Schema(description = "Identifiant unique de l'article", example = "1")
+    private Long id;
+
+    @Schema(description = "Titre de l'article", example = "Mon premier article sur Spring Boot")
+    private String titre;
+
+    @Schema(description = "Date et heure de publication de l'article", example = "2025-05-30T10:00:00")
+    private LocalDateTime datePublication;
+
+    @Schema(description = "Pertinence du résultat (plus elle est élevée, plus l'article correspond à la recherche)", example = "0.35")
+    private double score;
+
+    @Schema(description = "Extraits du contenu, termes trouvés entourés de <mark>...</mark>",
+            example = "Cet article explore les bases de la création d'APIs <mark>REST</mark> avec <mark>Spring</mark> Boot")
+    private String extrait;
+}
@@ -0,0 +1,27 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour une page de résultats de recherche, triés par pertinence")
+public class ArticleSearchPageDTO {
+
+    @Schema(description = "Résultats de la page courante")
+    private List<ArticleSearchHitDTO> resultats;
+
+    @Schema(description = "Numéro de la page (à partir de 0)", example = "0")
+    private int page;
+
+    @Schema(description = "Nombre de résultats par page", example = "20")
+    private int size;
+
+    @Schema(description = "Indique s'il existe une page suivante", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,34 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO résumé d'un article pour les listes (sans le contenu complet ni les commentaires)")
+public class ArticleSummaryDTO implements Serializable {
+
+    @Schema(description = "Identifiant unique de l'article", example = "1")
+    private Long id;
+
+    @Schema(description = "Titre de l'article", example = "Mon premier article sur Spring Boot")
+    private String titre;
+
+    @Schema(description = "Date et heure de publication de l'article", example = "2025-05-30T10:00:00")
+    private LocalDateTime datePublication;
+
+    @Schema(description = "Début du contenu de l'article (200 caractères au maximum)", example = "Cet article explore les bases de la création d'APIs REST")
+    private String extrait;
+
+    @Schema(description = "Nombre de commentaires de l'article", example = "12")
+    private Long commentCount;
+
+    @Schema(description = "Date du commentaire le plus récent (null si aucun commentaire)", example = "2025-06-02T18:45:00")
+    private LocalDateTime lastCommentAt;
+}
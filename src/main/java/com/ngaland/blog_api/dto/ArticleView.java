@@ -0,0 +1,14 @@
+package com.ngaland.blog_api.dto;
+
+import java.util.Locale;
+
+// Représentation demandée pour les listes d'articles (paramètre de requête view)
+public enum ArticleView {
+    FULL,    // ArticleResponseDTO : contenu complet et commentaires
+    SUMMARY; // ArticleSummaryDTO : titre, date, extrait et nombre de commentaires
+
+    // Accepte view=summary comme view=SUMMARY
+    public static ArticleView fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour le résultat de l'import d'un commentaire lors d'un import en masse")
+public class BulkCommentResultDTO {
+
+    @Schema(description = "Résultat de l'import d'un commentaire")
+    public enum Status {
+        CREATED,   // Commentaire enregistré
+        DUPLICATE, // Même auteur et même contenu déjà présents sur l'article (ou plus haut dans la requête)
+        INVALID    // Commentaire rejeté par la validation
+    }
+
+    @Schema(description = "Position du commentaire dans la requête (à partir de 0)", example = "0")
+    private int index;
+
+    @Schema(description = "Résultat de l'import", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Identifiant du commentaire créé (null s'il n'a pas été créé)", example = "101")
+    private Long commentId;
+
+    @Schema(description = "Raison du rejet (null si le commentaire a été créé)")
+    private String message;
+}
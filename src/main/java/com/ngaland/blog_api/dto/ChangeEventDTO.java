@@ -0,0 +1,40 @@
+package com.ngaland.blog_api.dto;
+
+import com.ngaland.blog_api.event.ChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO d'une modification publiée dans le flux des modifications (sans le contenu : à relire par l'API)")
+public class ChangeEventDTO {
+
+    @Schema(description = "Nature de l'élément modifié")
+    public enum EntityType {
+        ARTICLE,
+        COMMENT
+    }
+
+    @Schema(description = "Numéro de la modification dans le flux (croissant, à renvoyer dans since)", example = "1042")
+    private long sequence;
+
+    @Schema(description = "Nature de l'élément modifié", example = "COMMENT")
+    private EntityType entityType;
+
+    @Schema(description = "Identifiant de l'article ou du commentaire modifié", example = "101")
+    private Long entityId;
+
+    @Schema(description = "Identifiant de l'article concerné (l'article lui-même, ou celui du commentaire)", example = "1")
+    private Long articleId;
+
+    @Schema(description = "Nature de la modification", example = "CREATED")
+    private ChangeType changeType;
+
+    @Schema(description = "Date et heure de la modification", example = "2025-06-02T18:45:00")
+    private LocalDateTime occurredAt;
+}
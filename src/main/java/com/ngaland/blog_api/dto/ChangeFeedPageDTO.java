@@ -0,0 +1,24 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour une page du flux des modifications")
+public class ChangeFeedPageDTO {
+
+    @Schema(description = "Modifications publiées après since, dans l'ordre du flux")
+    private List<ChangeEventDTO> items;
+
+    @Schema(description = "Valeur de since pour la page suivante (à conserver par le client entre deux synchronisations)", example = "1042")
+    private long nextSince;
+
+    @Schema(description = "Indique si d'autres modifications sont déjà disponibles", example = "false")
+    private boolean hasMore;
+}
@@ -0,0 +1,14 @@
+package com.ngaland.blog_api.dto;
+
+import java.util.Locale;
+
+// Sens de lecture d'un fil de commentaires à partir d'un curseur (paramètre de requête direction)
+public enum CommentDirection {
+    NEWER, // Du plus ancien au plus récent, après le curseur : lecture du fil et récupération des nouveaux commentaires
+    OLDER; // Du plus récent au plus ancien, avant le curseur : derniers commentaires d'abord
+
+    // Accepte direction=newer comme direction=NEWER
+    public static CommentDirection fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
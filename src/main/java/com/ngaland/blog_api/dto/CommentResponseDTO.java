@@ -5,13 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO pour la réponse d'un commentaire")
-public class CommentResponseDTO {
+public class CommentResponseDTO implements Serializable {
 
     @Schema(description = "Identifiant unique du commentaire", example = "101")
     private Long id;
@@ -27,4 +28,7 @@ public class CommentResponseDTO {
 
     @Schema(description = "Identifiant de l'article auquel le commentaire est rattaché", example = "1")
     private Long articleId; // Ajout de l'ID de l'article pour contextualiser le commentaire
+
+    @Schema(description = "Position du commentaire dans le fil de l'article, croissante dans l'ordre d'enregistrement", example = "12")
+    private Long position;
 }
\ No newline at end of file
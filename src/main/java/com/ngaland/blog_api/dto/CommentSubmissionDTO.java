@@ -0,0 +1,38 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour le suivi d'un commentaire accepté en écriture différée")
+public class CommentSubmissionDTO {
+
+    @Schema(description = "État d'un commentaire accepté en écriture différée")
+    public enum Status {
+        PENDING,   // Accepté et journalisé, pas encore enregistré en base
+        CREATED,   // Commentaire enregistré
+        DUPLICATE, // Même auteur et même contenu déjà présents sur l'article
+        REJECTED   // Article inexistant ou commentaire invalide
+    }
+
+    @Schema(description = "Identifiant de suivi renvoyé lors de l'acceptation", example = "4f1c2a9e-8d7b-4e0a-9c1f-2b3d4e5f6a7b")
+    private UUID trackingId;
+
+    @Schema(description = "ID de l'article commenté", example = "1")
+    private Long articleId;
+
+    @Schema(description = "État du commentaire", example = "PENDING")
+    private Status status;
+
+    @Schema(description = "Identifiant du commentaire créé (null tant qu'il n'a pas été créé)", example = "101")
+    private Long commentId;
+
+    @Schema(description = "Raison du rejet (null sinon)")
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO pour une page de résultats paginée par curseur")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Éléments de la page courante")
+    private List<T> items;
+
+    @Schema(description = "Curseur opaque à renvoyer pour obtenir la page suivante (null s'il n'y en a pas)", example = "MjAyNS0wNS0zMVQxMTozNDoxOS43MTY4Njh8Mg")
+    private String nextCursor;
+
+    @Schema(description = "Indique s'il existe une page suivante", example = "true")
+    private boolean hasNext;
+}
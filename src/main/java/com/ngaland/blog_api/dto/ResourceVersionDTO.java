@@ -0,0 +1,51 @@
+package com.ngaland.blog_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Version d'une ressource (article ou commentaire), lue sans charger la ressource elle-même.
+ * Permet de répondre aux requêtes conditionnelles (If-None-Match / If-Modified-Since) par un 304.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersionDTO {
+
+    private Long id;
+
+    private String version;
+
+    private LocalDateTime lastModified;
+
+    // Version d'un commentaire : sa colonne version
+    public ResourceVersionDTO(Long id, Long version, LocalDateTime lastModified) {
+        this(id, String.valueOf(version), lastModified);
+    }
+
+    // Version d'un article et de ses commentaires. Modifier un commentaire n'écrit pas la ligne de l'article (ni verrou
+    // partagé par les commentateurs, ni conflit de verrouillage optimiste avec les modifications de l'article) : la version
+    // combine celle de l'article, son nombre de commentaires et la date de modification la plus récente, de l'article
+    // (ajouts et suppressions de commentaires compris, datés par la mise à jour des compteurs) ou de l'un de ses commentaires.
+    public ResourceVersionDTO(Long id, Long articleVersion, LocalDateTime articleModified, Long commentCount,
+                              LocalDateTime commentsModified) {
+        this.id = id;
+        this.lastModified = commentsModified != null && commentsModified.isAfter(articleModified) ? commentsModified : articleModified;
+        long modifiedMicros = lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1_000;
+        this.version = articleVersion + "." + commentCount + "." + modifiedMicros;
+    }
+
+    // ETag fort, ex: "comment-7-v3". Le préfixe distingue les différentes représentations d'une même version.
+    public String toETag(String prefix) {
+        return "\"" + prefix + "-" + id + "-v" + version + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ngaland.blog_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO d'un article tendance : activité récente, les événements anciens comptant de moins en moins")
+public class TrendingArticleDTO {
+
+    @Schema(description = "Identifiant unique de l'article", example = "1")
+    private Long id;
+
+    @Schema(description = "Titre de l'article", example = "Mon premier article sur Spring Boot")
+    private String titre;
+
+    @Schema(description = "Date et heure de publication de l'article", example = "2025-05-30T10:00:00")
+    private LocalDateTime datePublication;
+
+    @Schema(description = "Score de tendance : commentaires (et consultations) pondérés par leur ancienneté", example = "12.5")
+    private double score;
+}
@@ -0,0 +1,5 @@
+package com.ngaland.blog_api.event;
+
+// Publié par ArticleServiceImpl après chaque création, mise à jour ou suppression d'un article
+public record ArticleChangedEvent(Long articleId, ChangeType type) {
+}
@@ -0,0 +1,8 @@
+package com.ngaland.blog_api.event;
+
+// Nature d'une modification sur un article ou un commentaire
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
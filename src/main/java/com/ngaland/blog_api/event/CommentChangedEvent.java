@@ -0,0 +1,9 @@
+package com.ngaland.blog_api.event;
+
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+
+// Publié par CommentServiceImpl après chaque ajout, mise à jour ou suppression d'un commentaire.
+// articleId permet aux abonnés de savoir quel article (et quelle liste de commentaires) a changé.
+// comment : le commentaire tel qu'enregistré (null pour une suppression), diffusé tel quel aux abonnés temps réel.
+public record CommentChangedEvent(Long articleId, Long commentId, ChangeType type, CommentResponseDTO comment) {
+}
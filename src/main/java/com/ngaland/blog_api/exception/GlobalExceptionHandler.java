@@ -1,14 +1,24 @@
 package com.ngaland.blog_api.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.model.Comment;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.context.support.DefaultMessageSourceResolvable; // Nécessaire pour extraire les messages de validation
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -38,6 +48,84 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT); // 409 Conflict
     }
 
+    // Gère les violations de contraintes de la base. L'index unique (article_id, fingerprint) des commentaires
+    // et celui des titres d'articles signalent un doublon : on les traite comme une DuplicateResourceException (409 Conflict).
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (isViolationOf(ex, Comment.FINGERPRINT_CONSTRAINT)) {
+            return handleDuplicateResourceException(
+                    new DuplicateResourceException("Cet auteur a déjà posté ce commentaire sur cet article.", ex));
+        }
+        if (isViolationOf(ex, Article.TITRE_UNIQUE_INDEX)) {
+            return handleDuplicateResourceException(
+                    new DuplicateResourceException("Un article avec ce titre existe déjà.", ex));
+        }
+        return handleGeneralException(ex);
+    }
+
+    // Le nom de la contrainte est fourni par Hibernate quand il sait l'extraire, sinon on le cherche dans le message du SGBD
+    private boolean isViolationOf(DataIntegrityViolationException ex, String constraintName) {
+        String expected = constraintName.toLowerCase(Locale.ROOT);
+        if (ex.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(expected)) {
+            return true;
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(expected);
+    }
+
+    // Gère les corps de requête JSON / NDJSON illisibles
+    @ExceptionHandler({HttpMessageNotReadableException.class, JsonProcessingException.class})
+    public ResponseEntity<String> handleUnreadableRequestBody(Exception ex) {
+        return new ResponseEntity<>("Corps de requête JSON invalide.", HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+
+    // Gère l'exception de taille d'import dépassée (levée par nos services)
+    @ExceptionHandler(BulkLimitExceededException.class)
+    public ResponseEntity<String> handleBulkLimitExceededException(BulkLimitExceededException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE); // 413 Payload Too Large
+    }
+
+    // Gère les modifications concurrentes d'une même ressource (verrouillage optimiste sur la colonne version)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return new ResponseEntity<>("La ressource a été modifiée entre-temps. Veuillez réessayer.", HttpStatus.CONFLICT); // 409 Conflict
+    }
+
+    // Gère l'exception de curseur de pagination invalide (levée par nos services)
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+
+    // Gère l'exception de limite d'abonnés temps réel atteinte (levée par CommentStreamHub)
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<String> handleSubscriberLimitExceededException(SubscriberLimitExceededException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE); // 503 Service Unavailable
+    }
+
+    // Gère l'exception de file d'écriture différée pleine (levée par CommentWriteBehindQueue)
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<String> handleWriteQueueFullException(WriteQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS) // 429 Too Many Requests
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // Gère les refus de la limitation de débit et de la cloison des écritures (levés par RateLimiter et WriteBulkhead)
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceededException(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS) // 429 Too Many Requests
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // Gère les paramètres de requête d'un type ou d'une valeur inattendus (ex: ?view=inconnu, ?size=abc)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return new ResponseEntity<>("Valeur invalide pour le paramètre '" + ex.getName() + "'.", HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+
     // Gère toutes les autres exceptions non capturées spécifiquement
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneralException(Exception ex) {
@@ -0,0 +1,17 @@
+package com.ngaland.blog_api.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS) // File d'écriture différée des commentaires pleine : 429
+public class WriteQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds; // Renvoyé au client dans l'en-tête Retry-After
+
+    public WriteQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
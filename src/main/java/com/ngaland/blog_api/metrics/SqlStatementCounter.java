@@ -0,0 +1,33 @@
+package com.ngaland.blog_api.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate sur le thread courant.
+ * Enregistré comme StatementInspector (voir MetricsConfig) : la requête n'est pas modifiée.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    // Commence le comptage sur le thread courant (début d'une requête HTTP)
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // Arrête le comptage et renvoie le nombre de requêtes SQL préparées depuis start()
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -1,30 +1,55 @@
 package com.ngaland.blog_api.model;
 
+import com.ngaland.blog_api.config.SecondLevelCacheConfig;
 import jakarta.persistence.*; // Importe toutes les annotations JPA
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+        // Index de la pagination par curseur sur (datePublication, id)
+        @Index(name = "idx_articles_date_publication_id", columnList = "date_publication, id"),
+        // Index des classements "les plus commentés" et "activité récente" (parcourus en ordre décroissant)
+        @Index(name = "idx_articles_comment_count_id", columnList = "comment_count, id"),
+        @Index(name = "idx_articles_last_comment_at_id", columnList = "last_comment_at, id"),
+        // Articles supprimés en attente de purge (ArticlePurger)
+        @Index(name = "idx_articles_deleted_at", columnList = "deleted_at")
+})
+// Suppression logique : les articles supprimés n'apparaissent plus dans aucune requête JPA (find, JPQL, collections)
+@SQLRestriction("deleted_at IS NULL")
+// Cache de second niveau (voir SecondLevelCacheConfig). READ_WRITE : l'entrée est verrouillée pendant
+// la transaction qui modifie l'article, aucune lecture concurrente ne peut y remettre l'ancienne version.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ARTICLES_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Article {
 
+    // Unicité du titre parmi les articles non supprimés : index unique partiel (WHERE deleted_at IS NULL)
+    // créé par bd/migrations/006_articles_soft_delete.sql
+    public static final String TITRE_UNIQUE_INDEX = "uk_articles_titre_actif";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false) // Unique parmi les articles non supprimés (voir TITRE_UNIQUE_INDEX)
     private String titre;
 
-    @Lob 
+    // Simple colonne TEXT (sans @Lob : avec PostgreSQL, @Lob stockait un identifiant de large object
+    // au lieu du texte, illisible pour la recherche plein texte)
     @Column(nullable = false, columnDefinition = "TEXT")
     private String contenu;
 
@@ -32,10 +57,42 @@ public class Article {
     @Column(nullable = false, updatable = false) // La date de publication ne peut pas être nulle et n'est pas modifiable après création
     private LocalDateTime datePublication; // Représente la date de publication de l'article
 
+    // Version de l'article : incrémentée à chaque modification de l'article lui-même (pas de ses commentaires).
+    // Sert au verrouillage optimiste et, avec l'état des commentaires, au calcul de l'ETag (voir ResourceVersionDTO).
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    @UpdateTimestamp // Rempli automatiquement à la création puis à chaque mise à jour de l'entité
+    private LocalDateTime dateModification; // Sert à l'en-tête HTTP Last-Modified
+
+    // Compteurs dénormalisés des commentaires, tenus à jour par des UPDATE atomiques (voir ArticleRepository)
+    // dans la transaction qui ajoute ou supprime le commentaire, et réparés par CommentCounterReconciler.
+    // updatable = false : la sauvegarde d'un article chargé plus tôt n'écrase jamais un compteur modifié entre-temps.
+    @ColumnDefault("0") // Valeur des lignes existantes lors de l'ajout de la colonne
+    @Column(nullable = false, updatable = false)
+    private Long commentCount = 0L;
+
+    @Column(updatable = false)
+    private LocalDateTime lastCommentAt; // Date du commentaire le plus récent (null si aucun commentaire)
+
+    // Dernière position attribuée dans le fil de commentaires de l'article (voir Comment.threadPosition)
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Long lastThreadPosition = 0L;
+
+    // Date de suppression (null tant que l'article n'est pas supprimé). Renseignée par ArticleRepository.markDeleted :
+    // l'article et ses commentaires sont masqués aussitôt, puis supprimés par lots en arrière-plan par ArticlePurger.
+    @Column(updatable = false)
+    private LocalDateTime deletedAt;
+
     // Relation One-to-Many avec Commentaire
     // un Article peut avoir plusieurs Commentaires
     // orphanRemoval = true : Si un commentaire est retiré de la liste des commentaires de l'article, il sera supprimé de la base de données.
     // cascade = CascadeType.ALL : Toutes les opérations (PERSIST, MERGE, REMOVE, REFRESH, DETACH) sur l'article sont propagées aux commentaires associés.
+    // Collection en cache (ID des commentaires) : invalidée à chaque ajout / suppression d'un commentaire de l'article
+    // (hibernate.cache.auto_evict_collection_cache), même s'il n'est pas ajouté à cette liste
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ARTICLE_COMMENTS_REGION)
     @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> commentaires = new ArrayList<>();
 }
\ No newline at end of file
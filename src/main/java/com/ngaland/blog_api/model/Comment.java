@@ -1,22 +1,48 @@
 package com.ngaland.blog_api.model;
 
+import com.ngaland.blog_api.config.SecondLevelCacheConfig;
+import com.ngaland.blog_api.util.CommentFingerprint;
 import jakarta.persistence.*; // Importe toutes les annotations JPA
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "commentaires")
+@Table(name = "commentaires", uniqueConstraints = {
+        // Un même auteur ne peut pas poster deux fois le même contenu sur un article (voir CommentFingerprint)
+        @UniqueConstraint(name = Comment.FINGERPRINT_CONSTRAINT, columnNames = {"article_id", "fingerprint"}),
+        // Fil de commentaires d'un article dans l'ordre de threadPosition : pages par curseur dans les deux sens
+        @UniqueConstraint(name = "uk_commentaires_article_position", columnNames = {"article_id", "thread_position"})
+}, indexes = {
+        // Commentaires d'un article triés sur (dateCommentaire, id) : liste complète et chargement groupé des
+        // commentaires des listes d'articles
+        @Index(name = "idx_commentaires_article_date_id", columnList = "article_id, date_commentaire, id"),
+        // Date du commentaire modifié le plus récemment de chaque article : ETag et Last-Modified (ArticleRepository.findVersionById)
+        @Index(name = "idx_commentaires_article_modification", columnList = "article_id, date_modification")
+})
+// Les commentaires d'un article supprimé (en attente de purge) sont masqués comme l'article lui-même
+@SQLRestriction("NOT EXISTS (SELECT 1 FROM articles a WHERE a.id = article_id AND a.deleted_at IS NOT NULL)")
+@Cacheable // Cache de second niveau, même stratégie que Article
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COMMENTS_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Comment {
 
+    public static final String FINGERPRINT_CONSTRAINT = "uk_commentaires_article_fingerprint";
+
+    // Identifiants alloués par une séquence, par blocs de 50 (optimiseur "pooled" de Hibernate) :
+    // contrairement à IDENTITY, Hibernate connaît l'ID avant l'INSERT et peut regrouper les insertions en lots JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Stratégie pour la génération automatique de l'ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "commentaires_id_seq")
+    @SequenceGenerator(name = "commentaires_id_seq", sequenceName = "commentaires_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT") // Le contenu ne peut pas être nul
@@ -25,13 +51,39 @@ public class Comment {
     @Column(nullable = false)
     private String auteur; // Représente l'auteur du commentaire
 
+    @Column(length = 64)
+    private String fingerprint; // Empreinte SHA-256 de l'auteur et du contenu normalisés, calculée avant chaque écriture
+
     @CreationTimestamp // Rempli automatiquement la date lors de la création
     @Column(nullable = false, updatable = false)
     private LocalDateTime dateCommentaire; // Date de création du commentaire
 
+    // Position dans le fil de l'article (1, 2, 3...), réservée après l'INSERT par l'UPDATE du compteur de l'article, qui
+    // en verrouille la ligne jusqu'au commit (ArticleRepository.recordCommentsAdded), puis inscrite par
+    // CommentPositionRepository : les positions d'un article deviennent visibles dans l'ordre croissant. Ce n'est le cas
+    // ni des ID (blocs de 50 par instance) ni des dates (prises avant le commit) : un client qui suit le fil par
+    // (date, id) pourrait manquer un commentaire validé après un plus récent. Vide entre l'INSERT et cette inscription
+    // seulement, dans la transaction qui ajoute le commentaire ; jamais modifiée par Hibernate.
+    @Column(updatable = false)
+    private Long threadPosition;
+
+    @Version // Verrouillage optimiste et calcul de l'ETag du commentaire
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    @UpdateTimestamp // Rempli automatiquement à la création puis à chaque mise à jour
+    private LocalDateTime dateModification; // Sert à l'en-tête HTTP Last-Modified
+
     // Relation Many-to-One avec Article
     // Plusieurs commentaires peuvent appartenir à un seul Article
     @ManyToOne(fetch = FetchType.LAZY) // Indique une relation Many-to-One. FetchType.LAZY pour charger l'article seulement quand il est nécessaire.
     @JoinColumn(name = "article_id", nullable = false) // Colonne de clé étrangère dans la table 'commentaires'
     private Article article;
-}
\ No newline at end of file
+
+    // Recalculée avant chaque INSERT / UPDATE : l'empreinte suit toujours l'auteur et le contenu
+    @PrePersist
+    @PreUpdate
+    void computeFingerprint() {
+        this.fingerprint = CommentFingerprint.of(auteur, contenu);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ngaland.blog_api.outbox;
+
+import com.ngaland.blog_api.dto.ChangeEventDTO.EntityType;
+import com.ngaland.blog_api.event.ArticleChangedEvent;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.repository.ChangeEventRepository;
+import com.ngaland.blog_api.repository.ChangeEventRepository.OutboxRow;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écrit chaque modification d'article ou de commentaire dans la boîte d'envoi (change_outbox), dans la transaction
+ * qui la produit : la ligne est validée avec la modification, ou annulée avec elle. ChangeRelay la publie ensuite
+ * dans le flux des modifications (GET /api/v1/changes).
+ * <p>
+ * Les événements d'une transaction sont regroupés et écrits en un seul lot juste avant le commit (un import de
+ * commentaires en publie un par commentaire).
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeOutbox {
+
+    private final ChangeEventRepository changeEventRepository;
+
+    // Tables créées avant la première modification (la relecture du journal d'écriture différée en produit au démarrage)
+    @PostConstruct
+    void createSchema() {
+        changeEventRepository.createSchemaIfMissing();
+    }
+
+    @EventListener // Synchrone, dans la transaction de la modification (pas @TransactionalEventListener)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        record(new OutboxRow(0L, EntityType.ARTICLE, event.articleId(), event.articleId(), event.type(), LocalDateTime.now()));
+    }
+
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        record(new OutboxRow(0L, EntityType.COMMENT, event.commentId(), event.articleId(), event.type(), LocalDateTime.now()));
+    }
+
+    private void record(OutboxRow row) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            changeEventRepository.insertOutbox(List.of(row));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<OutboxRow> pending = (List<OutboxRow>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OutboxRow> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    changeEventRepository.insertOutbox(rows); // Même connexion que la transaction JPA
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeOutbox.this);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ngaland.blog_api.outbox;
+
+import com.ngaland.blog_api.repository.ChangeEventRepository;
+import com.ngaland.blog_api.repository.ChangeEventRepository.OutboxRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publie les modifications de la boîte d'envoi (ChangeOutbox) dans le flux des modifications, dans l'ordre de leur
+ * écriture et par lots de blog.changes.batch-size.
+ * <p>
+ * Chaque lot est publié dans une seule transaction : verrou sur change_relay_state, numérotation à la suite du
+ * dernier numéro attribué, copie dans change_events puis suppression de la boîte d'envoi. Un lot est donc publié
+ * entièrement ou pas du tout : un arrêt du relais (ou plusieurs instances de l'API) ne crée ni doublon ni trou
+ * dans les numéros.
+ * <p>
+ * Le flux est compacté comme un journal : passé blog.changes.compact-after, seul le dernier événement de chaque
+ * article ou commentaire est gardé (une suppression reste visible pour les clients en retard).
+ */
+@Slf4j
+@Component
+public class ChangeRelay {
+
+    public static final String RELAYED_METRIC = "blog.changes.relayed";
+    public static final String COMPACTED_METRIC = "blog.changes.compacted";
+    public static final String LAST_SEQUENCE_METRIC = "blog.changes.last-sequence";
+
+    private final ChangeEventRepository changeEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration compactAfter;
+    private final Counter relayedCounter;
+    private final Counter compactedCounter;
+
+    private volatile long lastSequence;
+
+    // Un seul relais à la fois dans l'instance. ReentrantLock plutôt que synchronized : le relais attend la base
+    // (connexion, verrou de change_relay_state), et un moniteur tenu pendant une attente bloquerait le thread porteur
+    // d'un thread virtuel (spring.threads.virtual.enabled)
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    public ChangeRelay(ChangeEventRepository changeEventRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${blog.changes.batch-size:500}") int batchSize,
+                       @Value("${blog.changes.compact-after:1d}") Duration compactAfter) {
+        this.changeEventRepository = changeEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.compactAfter = compactAfter;
+        this.relayedCounter = Counter.builder(RELAYED_METRIC)
+                .description("Modifications publiées dans le flux des modifications")
+                .register(meterRegistry);
+        this.compactedCounter = Counter.builder(COMPACTED_METRIC)
+                .description("Événements remplacés par un plus récent et retirés du flux des modifications")
+                .register(meterRegistry);
+        Gauge.builder(LAST_SEQUENCE_METRIC, this, relay -> relay.lastSequence)
+                .description("Dernier numéro publié dans le flux des modifications par cette instance")
+                .register(meterRegistry);
+    }
+
+    // Publie toute la boîte d'envoi, lot par lot ; renvoie le nombre de modifications publiées
+    @Scheduled(fixedDelayString = "${blog.changes.relay-interval-ms:500}")
+    public int relay() {
+        relayLock.lock();
+        try {
+            int total = 0;
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+                total += relayed;
+            } while (relayed == batchSize);
+            return total;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private int relayBatch() {
+        long last = changeEventRepository.lockLastSequence(); // Les autres instances attendent la fin du lot
+        List<OutboxRow> rows = changeEventRepository.findOutbox(batchSize);
+        if (rows.isEmpty()) {
+            lastSequence = last;
+            return 0;
+        }
+        changeEventRepository.publish(rows, last + 1, LocalDateTime.now());
+        changeEventRepository.updateLastSequence(last + rows.size());
+        lastSequence = last + rows.size();
+        relayedCounter.increment(rows.size());
+        return rows.size();
+    }
+
+    // Retire les événements publiés avant compact-after et remplacés depuis par un événement sur la même entité
+    @Scheduled(fixedDelayString = "${blog.changes.compaction-interval-ms:3600000}",
+            initialDelayString = "${blog.changes.compaction-interval-ms:3600000}")
+    public int compact() {
+        Integer removed = transactionTemplate.execute(status -> {
+            long horizon = changeEventRepository.findLastSequencePublishedBefore(LocalDateTime.now().minus(compactAfter));
+            return horizon == 0 ? 0 : changeEventRepository.compact(horizon);
+        });
+        if (removed > 0) {
+            compactedCounter.increment(removed);
+            log.info("Flux des modifications compacté : {} événement(s) remplacé(s) retiré(s)", removed);
+        }
+        return removed;
+    }
+}
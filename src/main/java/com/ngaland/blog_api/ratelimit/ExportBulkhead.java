@@ -0,0 +1,48 @@
+package com.ngaland.blog_api.ratelimit;
+
+import com.ngaland.blog_api.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cloison des exports (GET /api/v1/articles/export) : un export garde une transaction en lecture seule, et donc une
+ * connexion du pool JDBC, tant que le client lit le flux. Au plus max-concurrent exports en même temps par instance ;
+ * au-delà, l'export est refusé aussitôt (429 avec Retry-After) plutôt que d'attendre la fin d'un export en cours.
+ * Active même quand la limitation de débit est désactivée : elle protège le pool, pas le débit d'un client.
+ */
+@Component
+public class ExportBulkhead {
+
+    public static final String LIMIT_TAG = "export-bulkhead"; // Tag limit de blog.rate-limit.rejections
+
+    private final Semaphore permits;
+    private final long retryAfterSeconds;
+    private final Counter rejections;
+
+    public ExportBulkhead(MeterRegistry meterRegistry,
+                          @Value("${blog.articles.export.max-concurrent:2}") int maxConcurrent,
+                          @Value("${blog.articles.export.retry-after-seconds:30}") long retryAfterSeconds) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejections = Counter.builder(RateLimiter.REJECTIONS_METRIC)
+                .description("Requêtes refusées (429) par la limitation de débit")
+                .tag("limit", LIMIT_TAG)
+                .register(meterRegistry);
+    }
+
+    // Réserve une place pour un export, à rendre avec release() une fois le flux entièrement écrit (ou interrompu)
+    public void acquire() {
+        if (!permits.tryAcquire()) {
+            rejections.increment();
+            throw new RateLimitExceededException("Trop d'exports en cours, réessayez plus tard.", retryAfterSeconds);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ngaland.blog_api.ratelimit;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Limites de débit appliquées aux écritures, chacune réglable par blog.rate-limit.limits.&lt;nom&gt;.capacity
+ * (requêtes acceptées d'affilée) et .period (durée nécessaire pour retrouver toute la capacité).
+ */
+@Getter
+public enum RateLimit {
+
+    // POST .../comments, par adresse IP du client
+    COMMENT_CLIENT("comment-client", 20, Duration.ofMinutes(1)),
+    // POST .../comments, par auteur (quelle que soit l'adresse du client)
+    COMMENT_AUTHOR("comment-author", 10, Duration.ofMinutes(1)),
+    // POST .../comments, par article commenté (tous clients confondus)
+    COMMENT_ARTICLE("comment-article", 300, Duration.ofMinutes(1)),
+    // POST .../comments/bulk, par adresse IP du client
+    BULK_CLIENT("bulk-client", 5, Duration.ofMinutes(1)),
+    // Autres écritures (articles, modification et suppression de commentaires), par adresse IP du client
+    WRITE_CLIENT("write-client", 60, Duration.ofMinutes(1));
+
+    private final String propertyName;
+    private final int defaultCapacity;
+    private final Duration defaultPeriod;
+
+    RateLimit(String propertyName, int defaultCapacity, Duration defaultPeriod) {
+        this.propertyName = propertyName;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultPeriod = defaultPeriod;
+    }
+}
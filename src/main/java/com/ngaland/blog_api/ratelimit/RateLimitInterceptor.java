@@ -0,0 +1,72 @@
+package com.ngaland.blog_api.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applique aux requêtes d'écriture de l'API les limites de débit par client et par article, puis la cloison des
+ * écritures. Les lectures ne sont jamais limitées. La limite par auteur, qui dépend du corps de la requête,
+ * est appliquée par CommentController.
+ * <p>
+ * Le client est identifié par l'adresse de la connexion : derrière un proxy, server.forward-headers-strategy=native
+ * la remplace par celle de l'en-tête X-Forwarded-For.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String COMMENTS_PATTERN = "/api/v1/articles/{articleId}/comments";
+    static final String BULK_COMMENTS_PATTERN = "/api/v1/articles/{articleId}/comments/bulk";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    // Posé sur la requête quand une place de la cloison a été prise (rendue dans afterCompletion)
+    private static final String BULKHEAD_PERMIT = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final RateLimiter rateLimiter;
+    private final WriteBulkhead writeBulkhead;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (READ_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String client = request.getRemoteAddr();
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if ("POST".equals(request.getMethod()) && COMMENTS_PATTERN.equals(pattern)) {
+            rateLimiter.check(RateLimit.COMMENT_CLIENT, client);
+            rateLimiter.check(RateLimit.COMMENT_ARTICLE, pathVariable(request, "articleId"));
+        } else if ("POST".equals(request.getMethod()) && BULK_COMMENTS_PATTERN.equals(pattern)) {
+            rateLimiter.check(RateLimit.BULK_CLIENT, client);
+        } else {
+            rateLimiter.check(RateLimit.WRITE_CLIENT, client);
+        }
+
+        writeBulkhead.acquire(); // Dernière étape : afterCompletion n'est appelé que si preHandle réussit
+        request.setAttribute(BULKHEAD_PERMIT, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(BULKHEAD_PERMIT) != null) {
+            request.removeAttribute(BULKHEAD_PERMIT);
+            writeBulkhead.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String pathVariable(HttpServletRequest request, String name) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? variables.get(name) : null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ngaland.blog_api.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.ngaland.blog_api.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitation du débit des écritures (blog.rate-limit.enabled) : un TokenBucketLimiter par RateLimit, réglé par
+ * blog.rate-limit.limits.&lt;nom&gt;.capacity / period. Au plus blog.rate-limit.max-keys seaux sont gardés par limite
+ * (quelques dizaines d'octets chacun) ; au-delà, les moins récemment utilisés sont oubliés.
+ * Chaque refus lève une RateLimitExceededException (429 avec Retry-After) et est compté dans blog.rate-limit.rejections.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+    public static final String REJECTIONS_METRIC = "blog.rate-limit.rejections";
+
+    private static final String LIMITS_PREFIX = "blog.rate-limit.limits.";
+
+    private final Map<RateLimit, TokenBucketLimiter> limiters = new EnumMap<>(RateLimit.class);
+    private final Map<RateLimit, Counter> rejections = new EnumMap<>(RateLimit.class);
+
+    @Autowired
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, Ticker.systemTicker());
+    }
+
+    RateLimiter(Environment environment, MeterRegistry meterRegistry, Ticker ticker) {
+        Binder binder = Binder.get(environment);
+        long maxKeys = binder.bind("blog.rate-limit.max-keys", Long.class).orElse(100_000L);
+        for (RateLimit limit : RateLimit.values()) {
+            int capacity = binder.bind(LIMITS_PREFIX + limit.getPropertyName() + ".capacity", Integer.class)
+                    .orElse(limit.getDefaultCapacity());
+            Duration period = binder.bind(LIMITS_PREFIX + limit.getPropertyName() + ".period", Duration.class)
+                    .orElse(limit.getDefaultPeriod());
+            limiters.put(limit, new TokenBucketLimiter(capacity, period, maxKeys, ticker));
+            rejections.put(limit, Counter.builder(REJECTIONS_METRIC)
+                    .description("Requêtes refusées (429) par la limitation de débit")
+                    .tag("limit", limit.getPropertyName())
+                    .register(meterRegistry));
+        }
+    }
+
+    // Consomme un jeton de la limite pour cette clé, ou refuse la requête (429)
+    public void check(RateLimit limit, String key) {
+        long waitNanos = limiters.get(limit).tryAcquire(key);
+        if (waitNanos > 0) {
+            rejections.get(limit).increment();
+            throw new RateLimitExceededException("Trop de requêtes (limite " + limit.getPropertyName() + "), réessayez plus tard.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+}
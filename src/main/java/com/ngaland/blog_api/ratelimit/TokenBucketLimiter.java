@@ -0,0 +1,52 @@
+package com.ngaland.blog_api.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seaux à jetons d'une limite, un par clé (adresse IP, auteur, article...).
+ * <p>
+ * Chaque seau tient dans un seul AtomicLong : l'instant théorique auquel il sera de nouveau plein (algorithme GCRA,
+ * équivalent à un seau de capacity jetons rechargé d'un jeton toutes les period / capacity). Une requête est
+ * acceptée par un compareAndSet, sans verrou. Les seaux sont gardés dans un cache Caffeine borné : un seau inutilisé
+ * pendant period est de toute façon plein et peut être oublié sans rien changer à la limite.
+ */
+final class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos; // Délai de recharge d'un jeton
+    private final long burstToleranceNanos;   // Avance maximale sur ce rythme : capacity - 1 jetons
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBucketLimiter(int capacity, Duration period, long maxKeys, Ticker ticker) {
+        this.emissionIntervalNanos = period.toNanos() / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .ticker(ticker)
+                .build();
+    }
+
+    // Prend un jeton du seau de la clé : 0 si la requête est acceptée, sinon le délai (ns) avant le prochain jeton
+    long tryAcquire(String key) {
+        long now = ticker.read();
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long start = Math.max(current, now);
+            long waitNanos = start - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ngaland.blog_api.ratelimit;
+
+import com.ngaland.blog_api.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cloison des écritures : au plus maximum-pool-size - reserved-connections requêtes d'écriture traitées en même temps,
+ * pour que les lectures trouvent toujours des connexions libres dans le pool JDBC pendant une rafale d'écritures.
+ * Une écriture attend une place au plus max-wait-ms, puis est refusée (429 avec Retry-After).
+ */
+@Component
+@ConditionalOnProperty(name = "blog.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class WriteBulkhead {
+
+    public static final String IN_USE_METRIC = "blog.rate-limit.write-bulkhead.in-use";
+    public static final String LIMIT_TAG = "write-bulkhead"; // Tag limit de blog.rate-limit.rejections
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final Counter rejections;
+
+    public WriteBulkhead(MeterRegistry meterRegistry,
+                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                         @Value("${blog.rate-limit.write-bulkhead.reserved-connections:8}") int reservedConnections,
+                         @Value("${blog.rate-limit.write-bulkhead.max-wait-ms:200}") long maxWaitMillis,
+                         @Value("${blog.rate-limit.write-bulkhead.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.maxConcurrent = Math.max(1, poolSize - reservedConnections);
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejections = Counter.builder(RateLimiter.REJECTIONS_METRIC)
+                .description("Requêtes refusées (429) par la limitation de débit")
+                .tag("limit", LIMIT_TAG)
+                .register(meterRegistry);
+        Gauge.builder(IN_USE_METRIC, this, WriteBulkhead::inUse)
+                .description("Requêtes d'écriture en cours de traitement")
+                .register(meterRegistry);
+    }
+
+    // Réserve une place pour une écriture, à rendre avec release() une fois la requête terminée
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejections.increment();
+            throw new RateLimitExceededException("Trop d'écritures en cours, réessayez plus tard.", retryAfterSeconds);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ngaland.blog_api.realtime;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport des modifications de commentaires vers les hubs de diffusion (CommentStreamHub).
+ * L'implémentation par défaut (InMemoryCommentEventBroker) ne dépasse pas l'instance courante ;
+ * avec plusieurs instances, déclarer un bean qui publie sur un système partagé (Redis Pub/Sub,
+ * PostgreSQL LISTEN/NOTIFY, Kafka...) et remet à ses abonnés les événements de toutes les instances,
+ * y compris ceux de l'instance courante.
+ */
+public interface CommentEventBroker {
+
+    void publish(CommentStreamEvent event);
+
+    void subscribe(Consumer<CommentStreamEvent> listener);
+}
@@ -0,0 +1,12 @@
+package com.ngaland.blog_api.realtime;
+
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.event.ChangeType;
+
+import java.io.Serializable;
+
+// Modification d'un commentaire diffusée aux abonnés du fil de l'article, éventuellement via d'autres instances
+// (Serializable : transportable par un broker entre instances). comment est null pour une suppression.
+public record CommentStreamEvent(Long articleId, Long commentId, ChangeType type, CommentResponseDTO comment)
+        implements Serializable {
+}
@@ -0,0 +1,234 @@
+package com.ngaland.blog_api.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.exception.SubscriberLimitExceededException;
+import com.ngaland.blog_api.util.ThreadCursor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion en temps réel (Server-Sent Events) des modifications de commentaires aux clients abonnés au fil d'un article.
+ * <p>
+ * Les modifications validées passent par le CommentEventBroker (partagé entre instances si besoin), puis sont
+ * réparties entre les abonnés de l'article. Chaque abonné dispose d'une file bornée vidée par un thread virtuel
+ * uniquement lorsqu'il y a quelque chose à envoyer : aucune connexion n'occupe de thread en attente.
+ * Un abonné dont la file est pleine (client trop lent) est déconnecté ; il se reconnecte et rattrape les
+ * commentaires manqués avec GET .../comments/page?direction=newer&amp;cursor=&lt;dernier id d'événement reçu&gt;.
+ */
+@Slf4j
+@Component
+public class CommentStreamHub {
+
+    public static final String SUBSCRIBERS_METRIC = "blog.comments.stream.subscribers";
+
+    private final Map<Long, Set<Subscriber>> subscribersByArticle = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final CommentEventBroker broker;
+    private final ObjectMapper objectMapper;
+    private final Executor deliveryExecutor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+
+    @Autowired
+    public CommentStreamHub(CommentEventBroker broker,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${blog.comments.stream.buffer-size:256}") int bufferSize,
+                            @Value("${blog.comments.stream.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${blog.comments.stream.max-subscribers:50000}") int maxSubscribers) {
+        this(broker, objectMapper, Executors.newVirtualThreadPerTaskExecutor(), bufferSize, timeoutMillis, maxSubscribers);
+        Gauge.builder(SUBSCRIBERS_METRIC, subscriberCount, AtomicInteger::get)
+                .description("Abonnés temps réel aux fils de commentaires")
+                .register(meterRegistry);
+    }
+
+    CommentStreamHub(CommentEventBroker broker, ObjectMapper objectMapper, Executor deliveryExecutor,
+                     int bufferSize, long timeoutMillis, int maxSubscribers) {
+        this.broker = broker;
+        this.objectMapper = objectMapper;
+        this.deliveryExecutor = deliveryExecutor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        broker.subscribe(this::dispatch);
+    }
+
+    // Abonne un client au fil de l'article ; le premier événement (ready) porte la version courante des commentaires
+    public SseEmitter subscribe(Long articleId, Object readyData) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException("Trop d'abonnés temps réel sur cette instance. Veuillez réessayer plus tard.");
+        }
+        Subscriber subscriber = new Subscriber(articleId, new SseEmitter(timeoutMillis), new ArrayBlockingQueue<>(bufferSize));
+        subscribersByArticle.compute(articleId, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        enqueue(subscriber, new Message("ready", null, toJson(readyData)));
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public int subscriberCount(Long articleId) {
+        Set<Subscriber> subscribers = subscribersByArticle.get(articleId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // Après le commit : seules les modifications validées sont diffusées
+    public void onCommentChanged(CommentChangedEvent event) {
+        broker.publish(new CommentStreamEvent(event.articleId(), event.commentId(), event.type(), event.comment()));
+    }
+
+    // Reçoit les événements du broker (de cette instance ou des autres) et les répartit entre les abonnés de l'article
+    void dispatch(CommentStreamEvent event) {
+        Set<Subscriber> subscribers = subscribersByArticle.get(event.articleId());
+        if (subscribers == null) {
+            return;
+        }
+        // Sérialisé une seule fois, quel que soit le nombre d'abonnés
+        Message message = new Message(event.type().name().toLowerCase(Locale.ROOT), eventId(event), toJson(event));
+        subscribers.forEach(subscriber -> enqueue(subscriber, message));
+    }
+
+    // Garde les connexions ouvertes à travers les proxys et détecte les clients partis
+    @Scheduled(fixedRateString = "${blog.comments.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscribersByArticle.values().forEach(subscribers -> subscribers.forEach(subscriber -> enqueue(subscriber, Message.HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByArticle.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (deliveryExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (subscriber.removed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            log.debug("Abonné trop lent au fil de l'article {} : déconnecté", subscriber.articleId);
+            remove(subscriber);
+            // Fermeture hors du thread appelant : l'envoi en cours vers ce client peut être bloqué
+            deliveryExecutor.execute(subscriber.emitter::complete);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while (!subscriber.removed.get() && (message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) { // Client déconnecté ou émetteur déjà terminé
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Un message a pu arriver entre la fin de la boucle et la remise à false de draining
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribersByArticle.computeIfPresent(subscriber.articleId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // Identifiant SSE des créations : position du commentaire dans le fil, réutilisable comme curseur avec
+    // GET .../comments/page?direction=newer pour rattraper (les positions sont validées dans l'ordre, voir Comment.threadPosition)
+    private static String eventId(CommentStreamEvent event) {
+        if (event.type() != ChangeType.CREATED || event.comment() == null || event.comment().getPosition() == null) {
+            return null;
+        }
+        return new ThreadCursor(event.comment().getPosition()).encode();
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long articleId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue; // Messages en attente d'envoi, bornée à blog.comments.stream.buffer-size
+        private final AtomicBoolean draining = new AtomicBoolean(); // Un seul envoi en cours par abonné
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(Long articleId, SseEmitter emitter, BlockingQueue<Message> queue) {
+            this.articleId = articleId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    // Événement SSE prêt à envoyer (données déjà sérialisées en JSON) ; HEARTBEAT est un simple commentaire SSE
+    private record Message(String name, String id, String json) {
+
+        private static final Message HEARTBEAT = new Message(null, null, null);
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(json);
+            return id != null ? event.id(id) : event;
+        }
+    }
+}
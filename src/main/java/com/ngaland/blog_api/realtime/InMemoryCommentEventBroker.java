@@ -0,0 +1,21 @@
+package com.ngaland.blog_api.realtime;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Broker local : remet directement chaque événement aux abonnés de l'instance (une seule instance, tests)
+public class InMemoryCommentEventBroker implements CommentEventBroker {
+
+    private final List<Consumer<CommentStreamEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CommentStreamEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<CommentStreamEvent> listener) {
+        listeners.add(listener);
+    }
+}
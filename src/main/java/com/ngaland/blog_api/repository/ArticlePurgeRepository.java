@@ -0,0 +1,84 @@
+package com.ngaland.blog_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Purge des articles supprimés logiquement (deleted_at renseigné) et de leurs commentaires.
+ * Requêtes SQL natives par JDBC : ces lignes sont invisibles pour JPA (@SQLRestriction), et des requêtes
+ * natives passées par Hibernate videraient tout le cache de second niveau à chaque tranche.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticlePurgeRepository {
+
+    private static final String DELETED_IDS_SQL = """
+            SELECT id FROM articles
+            WHERE deleted_at IS NOT NULL
+            ORDER BY deleted_at, id
+            LIMIT :limit
+            """;
+
+    // Tranche ensembliste : au plus :limit commentaires, trouvés par l'index (article_id, date_commentaire, id)
+    private static final String DELETE_COMMENTS_SQL = """
+            DELETE FROM commentaires
+            WHERE id IN (SELECT c.id FROM commentaires c WHERE c.article_id = :articleId LIMIT :limit)
+            """;
+
+    // Progression : comment_count d'un article supprimé donne le nombre de commentaires restant à purger
+    private static final String RECORD_PROGRESS_SQL = """
+            UPDATE articles SET comment_count = GREATEST(comment_count - :deleted, 0)
+            WHERE id = :articleId
+            """;
+
+    // L'article n'est supprimé qu'une fois tous ses commentaires partis (y compris ceux ajoutés pendant la purge)
+    private static final String DELETE_ARTICLE_SQL = """
+            DELETE FROM articles
+            WHERE id = :articleId
+              AND deleted_at IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM commentaires c WHERE c.article_id = :articleId)
+            """;
+
+    private static final String BACKLOG_SQL = """
+            SELECT COUNT(*) AS articles, COALESCE(SUM(comment_count), 0) AS comments
+            FROM articles
+            WHERE deleted_at IS NOT NULL
+            """;
+
+    // Articles en attente de purge et nombre de commentaires qu'il leur reste
+    public record PurgeBacklog(long articles, long comments) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Articles supprimés, les plus anciennes suppressions d'abord
+    public List<Long> findDeletedArticleIds(int limit) {
+        return jdbcTemplate.queryForList(DELETED_IDS_SQL, new MapSqlParameterSource("limit", limit), Long.class);
+    }
+
+    // Supprime une tranche de commentaires de l'article et enregistre la progression (à appeler dans une transaction)
+    public int deleteCommentChunk(long articleId, int limit) {
+        int deleted = jdbcTemplate.update(DELETE_COMMENTS_SQL, new MapSqlParameterSource()
+                .addValue("articleId", articleId)
+                .addValue("limit", limit));
+        if (deleted > 0) {
+            jdbcTemplate.update(RECORD_PROGRESS_SQL, new MapSqlParameterSource()
+                    .addValue("articleId", articleId)
+                    .addValue("deleted", deleted));
+        }
+        return deleted;
+    }
+
+    public boolean deleteArticle(long articleId) {
+        return jdbcTemplate.update(DELETE_ARTICLE_SQL, new MapSqlParameterSource("articleId", articleId)) > 0;
+    }
+
+    public PurgeBacklog findBacklog() {
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, new MapSqlParameterSource(),
+                (rs, rowNum) -> new PurgeBacklog(rs.getLong("articles"), rs.getLong("comments")));
+    }
+}
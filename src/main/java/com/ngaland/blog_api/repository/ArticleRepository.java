@@ -1,15 +1,155 @@
 package com.ngaland.blog_api.repository;
 
+import com.ngaland.blog_api.config.SecondLevelCacheConfig;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
 import com.ngaland.blog_api.model.Article;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository // Indique à Spring que c'est un composant de repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
     // JpaRepository fournit déjà toutes les méthodes CRUD de base :
     // save(), findById(), findAll(), deleteById(), etc.
 
+    // Vérification d'unicité du titre à chaque création / modification : résultat gardé dans le cache de requêtes,
+    // invalidé par Hibernate dès que la table articles est modifiée
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ARTICLE_TITLES_REGION)
+    })
     Optional<Article> findByTitre(String titre);
-}
\ No newline at end of file
+
+    // Longueur de l'extrait des résumés d'articles
+    int EXCERPT_LENGTH = 200;
+
+    // Projection résumé : seul le début du contenu est lu (SUBSTRING côté base), les commentaires ne sont pas lus
+    // (compteurs dénormalisés de l'article). Jamais d'entité chargée : ni contenu complet, ni collection de commentaires.
+    String SUMMARY_SELECT = "SELECT new com.ngaland.blog_api.dto.ArticleSummaryDTO(a.id, a.titre, a.datePublication, " +
+            "SUBSTRING(a.contenu, 1, " + EXCERPT_LENGTH + "), a.commentCount, a.lastCommentAt) FROM Article a ";
+
+    @Query(SUMMARY_SELECT + "ORDER BY a.datePublication DESC, a.id DESC")
+    List<ArticleSummaryDTO> findAllSummaries();
+
+    // Résumés d'une liste d'articles en une seule requête IN (ordre quelconque : remis dans l'ordre demandé par le service)
+    @Query(SUMMARY_SELECT + "WHERE a.id IN :ids")
+    List<ArticleSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Mêmes pages que findFirstPage / findPageAfter, en résumé
+    @Query(SUMMARY_SELECT + "ORDER BY a.datePublication DESC, a.id DESC")
+    List<ArticleSummaryDTO> findSummaryFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+            "WHERE a.datePublication < :datePublication " +
+            "OR (a.datePublication = :datePublication AND a.id < :id) " +
+            "ORDER BY a.datePublication DESC, a.id DESC")
+    List<ArticleSummaryDTO> findSummaryPageAfter(@Param("datePublication") LocalDateTime datePublication,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    // Première page de la pagination par curseur : les articles les plus récents d'abord.
+    // Le Pageable ne sert qu'à limiter le nombre de lignes (pas d'OFFSET).
+    @Query("SELECT a FROM Article a ORDER BY a.datePublication DESC, a.id DESC")
+    List<Article> findFirstPage(Pageable pageable);
+
+    // Pages suivantes : on repart strictement après la position (datePublication, id) du curseur,
+    // ce qui permet à l'index idx_articles_date_publication_id de servir la requête quelle que soit la profondeur.
+    @Query("SELECT a FROM Article a " +
+            "WHERE a.datePublication < :datePublication " +
+            "OR (a.datePublication = :datePublication AND a.id < :id) " +
+            "ORDER BY a.datePublication DESC, a.id DESC")
+    List<Article> findPageAfter(@Param("datePublication") LocalDateTime datePublication,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // Classement "les plus commentés" : parcours de l'index idx_articles_comment_count_id
+    @Query(SUMMARY_SELECT + "ORDER BY a.commentCount DESC, a.id DESC")
+    List<ArticleSummaryDTO> findMostCommented(Pageable pageable);
+
+    // Classement "activité récente" : parcours de l'index idx_articles_last_comment_at_id (articles commentés seulement)
+    @Query(SUMMARY_SELECT + "WHERE a.lastCommentAt IS NOT NULL ORDER BY a.lastCommentAt DESC, a.id DESC")
+    List<ArticleSummaryDTO> findRecentlyActive(Pageable pageable);
+
+    // Parcourt tous les articles sans les charger d'un coup : le driver lit les lignes par lots de 500 (curseur côté serveur).
+    // Le Stream doit être consommé dans une transaction puis fermé.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Article a ORDER BY a.id")
+    Stream<Article> streamAllOrderById();
+
+    // Lecture légère de la version d'un article et de ses commentaires (ni contenu, ni commentaires chargés) pour les
+    // requêtes HTTP conditionnelles. La date du commentaire modifié le plus récemment est lue sur l'index
+    // idx_commentaires_article_modification (les commentaires sans date de modification, antérieurs à la colonne,
+    // sont couverts par la date de l'article, avancée à chaque ajout). COALESCE : idem pour les anciens articles.
+    @Query("SELECT new com.ngaland.blog_api.dto.ResourceVersionDTO(a.id, a.version, COALESCE(a.dateModification, a.datePublication), " +
+            "a.commentCount, (SELECT MAX(c.dateModification) FROM Comment c WHERE c.article = a)) " +
+            "FROM Article a WHERE a.id = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") Long id);
+
+    // Parmi ces ID, ceux des articles existants (une seule requête pour tout un lot d'écriture différée)
+    @Query("SELECT a.id FROM Article a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Ajout de commentaires : le compteur est incrémenté par la base elle-même (pas de lecture puis écriture),
+    // ce qui reste exact quel que soit le nombre de commentateurs simultanés. Les positions lastThreadPosition + 1...
+    // lastThreadPosition + added sont réservées aux commentaires ajoutés (CommentPositionRepository.assignReservedPositions) :
+    // appelée en dernier, après leurs INSERT, la ligne de l'article n'est verrouillée que jusqu'au commit qui suit.
+    // La date de modification de l'article avance (Last-Modified de l'article et de ses commentaires) ; sa version,
+    // elle, ne change pas : une modification concurrente de l'article n'échoue pas au verrouillage optimiste.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.commentCount = a.commentCount + :added, " +
+            "a.lastThreadPosition = a.lastThreadPosition + :added, " +
+            "a.lastCommentAt = CASE WHEN a.lastCommentAt IS NULL OR a.lastCommentAt < :commentedAt THEN :commentedAt ELSE a.lastCommentAt END, " +
+            "a.dateModification = :commentedAt " +
+            "WHERE a.id = :id")
+    int recordCommentsAdded(@Param("id") Long id, @Param("added") long added, @Param("commentedAt") LocalDateTime commentedAt);
+
+    // Suppression d'un commentaire (déjà envoyée à la base) : décrément atomique du compteur,
+    // et date du dernier commentaire recalculée parmi les commentaires restants. Version inchangée, comme à l'ajout.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.commentCount = CASE WHEN a.commentCount > 0 THEN a.commentCount - 1 ELSE 0 END, " +
+            "a.lastCommentAt = (SELECT MAX(c.dateCommentaire) FROM Comment c WHERE c.article = a), " +
+            "a.dateModification = :dateModification " +
+            "WHERE a.id = :id")
+    int recordCommentRemoved(@Param("id") Long id, @Param("dateModification") LocalDateTime dateModification);
+
+    // Suppression logique : un seul UPDATE quel que soit le nombre de commentaires. L'article est masqué
+    // (Article @SQLRestriction) dès le commit ; ses commentaires sont supprimés plus tard par ArticlePurger.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.deletedAt = :deletedAt, a.version = a.version + 1, a.dateModification = :deletedAt " +
+            "WHERE a.id = :id AND a.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Article a")
+    long findMaxId();
+
+    // Réparation des compteurs d'une tranche d'ID à partir des commentaires réellement présents.
+    // Seules les lignes qui ont dérivé (sur l'une ou l'autre colonne) sont réécrites : la comparaison de lastCommentAt
+    // couvre aussi une date sans commentaire (MAX vaut NULL) et un compteur nul avec une date.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.article = a), " +
+            "a.lastCommentAt = (SELECT MAX(c.dateCommentaire) FROM Comment c WHERE c.article = a) " +
+            "WHERE a.id > :afterId AND a.id <= :upToId " +
+            "AND (a.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.article = a) " +
+            "OR (a.lastCommentAt IS NULL AND EXISTS (SELECT c FROM Comment c WHERE c.article = a)) " +
+            "OR (a.lastCommentAt IS NOT NULL AND NOT EXISTS (SELECT c FROM Comment c WHERE c.article = a)) " +
+            "OR a.lastCommentAt <> (SELECT MAX(c.dateCommentaire) FROM Comment c WHERE c.article = a))")
+    int reconcileCommentCounters(@Param("afterId") long afterId, @Param("upToId") long upToId);
+}
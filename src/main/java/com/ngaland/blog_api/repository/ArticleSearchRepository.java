@@ -0,0 +1,164 @@
+package com.ngaland.blog_api.repository;
+
+import com.ngaland.blog_api.dto.ArticleSearchHitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Accès à l'index de recherche plein texte (table article_search, PostgreSQL uniquement).
+ * Requêtes SQL natives : les types tsvector / tsquery n'ont pas d'équivalent JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleSearchRepository {
+
+    // Configuration de recherche PostgreSQL : racinisation et mots vides du français
+    private static final String TEXT_SEARCH_CONFIG = "french";
+
+    // Nombre de commentaires (les plus récents) indexés par article : un tsvector est limité à 1 Mo
+    private static final int MAX_INDEXED_COMMENTS = 500;
+
+    private static final String INDEX_SQL = """
+            INSERT INTO article_search (article_id, document, indexed_version, indexed_comment_count, indexed_comments_modified)
+            SELECT a.id,
+                   setweight(to_tsvector('%1$s', a.titre), 'A')
+                   || setweight(to_tsvector('%1$s', a.contenu), 'B')
+                   || setweight(to_tsvector('%1$s', coalesce((
+                          SELECT string_agg(recent.contenu, ' ')
+                          FROM (SELECT c.contenu FROM commentaires c
+                                WHERE c.article_id = a.id
+                                ORDER BY c.id DESC
+                                LIMIT %2$d) recent), '')), 'C'),
+                   a.version,
+                   a.comment_count,
+                   (SELECT MAX(c.date_modification) FROM commentaires c WHERE c.article_id = a.id)
+            FROM articles a
+            WHERE a.id IN (:ids) AND a.deleted_at IS NULL
+            ON CONFLICT (article_id) DO UPDATE
+                SET document = EXCLUDED.document, indexed_version = EXCLUDED.indexed_version,
+                    indexed_comment_count = EXCLUDED.indexed_comment_count,
+                    indexed_comments_modified = EXCLUDED.indexed_comments_modified
+            """.formatted(TEXT_SEARCH_CONFIG, MAX_INDEXED_COMMENTS);
+
+    // Articles jamais indexés ou modifiés (eux ou leurs commentaires) depuis leur dernière indexation, par ordre d'ID.
+    // Les commentaires ne changent pas la version de l'article : leur nombre et leur dernière modification sont comparés
+    // (index idx_commentaires_article_modification).
+    private static final String STALE_IDS_SQL = """
+            SELECT a.id
+            FROM articles a
+            LEFT JOIN article_search s ON s.article_id = a.id
+            WHERE a.id > :afterId
+              AND a.deleted_at IS NULL
+              AND (:full OR s.article_id IS NULL OR s.indexed_version <> a.version
+                   OR s.indexed_comment_count <> a.comment_count
+                   OR s.indexed_comments_modified IS DISTINCT FROM
+                      (SELECT MAX(c.date_modification) FROM commentaires c WHERE c.article_id = a.id))
+            ORDER BY a.id
+            LIMIT :limit
+            """;
+
+    private static final String MARK_PENDING_SQL =
+            "INSERT INTO article_search_pending (article_id) VALUES (:id) ON CONFLICT (article_id) DO NOTHING";
+
+    // Retire un lot d'articles en attente ; les lignes verrouillées par une autre instance sont laissées à celle-ci.
+    // Dans la transaction de l'indexation : si elle échoue, les articles restent en attente.
+    private static final String CLAIM_PENDING_SQL = """
+            DELETE FROM article_search_pending
+            WHERE article_id IN (SELECT article_id FROM article_search_pending
+                                 ORDER BY article_id
+                                 LIMIT :limit
+                                 FOR UPDATE SKIP LOCKED)
+            RETURNING article_id
+            """;
+
+    // Le classement ne porte que sur les documents trouvés par l'index GIN ; les extraits (ts_headline, coûteux)
+    // ne sont calculés que pour la page demandée.
+    private static final String SEARCH_SQL = """
+            WITH query AS (SELECT websearch_to_tsquery('%1$s', :q) AS q),
+            ranked AS (
+                SELECT s.article_id, ts_rank_cd(s.document, query.q) AS score
+                FROM article_search s, query
+                WHERE s.document @@ query.q
+                ORDER BY score DESC, s.article_id DESC
+                LIMIT :limit OFFSET :offset
+            )
+            SELECT a.id, a.titre, a.date_publication, ranked.score,
+                   ts_headline('%1$s', a.contenu, query.q,
+                               'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS extrait
+            FROM ranked
+            JOIN articles a ON a.id = ranked.article_id
+            CROSS JOIN query
+            ORDER BY ranked.score DESC, a.id DESC
+            """.formatted(TEXT_SEARCH_CONFIG);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SchemaScripts schemaScripts;
+
+    // Crée la table et l'index GIN s'ils n'existent pas encore (idempotent)
+    public void createSchemaIfMissing() {
+        schemaScripts.createIfMissing("db/search/schema-postgresql.sql");
+    }
+
+    // (Ré)indexe les articles donnés à partir des tables articles et commentaires
+    public int index(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(INDEX_SQL, new MapSqlParameterSource("ids", articleIds));
+    }
+
+    // Retire un article supprimé (logiquement) de l'index ; la ligne partirait sinon avec l'article, à la purge
+    public void remove(Long articleId) {
+        jdbcTemplate.update("DELETE FROM article_search WHERE article_id = :id", new MapSqlParameterSource("id", articleId));
+    }
+
+    // Retire de l'index ceux des articles donnés qui ont été supprimés (logiquement) depuis leur indexation
+    public void removeDeleted(Collection<Long> articleIds) {
+        jdbcTemplate.update("""
+                DELETE FROM article_search s
+                WHERE s.article_id IN (:ids)
+                  AND NOT EXISTS (SELECT 1 FROM articles a WHERE a.id = s.article_id AND a.deleted_at IS NULL)
+                """, new MapSqlParameterSource("ids", articleIds));
+    }
+
+    // Marque des articles à réindexer (idempotent), dans la transaction en cours. Par ordre d'ID : deux transactions
+    // qui marquent les mêmes articles prennent leurs verrous dans le même ordre.
+    public void markPending(Collection<Long> articleIds) {
+        jdbcTemplate.batchUpdate(MARK_PENDING_SQL, articleIds.stream().sorted()
+                .map(id -> new MapSqlParameterSource("id", id))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    // Retire et renvoie au plus limit articles en attente de réindexation (voir CLAIM_PENDING_SQL)
+    public List<Long> claimPending(int limit) {
+        return jdbcTemplate.queryForList(CLAIM_PENDING_SQL, new MapSqlParameterSource("limit", limit), Long.class);
+    }
+
+    public List<Long> findStaleArticleIds(long afterId, boolean full, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("full", full)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(STALE_IDS_SQL, params, Long.class);
+    }
+
+    public List<ArticleSearchHitDTO> search(String query, int limit, int offset) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(SEARCH_SQL, params, (rs, rowNum) -> new ArticleSearchHitDTO(
+                rs.getLong("id"),
+                rs.getString("titre"),
+                rs.getTimestamp("date_publication").toLocalDateTime(),
+                rs.getDouble("score"),
+                rs.getString("extrait")
+        ));
+    }
+}
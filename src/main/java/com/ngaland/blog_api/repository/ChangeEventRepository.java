@@ -0,0 +1,147 @@
+package com.ngaland.blog_api.repository;
+
+import com.ngaland.blog_api.dto.ChangeEventDTO;
+import com.ngaland.blog_api.dto.ChangeEventDTO.EntityType;
+import com.ngaland.blog_api.event.ChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Boîte d'envoi (change_outbox), flux des modifications publiées (change_events) et état du relais
+ * (change_relay_state). JDBC direct : des lignes ajoutées par lots, jamais relues comme entités.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeEventRepository {
+
+    private static final String INSERT_OUTBOX_SQL = """
+            INSERT INTO change_outbox (entity_type, entity_id, article_id, change_type, occurred_at)
+            VALUES (:entityType, :entityId, :articleId, :changeType, :occurredAt)
+            """;
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO change_events (sequence, entity_type, entity_id, article_id, change_type, occurred_at, published_at)
+            VALUES (:sequence, :entityType, :entityId, :articleId, :changeType, :occurredAt, :publishedAt)
+            """;
+
+    private static final String FEED_SQL = """
+            SELECT sequence, entity_type, entity_id, article_id, change_type, occurred_at
+            FROM change_events
+            WHERE sequence > :since
+            ORDER BY sequence
+            LIMIT :limit
+            """;
+
+    // Événements publiés jusqu'à :horizon remplacés par un événement plus récent sur la même entité
+    private static final String COMPACT_SQL = """
+            DELETE FROM change_events e
+            WHERE e.sequence <= :horizon
+              AND EXISTS (SELECT 1 FROM change_events newer
+                          WHERE newer.entity_type = e.entity_type
+                            AND newer.entity_id = e.entity_id
+                            AND newer.sequence > e.sequence)
+            """;
+
+    // Modification pas encore publiée (id : ordre d'écriture dans la boîte d'envoi)
+    public record OutboxRow(long id, EntityType entityType, long entityId, long articleId, ChangeType changeType,
+                            LocalDateTime occurredAt) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SchemaScripts schemaScripts;
+
+    // Crée les tables si elles n'existent pas encore (idempotent)
+    public void createSchemaIfMissing() {
+        schemaScripts.createIfMissing("db/changes/schema.sql");
+    }
+
+    // Ajoute des modifications à la boîte d'envoi (dans la transaction de ces modifications)
+    public void insertOutbox(List<OutboxRow> rows) {
+        SqlParameterSource[] batch = rows.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("entityType", row.entityType().name())
+                        .addValue("entityId", row.entityId())
+                        .addValue("articleId", row.articleId())
+                        .addValue("changeType", row.changeType().name())
+                        .addValue("occurredAt", row.occurredAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, batch);
+    }
+
+    // Verrouille l'état du relais jusqu'à la fin de la transaction et renvoie le dernier numéro attribué
+    public long lockLastSequence() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT last_sequence FROM change_relay_state WHERE id = 1 FOR UPDATE", Long.class);
+    }
+
+    public void updateLastSequence(long lastSequence) {
+        jdbcTemplate.update("UPDATE change_relay_state SET last_sequence = :lastSequence WHERE id = 1",
+                new MapSqlParameterSource("lastSequence", lastSequence));
+    }
+
+    // Modifications validées en attente de publication, dans l'ordre de leur écriture
+    public List<OutboxRow> findOutbox(int limit) {
+        return jdbcTemplate.query("SELECT * FROM change_outbox ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getLong("id"),
+                        EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_id"),
+                        rs.getLong("article_id"),
+                        ChangeType.valueOf(rs.getString("change_type")),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()));
+    }
+
+    public long countOutbox() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM change_outbox", Long.class);
+    }
+
+    // Publie les lignes sous les numéros firstSequence, firstSequence + 1... et les retire de la boîte d'envoi
+    public void publish(List<OutboxRow> rows, long firstSequence, LocalDateTime publishedAt) {
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            OutboxRow row = rows.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("sequence", firstSequence + i)
+                    .addValue("entityType", row.entityType().name())
+                    .addValue("entityId", row.entityId())
+                    .addValue("articleId", row.articleId())
+                    .addValue("changeType", row.changeType().name())
+                    .addValue("occurredAt", row.occurredAt())
+                    .addValue("publishedAt", publishedAt);
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch);
+        Collection<Long> ids = rows.stream().map(OutboxRow::id).toList();
+        jdbcTemplate.update("DELETE FROM change_outbox WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public List<ChangeEventDTO> findAfter(long since, int limit) {
+        return jdbcTemplate.query(FEED_SQL, new MapSqlParameterSource()
+                        .addValue("since", since)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ChangeEventDTO(
+                        rs.getLong("sequence"),
+                        EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_id"),
+                        rs.getLong("article_id"),
+                        ChangeType.valueOf(rs.getString("change_type")),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()));
+    }
+
+    // Numéro du dernier événement publié avant la date donnée (0 s'il n'y en a pas)
+    public long findLastSequencePublishedBefore(LocalDateTime publishedBefore) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(sequence), 0) FROM change_events WHERE published_at < :before",
+                new MapSqlParameterSource("before", publishedBefore), Long.class);
+    }
+
+    public int compact(long horizon) {
+        return jdbcTemplate.update(COMPACT_SQL, new MapSqlParameterSource("horizon", horizon));
+    }
+}
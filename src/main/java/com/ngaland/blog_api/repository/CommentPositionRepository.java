@@ -0,0 +1,42 @@
+package com.ngaland.blog_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Positions des commentaires dans le fil de leur article (Comment.threadPosition), inscrites sur les commentaires déjà
+ * insérés. Requêtes SQL natives par JDBC, comme ArticlePurgeRepository : une mise à jour passée par Hibernate
+ * viderait toute la région des commentaires du cache de second niveau.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentPositionRepository {
+
+    private static final String LAST_POSITION_SQL = "SELECT last_thread_position FROM articles WHERE id = :articleId";
+
+    private static final String ASSIGN_SQL = "UPDATE commentaires SET thread_position = :position WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Inscrit sur les commentaires commentIds, dans cet ordre, les dernières positions de l'article, réservées juste
+    // avant par ArticleRepository.recordCommentsAdded dans la même transaction, et renvoie la première. La ligne de
+    // l'article reste verrouillée par cette réservation jusqu'au commit : les positions deviennent visibles dans
+    // l'ordre croissant.
+    public long assignReservedPositions(long articleId, List<Long> commentIds) {
+        long lastPosition = jdbcTemplate.queryForObject(LAST_POSITION_SQL, new MapSqlParameterSource("articleId", articleId), Long.class);
+        long firstPosition = lastPosition - commentIds.size() + 1;
+        SqlParameterSource[] batch = IntStream.range(0, commentIds.size())
+                .mapToObj(i -> new MapSqlParameterSource()
+                        .addValue("position", firstPosition + i)
+                        .addValue("id", commentIds.get(i)))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(ASSIGN_SQL, batch);
+        return firstPosition;
+    }
+}
@@ -1,16 +1,56 @@
 package com.ngaland.blog_api.repository;
 
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
 import com.ngaland.blog_api.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional; // Important pour Optional
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByArticleId(Long articleId);
+    List<Comment> findByArticleIdOrderByDateCommentaireAscIdAsc(Long articleId);
 
-    // Nouvelle méthode pour vérifier l'existence d'un commentaire avec le même article, auteur et contenu
-    Optional<Comment> findByArticleIdAndAuteurAndContenu(Long articleId, String auteur, String contenu);
-}
\ No newline at end of file
+    // Charge en une seule requête (IN) les commentaires de plusieurs articles, pour éviter le N+1 des listes d'articles
+    List<Comment> findByArticleIdInOrderByDateCommentaireAscIdAsc(Collection<Long> articleIds);
+
+    // Doublons d'un lot de commentaires importés : une seule requête, servie par l'index unique (article_id, fingerprint).
+    // Renvoie, parmi les empreintes données, celles déjà présentes sur l'article.
+    @Query("SELECT c.fingerprint FROM Comment c WHERE c.article.id = :articleId AND c.fingerprint IN :fingerprints")
+    List<String> findExistingFingerprints(@Param("articleId") Long articleId,
+                                          @Param("fingerprints") Collection<String> fingerprints);
+
+    // Pages du fil de commentaires d'un article dans l'ordre de Comment.threadPosition, servies par l'index unique
+    // uk_commentaires_article_position. Partir de l'article (LEFT JOIN) vérifie son existence dans la même requête :
+    // aucune ligne si l'article n'existe pas, une seule ligne aux champs de commentaire nuls s'il existe sans
+    // commentaire correspondant.
+    String THREAD_SELECT = "SELECT new com.ngaland.blog_api.dto.CommentResponseDTO(c.id, c.contenu, c.auteur, c.dateCommentaire, a.id, c.threadPosition) " +
+            "FROM Article a LEFT JOIN Comment c ON c.article = a";
+
+    @Query(THREAD_SELECT + " WHERE a.id = :articleId ORDER BY c.threadPosition ASC")
+    List<CommentResponseDTO> findThreadFirstPage(@Param("articleId") Long articleId, Pageable pageable);
+
+    @Query(THREAD_SELECT + " AND c.threadPosition > :position WHERE a.id = :articleId ORDER BY c.threadPosition ASC")
+    List<CommentResponseDTO> findThreadNewerThan(@Param("articleId") Long articleId,
+                                                 @Param("position") long position,
+                                                 Pageable pageable);
+
+    @Query(THREAD_SELECT + " WHERE a.id = :articleId ORDER BY c.threadPosition DESC")
+    List<CommentResponseDTO> findThreadLatestPage(@Param("articleId") Long articleId, Pageable pageable);
+
+    @Query(THREAD_SELECT + " AND c.threadPosition < :position WHERE a.id = :articleId ORDER BY c.threadPosition DESC")
+    List<CommentResponseDTO> findThreadOlderThan(@Param("articleId") Long articleId,
+                                                 @Param("position") long position,
+                                                 Pageable pageable);
+
+    // Lecture légère de la version d'un commentaire pour les requêtes HTTP conditionnelles
+    @Query("SELECT new com.ngaland.blog_api.dto.ResourceVersionDTO(c.id, c.version, COALESCE(c.dateModification, c.dateCommentaire)) " +
+            "FROM Comment c WHERE c.id = :id")
+    Optional<ResourceVersionDTO> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,31 @@
+package com.ngaland.blog_api.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Scripts de création des tables annexes (CREATE ... IF NOT EXISTS), exécutés au démarrage par leurs repositories.
+ * Sans effet quand le schéma est géré par les migrations Flyway (profil prod) : bd/migrations crée les mêmes tables.
+ */
+@Component
+public class SchemaScripts {
+
+    private final DataSource dataSource;
+    private final boolean managedByFlyway;
+
+    public SchemaScripts(DataSource dataSource, @Value("${spring.flyway.enabled:false}") boolean managedByFlyway) {
+        this.dataSource = dataSource;
+        this.managedByFlyway = managedByFlyway;
+    }
+
+    // Exécute le script du classpath donné (idempotent)
+    public void createIfMissing(String location) {
+        if (!managedByFlyway) {
+            new ResourceDatabasePopulator(new ClassPathResource(location)).execute(dataSource);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ngaland.blog_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sauvegarde des scores de tendance (table article_trending_scores), pour un redémarrage à chaud de TrendingEngine.
+ * JDBC direct : la table n'est qu'un instantané, dont chaque instance (node_id) réécrit sa part à chaque sauvegarde.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TrendingScoreRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO article_trending_scores (node_id, article_id, score, scored_at)
+            VALUES (:nodeId, :articleId, :score, :scoredAt)
+            """;
+
+    private static final RowMapper<TrendingScoreRow> ROW_MAPPER = (rs, rowNum) -> new TrendingScoreRow(
+            rs.getLong("article_id"),
+            rs.getDouble("score"),
+            rs.getTimestamp("scored_at").toLocalDateTime());
+
+    // Score d'un article à l'instant scoredAt
+    public record TrendingScoreRow(long articleId, double score, LocalDateTime scoredAt) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SchemaScripts schemaScripts;
+
+    // Crée la table si elle n'existe pas encore (idempotent)
+    public void createSchemaIfMissing() {
+        schemaScripts.createIfMissing("db/trending/schema.sql");
+    }
+
+    public List<TrendingScoreRow> findByNode(String nodeId) {
+        return jdbcTemplate.query("SELECT article_id, score, scored_at FROM article_trending_scores WHERE node_id = :nodeId",
+                new MapSqlParameterSource("nodeId", nodeId), ROW_MAPPER);
+    }
+
+    // Remplace la sauvegarde précédente de l'instance, sans toucher à celles des autres (à appeler dans une transaction)
+    public void replaceNode(String nodeId, List<TrendingScoreRow> rows) {
+        jdbcTemplate.update("DELETE FROM article_trending_scores WHERE node_id = :nodeId",
+                new MapSqlParameterSource("nodeId", nodeId));
+        SqlParameterSource[] batch = rows.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("nodeId", nodeId)
+                        .addValue("articleId", row.articleId())
+                        .addValue("score", row.score())
+                        .addValue("scoredAt", row.scoredAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    // Retire et renvoie les sauvegardes des autres instances antérieures à savedBefore (instances arrêtées ou
+    // renommées). Les lignes sont verrouillées avant d'être lues : deux instances ne reprennent jamais les mêmes
+    // (à appeler dans une transaction)
+    public List<TrendingScoreRow> takeOrphans(String nodeId, LocalDateTime savedBefore) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("nodeId", nodeId)
+                .addValue("savedBefore", savedBefore);
+        List<TrendingScoreRow> orphans = jdbcTemplate.query("""
+                SELECT article_id, score, scored_at FROM article_trending_scores
+                WHERE node_id <> :nodeId AND scored_at < :savedBefore
+                FOR UPDATE
+                """, params, ROW_MAPPER);
+        if (!orphans.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM article_trending_scores WHERE node_id <> :nodeId AND scored_at < :savedBefore", params);
+        }
+        return orphans;
+    }
+}
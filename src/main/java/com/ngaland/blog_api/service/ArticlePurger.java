@@ -0,0 +1,120 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.repository.ArticlePurgeRepository;
+import com.ngaland.blog_api.repository.ArticlePurgeRepository.PurgeBacklog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Supprime définitivement, en arrière-plan, les articles supprimés logiquement (ArticleServiceImpl.deleteArticle)
+ * et leurs commentaires. Les commentaires partent par tranches de blog.articles.purge.chunk-size, chacune dans sa
+ * propre courte transaction, avec une pause entre deux tranches pour ne pas monopoliser la base.
+ * Tout l'état est en base (deleted_at, comment_count restant) : une purge interrompue reprend au passage suivant,
+ * y compris après un redémarrage.
+ */
+@Slf4j
+@Component
+public class ArticlePurger {
+
+    // Articles supprimés traités par passage : les suivants attendent le passage suivant
+    static final int ARTICLES_PER_RUN = 100;
+
+    private final ArticlePurgeRepository purgeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final Counter purgedComments;
+    private final Counter purgedArticles;
+    private final AtomicReference<PurgeBacklog> backlog = new AtomicReference<>(new PurgeBacklog(0, 0));
+
+    public ArticlePurger(ArticlePurgeRepository purgeRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${blog.articles.purge.chunk-size:1000}") int chunkSize,
+                         @Value("${blog.articles.purge.pause-ms:100}") long pauseMillis) {
+        this.purgeRepository = purgeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.purgedComments = Counter.builder("blog.articles.purge.comments")
+                .description("Commentaires d'articles supprimés effacés par la purge")
+                .register(meterRegistry);
+        this.purgedArticles = Counter.builder("blog.articles.purge.articles")
+                .description("Articles supprimés effacés par la purge")
+                .register(meterRegistry);
+        Gauge.builder("blog.articles.purge.pending.articles", backlog, b -> b.get().articles())
+                .description("Articles supprimés en attente de purge (début et fin de chaque passage)")
+                .register(meterRegistry);
+        Gauge.builder("blog.articles.purge.pending.comments", backlog, b -> b.get().comments())
+                .description("Commentaires restant à purger (début et fin de chaque passage)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.articles.purge.interval-ms:10000}")
+    public int purge() {
+        backlog.set(purgeRepository.findBacklog());
+        List<Long> articleIds = purgeRepository.findDeletedArticleIds(ARTICLES_PER_RUN);
+        int purged = 0;
+        for (Long articleId : articleIds) {
+            if (!purgeArticle(articleId)) {
+                break; // Interrompue (arrêt de l'application) : reprise au prochain passage
+            }
+            purged++;
+        }
+        backlog.set(purgeRepository.findBacklog());
+        return purged;
+    }
+
+    // Commentaires de l'article par tranches, puis l'article lui-même. false si la purge a été interrompue.
+    boolean purgeArticle(long articleId) {
+        long start = System.nanoTime();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = purgeChunk(articleId);
+            total += deleted;
+            if (deleted == chunkSize && !pause()) {
+                return false;
+            }
+        } while (deleted == chunkSize);
+
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> purgeRepository.deleteArticle(articleId)))) {
+            purgedArticles.increment();
+            log.info("Article {} purgé : {} commentaire(s) supprimé(s) en {} ms", articleId, total,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return true;
+    }
+
+    // Une tranche de commentaires, dans sa propre transaction (verrous relâchés à chaque tranche)
+    int purgeChunk(long articleId) {
+        Integer deleted = transactionTemplate.execute(status -> purgeRepository.deleteCommentChunk(articleId, chunkSize));
+        int count = deleted != null ? deleted : 0;
+        purgedComments.increment(count);
+        return count;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
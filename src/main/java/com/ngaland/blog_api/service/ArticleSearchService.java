@@ -0,0 +1,8 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleSearchPageDTO;
+
+public interface ArticleSearchService {
+    ArticleSearchPageDTO search(String query, int page, int size);
+    int reindex(boolean full);
+}
@@ -0,0 +1,159 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleSearchHitDTO;
+import com.ngaland.blog_api.dto.ArticleSearchPageDTO;
+import com.ngaland.blog_api.event.ArticleChangedEvent;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.repository.ArticleSearchRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recherche plein texte (PostgreSQL tsvector + index GIN).
+ * L'index est tenu à jour à partir des événements de modification des articles et des commentaires :
+ * les articles modifiés sont marqués dans la table article_search_pending, dans la transaction de la modification
+ * (un redémarrage ne perd rien), puis réindexés par lots toutes les blog.search.refresh-interval-ms, ce qui regroupe
+ * les commentaires postés en rafale sur un même article en une seule réindexation.
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory") // Tables annexes créées après celles des entités (clés étrangères vers articles)
+@ConditionalOnProperty(name = "blog.search.enabled", havingValue = "true", matchIfMissing = true)
+public class ArticleSearchServiceImpl implements ArticleSearchService {
+
+    // Taille maximale d'une page de résultats
+    static final int MAX_PAGE_SIZE = 50;
+
+    // Nombre d'articles réindexés par requête SQL
+    static final int REINDEX_BATCH_SIZE = 500;
+
+    private final ArticleSearchRepository articleSearchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ArticleSearchServiceImpl(ArticleSearchRepository articleSearchRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.articleSearchRepository = articleSearchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Tables créées avant la première modification (la relecture du journal d'écriture différée en produit au démarrage)
+    @PostConstruct
+    void createIndexIfMissing() {
+        articleSearchRepository.createSchemaIfMissing();
+    }
+
+    @Override
+    public ArticleSearchPageDTO search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if (query == null || query.isBlank()) {
+            return new ArticleSearchPageDTO(List.of(), pageNumber, pageSize, false);
+        }
+        // Un résultat de plus que la taille de page pour savoir s'il existe une page suivante
+        List<ArticleSearchHitDTO> hits = articleSearchRepository.search(query, pageSize + 1, pageNumber * pageSize);
+        boolean hasNext = hits.size() > pageSize;
+        return new ArticleSearchPageDTO(hasNext ? hits.subList(0, pageSize) : hits, pageNumber, pageSize, hasNext);
+    }
+
+    @Override
+    public int reindex(boolean full) {
+        // Parcours par ID croissant : seuls les articles absents de l'index ou modifiés depuis leur indexation
+        // sont traités (tous si full), par lots, sans jamais charger toute la table.
+        int indexed = 0;
+        long afterId = 0;
+        List<Long> batch;
+        do {
+            batch = articleSearchRepository.findStaleArticleIds(afterId, full, REINDEX_BATCH_SIZE);
+            if (!batch.isEmpty()) {
+                indexed += articleSearchRepository.index(batch);
+                afterId = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == REINDEX_BATCH_SIZE);
+        log.info("Réindexation de la recherche terminée : {} article(s) indexé(s)", indexed);
+        return indexed;
+    }
+
+    @EventListener // Synchrone, dans la transaction de la modification (comme ChangeOutbox)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        markPending(event.articleId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleDeleted(ArticleChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            // Suppression logique : l'article doit disparaître des résultats sans attendre sa réindexation
+            articleSearchRepository.remove(event.articleId());
+        }
+    }
+
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        markPending(event.articleId());
+    }
+
+    // Les articles d'une transaction sont regroupés et marqués en un seul lot juste avant le commit
+    // (un import de commentaires publie un événement par commentaire)
+    private void markPending(Long articleId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            articleSearchRepository.markPending(List.of(articleId));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> articleIds = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, articleIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    articleSearchRepository.markPending(articleIds); // Même connexion que la transaction JPA
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ArticleSearchServiceImpl.this);
+                }
+            });
+            pending = articleIds;
+        }
+        pending.add(articleId);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.search.refresh-interval-ms:2000}")
+    public void indexPendingArticles() {
+        Integer claimed;
+        do {
+            try {
+                claimed = transactionTemplate.execute(status -> indexPendingBatch());
+            } catch (RuntimeException e) {
+                // Transaction annulée : les articles du lot restent en attente, nouvel essai au prochain passage
+                log.warn("Échec de l'indexation des articles en attente pour la recherche", e);
+                return;
+            }
+        } while (claimed != null && claimed == REINDEX_BATCH_SIZE);
+    }
+
+    private int indexPendingBatch() {
+        List<Long> articleIds = articleSearchRepository.claimPending(REINDEX_BATCH_SIZE);
+        if (!articleIds.isEmpty()) {
+            articleSearchRepository.removeDeleted(articleIds);
+            articleSearchRepository.index(articleIds);
+        }
+        return articleIds.size();
+    }
+}
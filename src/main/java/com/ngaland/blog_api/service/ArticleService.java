@@ -1,14 +1,29 @@
 package com.ngaland.blog_api.service;
 
+import com.ngaland.blog_api.dto.ArticleBatchDTO;
+import com.ngaland.blog_api.dto.ArticleRanking;
 import com.ngaland.blog_api.dto.ArticleRequestDTO;
 import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ArticleService {
     ArticleResponseDTO createArticle(ArticleRequestDTO articleRequestDTO);
     List<ArticleResponseDTO> getAllArticles();
+    List<ArticleSummaryDTO> getArticleSummaries();
+    CursorPageDTO<ArticleResponseDTO> getArticlesPage(String cursor, int size);
+    CursorPageDTO<ArticleSummaryDTO> getArticleSummariesPage(String cursor, int size);
+    List<ArticleSummaryDTO> getArticleRanking(ArticleRanking ranking, int limit);
+    void exportArticles(Consumer<List<ArticleResponseDTO>> chunkConsumer);
     ArticleResponseDTO getArticleById(Long id);
+    ArticleResponseDTO loadArticleById(Long id); // Lecture en base, sans passer par le cache des articles
+    ArticleBatchDTO<ArticleResponseDTO> getArticlesByIds(List<Long> ids);
+    ArticleBatchDTO<ArticleSummaryDTO> getArticleSummariesByIds(List<Long> ids);
+    ResourceVersionDTO getArticleVersion(Long id);
     ArticleResponseDTO updateArticle(Long id, ArticleRequestDTO articleRequestDTO);
     void deleteArticle(Long id);
 }
\ No newline at end of file
@@ -1,30 +1,72 @@
 package com.ngaland.blog_api.service.impl;
 
+import com.ngaland.blog_api.cache.ArticleResponseCache;
+import com.ngaland.blog_api.datasource.ReadWriteRoutingDataSource;
+import com.ngaland.blog_api.config.MetricsConfig;
+import com.ngaland.blog_api.dto.ArticleBatchDTO;
+import com.ngaland.blog_api.dto.ArticleRanking;
 import com.ngaland.blog_api.dto.ArticleRequestDTO;
 import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
 import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
+import com.ngaland.blog_api.event.ArticleChangedEvent;
+import com.ngaland.blog_api.event.ChangeType;
 import com.ngaland.blog_api.model.Article;
 import com.ngaland.blog_api.model.Comment;
 import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentRepository;
 import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.exception.BulkLimitExceededException;
 import com.ngaland.blog_api.exception.DuplicateResourceException; // Importe la nouvelle exception
+import com.ngaland.blog_api.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER) // Un timer par méthode publique (tags class / method / exception)
 public class ArticleServiceImpl implements ArticleService {
 
+    // Taille maximale d'une page, quelle que soit la valeur demandée par le client
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Nombre d'articles convertis (et retirés du contexte de persistance) à la fois pendant l'export
+    static final int EXPORT_CHUNK_SIZE = 100;
+
+    // Nombre maximal d'ID par lecture groupée (GET /api/v1/articles?ids=...)
+    static final int MAX_BATCH_SIZE = 100;
+
     private final ArticleRepository articleRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher; // Notifie les abonnés (ex: invalidation du cache) des modifications
+    private final ArticleResponseCache articleResponseCache; // Articles complets, invalidés par ArticleCacheInvalidator
 
-    // Méthode utilitaire pour convertir Article en ArticleResponseDTO
-    private ArticleResponseDTO convertToDto(Article article) {
+    // Méthode utilitaire pour convertir Article en ArticleResponseDTO (statique, visibilité paquet : mesurée par les
+    // benchmarks JMH sans construire le service)
+    static ArticleResponseDTO convertToDto(Article article) {
         List<CommentResponseDTO> commentDTOs = article.getCommentaires().stream()
-                .map(this::convertCommentToDto)
+                .map(ArticleServiceImpl::convertCommentToDto)
                 .collect(Collectors.toList());
 
         return new ArticleResponseDTO(
@@ -32,22 +74,49 @@ public class ArticleServiceImpl implements ArticleService {
                 article.getTitre(),
                 article.getContenu(),
                 article.getDatePublication(),
+                article.getVersion(),
                 commentDTOs
         );
     }
 
+    // Convertit une liste d'articles en chargeant les commentaires de tous les articles en une seule requête,
+    // au lieu d'une requête par article (problème N+1) comme le ferait convertToDto.
+    private List<ArticleResponseDTO> convertAllToDto(List<Article> articles) {
+        if (articles.isEmpty()) {
+            return List.of();
+        }
+        List<Long> articleIds = articles.stream().map(Article::getId).collect(Collectors.toList());
+        Map<Long, List<CommentResponseDTO>> commentsByArticleId = commentRepository
+                .findByArticleIdInOrderByDateCommentaireAscIdAsc(articleIds).stream()
+                .map(ArticleServiceImpl::convertCommentToDto)
+                .collect(Collectors.groupingBy(CommentResponseDTO::getArticleId));
+
+        return articles.stream()
+                .map(article -> new ArticleResponseDTO(
+                        article.getId(),
+                        article.getTitre(),
+                        article.getContenu(),
+                        article.getDatePublication(),
+                        article.getVersion(),
+                        commentsByArticleId.getOrDefault(article.getId(), List.of())
+                ))
+                .collect(Collectors.toList());
+    }
+
     // Méthode utilitaire pour convertir Comment en CommentResponseDTO
-    private CommentResponseDTO convertCommentToDto(Comment comment) {
+    private static CommentResponseDTO convertCommentToDto(Comment comment) {
         return new CommentResponseDTO(
                 comment.getId(),
                 comment.getContenu(),
                 comment.getAuteur(),
                 comment.getDateCommentaire(),
-                comment.getArticle().getId()
+                comment.getArticle().getId(),
+                comment.getThreadPosition()
         );
     }
 
     @Override
+    @Transactional // Lectures préalables comprises : toute la méthode s'exécute sur la base principale
     public ArticleResponseDTO createArticle(ArticleRequestDTO articleRequestDTO) {
         // --- VÉRIFICATION DES DOUBLONS : Titre unique ---
         articleRepository.findByTitre(articleRequestDTO.getTitre())
@@ -61,24 +130,195 @@ public class ArticleServiceImpl implements ArticleService {
         article.setContenu(articleRequestDTO.getContenu());
 
         Article savedArticle = articleRepository.save(article);
+        eventPublisher.publishEvent(new ArticleChangedEvent(savedArticle.getId(), ChangeType.CREATED));
         return convertToDto(savedArticle);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ArticleResponseDTO> getAllArticles() {
-        return articleRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertAllToDto(articleRepository.findAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getArticleSummaries() {
+        return articleRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ArticleResponseDTO> getArticlesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // On demande un article de plus que la taille de page pour savoir s'il existe une page suivante
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Article> articles;
+        if (cursor == null || cursor.isBlank()) {
+            articles = articleRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            articles = articleRepository.findPageAfter(position.date(), position.id(), limit);
+        }
+
+        CursorPageDTO<Article> page = toCursorPage(articles, pageSize,
+                article -> new KeysetCursor(article.getDatePublication(), article.getId()));
+        return new CursorPageDTO<>(convertAllToDto(page.getItems()), page.getNextCursor(), page.isHasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ArticleSummaryDTO> getArticleSummariesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ArticleSummaryDTO> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = articleRepository.findSummaryFirstPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            summaries = articleRepository.findSummaryPageAfter(position.date(), position.id(), limit);
+        }
+        // Même ordre et même curseur que les pages complètes : un client peut passer d'une représentation à l'autre
+        return toCursorPage(summaries, pageSize,
+                summary -> new KeysetCursor(summary.getDatePublication(), summary.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleSummaryDTO> getArticleRanking(ArticleRanking ranking, int limit) {
+        // Lecture des premières entrées de l'index du classement, sans tri ni comptage des commentaires
+        Pageable top = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return switch (ranking) {
+            case COMMENTS -> articleRepository.findMostCommented(top);
+            case ACTIVITY -> articleRepository.findRecentlyActive(top);
+        };
+    }
+
+    // Découpe les pageSize + 1 lignes lues en une page et, s'il reste une ligne, le curseur de la page suivante
+    private static <T> CursorPageDTO<T> toCursorPage(List<T> rows, int pageSize, Function<T, KeysetCursor> positionOf) {
+        boolean hasNext = rows.size() > pageSize;
+        String nextCursor = null;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = positionOf.apply(rows.get(rows.size() - 1)).encode();
+        }
+        return new CursorPageDTO<>(rows, nextCursor, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // Transaction (et connexion) gardée jusqu'au dernier lot : voir ExportBulkhead
+    public void exportArticles(Consumer<List<ArticleResponseDTO>> chunkConsumer) {
+        try (Stream<Article> articles = articleRepository.streamAllOrderById()) {
+            List<Article> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            articles.forEach(article -> {
+                chunk.add(article);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, chunkConsumer);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                exportChunk(chunk, chunkConsumer);
+            }
+        }
+    }
+
+    // Convertit et transmet un lot d'articles, puis vide le contexte de persistance :
+    // la mémoire utilisée reste constante quel que soit le nombre total d'articles exportés.
+    private void exportChunk(List<Article> chunk, Consumer<List<ArticleResponseDTO>> chunkConsumer) {
+        chunkConsumer.accept(convertAllToDto(chunk));
+        chunk.clear();
+        entityManager.clear();
     }
 
     @Override
+    // Pas de transaction englobante, comme getArticlesByIds : un article en cache est servi sans prendre de connexion
     public ArticleResponseDTO getArticleById(Long id) {
-        Article article = articleRepository.findById(id)
+        return articleResponseCache.get(id, () -> loadArticleById(id));
+    }
+
+    @Override
+    // Article puis commentaires, en deux requêtes ; pas de transaction englobante (comme getArticlesByIds).
+    // Le résultat alimente les caches des articles (10 min) : il est lu sur la base principale, jamais sur un réplica en retard.
+    public ArticleResponseDTO loadArticleById(Long id) {
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> {
+            Article article = articleRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id));
+            return convertAllToDto(List.of(article)).get(0);
+        });
+    }
+
+    @Override
+    // Pas de transaction englobante : si tous les articles sont en cache, aucune connexion n'est prise.
+    // Les absents du cache sont lus en deux requêtes (articles, puis commentaires), chacune dans sa transaction en lecture
+    // seule, sur la base principale : ils sont mis en cache (voir loadArticleById).
+    public ArticleBatchDTO<ArticleResponseDTO> getArticlesByIds(List<Long> ids) {
+        List<Long> requestedIds = distinctIds(ids);
+
+        Map<Long, ArticleResponseDTO> found = new HashMap<>();
+        Map<Long, Object> missTokens = new HashMap<>(); // Jeton d'invalidation de chaque absent, relevé avant la lecture
+        for (Long id : requestedIds) {
+            ArticleResponseDTO cached = articleResponseCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missTokens.put(id, articleResponseCache.invalidationToken(id));
+            }
+        }
+        if (!missTokens.isEmpty()) {
+            List<ArticleResponseDTO> loaded = ReadWriteRoutingDataSource.readFromPrimary(
+                    () -> convertAllToDto(articleRepository.findAllById(missTokens.keySet())));
+            for (ArticleResponseDTO article : loaded) {
+                found.put(article.getId(), article);
+                articleResponseCache.put(article, missTokens.get(article.getId())); // Même entrée que getArticleById
+            }
+        }
+        return toBatch(requestedIds, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArticleBatchDTO<ArticleSummaryDTO> getArticleSummariesByIds(List<Long> ids) {
+        List<Long> requestedIds = distinctIds(ids);
+        Map<Long, ArticleSummaryDTO> found = articleRepository.findSummariesByIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(ArticleSummaryDTO::getId, Function.identity()));
+        return toBatch(requestedIds, found);
+    }
+
+    // ID demandés sans doublons, dans l'ordre de la requête
+    private static List<Long> distinctIds(List<Long> ids) {
+        List<Long> requestedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        requestedIds.remove(null);
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new BulkLimitExceededException("Une lecture groupée ne peut pas dépasser " + MAX_BATCH_SIZE + " articles.");
+        }
+        return requestedIds;
+    }
+
+    // Remet les articles trouvés dans l'ordre demandé ; les ID sans article sont signalés au lieu de faire échouer l'appel
+    private static <T> ArticleBatchDTO<T> toBatch(List<Long> requestedIds, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ArticleBatchDTO<>(items, missingIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO getArticleVersion(Long id) {
+        return articleRepository.findVersionById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id));
-        return convertToDto(article);
     }
 
     @Override
+    @Transactional
     public ArticleResponseDTO updateArticle(Long id, ArticleRequestDTO articleRequestDTO) {
         Article existingArticle = articleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id));
@@ -96,15 +336,20 @@ public class ArticleServiceImpl implements ArticleService {
         existingArticle.setTitre(articleRequestDTO.getTitre());
         existingArticle.setContenu(articleRequestDTO.getContenu());
 
-        Article updatedArticle = articleRepository.save(existingArticle);
+        // flush : la version incrémentée par Hibernate est celle renvoyée au client (et non l'ancienne)
+        Article updatedArticle = articleRepository.saveAndFlush(existingArticle);
+        eventPublisher.publishEvent(new ArticleChangedEvent(id, ChangeType.UPDATED));
         return convertToDto(updatedArticle);
     }
 
     @Override
+    @Transactional
     public void deleteArticle(Long id) {
-        if (!articleRepository.existsById(id)) {
+        // Suppression logique : ni chargement ni suppression des commentaires pendant la requête (verrous et connexion
+        // libérés aussitôt) ; ArticlePurger supprime ensuite les commentaires par lots, puis l'article
+        if (articleRepository.markDeleted(id, LocalDateTime.now()) == 0) {
             throw new EntityNotFoundException("Article non trouvé avec l'ID: " + id);
         }
-        articleRepository.deleteById(id);
+        eventPublisher.publishEvent(new ArticleChangedEvent(id, ChangeType.DELETED));
     }
 }
\ No newline at end of file
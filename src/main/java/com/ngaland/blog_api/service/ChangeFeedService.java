@@ -0,0 +1,7 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ChangeFeedPageDTO;
+
+public interface ChangeFeedService {
+    ChangeFeedPageDTO getChanges(long since, int limit);
+}
@@ -0,0 +1,39 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ChangeEventDTO;
+import com.ngaland.blog_api.dto.ChangeFeedPageDTO;
+import com.ngaland.blog_api.repository.ChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Flux des modifications publiées par ChangeRelay. Un client garde le nextSince de la dernière page lue et
+ * reprend à partir de lui : chaque modification validée y apparaît une fois, dans l'ordre de publication.
+ * Les événements ne portent que les identifiants, l'état courant se relit par GET /api/v1/articles?ids=...
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    // Nombre maximal d'événements par page
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChangeEventRepository changeEventRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedPageDTO getChanges(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Un événement de plus que la taille de page pour savoir si d'autres sont déjà disponibles
+        List<ChangeEventDTO> events = changeEventRepository.findAfter(Math.max(0, since), pageSize + 1);
+        boolean hasMore = events.size() > pageSize;
+        if (hasMore) {
+            events = events.subList(0, pageSize);
+        }
+        long nextSince = events.isEmpty() ? Math.max(0, since) : events.get(events.size() - 1).getSequence();
+        return new ChangeFeedPageDTO(events, nextSince, hasMore);
+    }
+}
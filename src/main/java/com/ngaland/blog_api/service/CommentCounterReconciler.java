@@ -0,0 +1,36 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.repository.ArticleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Répare périodiquement les compteurs dénormalisés des articles (commentCount, lastCommentAt)
+ * à partir des commentaires réellement présents : écritures faites hors de l'application, restauration
+ * partielle, bug... Les articles sont traités par tranches d'ID, chacune dans sa propre courte transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCounterReconciler {
+
+    // Nombre d'ID d'articles vérifiés par transaction
+    static final int BATCH_SIZE = 1000;
+
+    private final ArticleRepository articleRepository;
+
+    @Scheduled(cron = "${blog.comment-counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long maxId = articleRepository.findMaxId();
+        int repaired = 0;
+        for (long afterId = 0; afterId < maxId; afterId += BATCH_SIZE) {
+            repaired += articleRepository.reconcileCommentCounters(afterId, afterId + BATCH_SIZE);
+        }
+        if (repaired > 0) {
+            log.warn("Compteurs de commentaires réparés sur {} article(s)", repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,14 +1,26 @@
 package com.ngaland.blog_api.service;
 
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentDirection;
 import com.ngaland.blog_api.dto.CommentRequestDTO;
 import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
 
 import java.util.List;
 
 public interface CommentService {
+
+    // Nombre maximal de commentaires acceptés par requête d'import en masse
+    int MAX_BULK_SIZE = 10_000;
+
     CommentResponseDTO addCommentToArticle(Long articleId, CommentRequestDTO commentRequestDTO);
+    List<BulkCommentResultDTO> addCommentsToArticle(Long articleId, List<CommentRequestDTO> commentRequestDTOs);
     List<CommentResponseDTO> getCommentsByArticleId(Long articleId);
+    CursorPageDTO<CommentResponseDTO> getCommentsPage(Long articleId, String cursor, int size, CommentDirection direction);
+    ResourceVersionDTO getCommentsVersion(Long articleId);
     CommentResponseDTO getCommentById(Long id);
+    ResourceVersionDTO getCommentVersion(Long id);
     CommentResponseDTO updateComment(Long id, CommentRequestDTO commentRequestDTO);
     void deleteComment(Long id);
 }
\ No newline at end of file
@@ -1,79 +1,279 @@
 package com.ngaland.blog_api.service;
 
+import com.ngaland.blog_api.config.MetricsConfig;
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentDirection;
 import com.ngaland.blog_api.dto.CommentRequestDTO;
 import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.dto.ResourceVersionDTO;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
 import com.ngaland.blog_api.model.Article;
 import com.ngaland.blog_api.model.Comment;
 import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentPositionRepository;
 import com.ngaland.blog_api.repository.CommentRepository;
+import com.ngaland.blog_api.util.CommentFingerprint;
+import com.ngaland.blog_api.util.ThreadCursor;
 import com.ngaland.blog_api.service.CommentService;
-import com.ngaland.blog_api.exception.DuplicateResourceException; // Importe la nouvelle exception
+import com.ngaland.blog_api.exception.BulkLimitExceededException;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER) // Un timer par méthode publique (tags class / method / exception)
 public class CommentServiceImpl implements CommentService {
 
+    // Taille maximale d'une page du fil de commentaires
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Nombre de commentaires vérifiés (une requête de doublons) puis insérés ensemble lors d'un import en masse
+    static final int BULK_CHUNK_SIZE = 500;
+
     private final CommentRepository commentRepository;
     private final ArticleRepository articleRepository;
+    private final CommentPositionRepository commentPositionRepository;
+    private final ApplicationEventPublisher eventPublisher; // Notifie les abonnés (ex: invalidation du cache des articles)
+    private final EntityManager entityManager;
+    private final Validator validator;
 
-    // Méthode utilitaire pour convertir Comment en CommentResponseDTO
-    private CommentResponseDTO convertToDto(Comment comment) {
+    // Méthode utilitaire pour convertir Comment en CommentResponseDTO (statique, visibilité paquet : mesurée par les
+    // benchmarks JMH sans construire le service)
+    static CommentResponseDTO convertToDto(Comment comment) {
         return new CommentResponseDTO(
                 comment.getId(),
                 comment.getContenu(),
                 comment.getAuteur(),
                 comment.getDateCommentaire(),
-                comment.getArticle().getId()
+                comment.getArticle().getId(),
+                comment.getThreadPosition()
         );
     }
 
     @Override
+    @Transactional
     public CommentResponseDTO addCommentToArticle(Long articleId, CommentRequestDTO commentRequestDTO) {
-        Article article = articleRepository.findById(articleId)
-                .orElseThrow(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId));
-
-        // --- VÉRIFICATION DES DOUBLONS POUR LES COMMENTAIRES ---
-        // Empêche le même auteur de poster le même contenu sur le même article.
-        commentRepository.findByArticleIdAndAuteurAndContenu(
-                articleId,
-                commentRequestDTO.getAuteur(),
-                commentRequestDTO.getContenu()
-        ).ifPresent(comment -> {
-            throw new DuplicateResourceException("Cet auteur a déjà posté ce commentaire sur cet article.");
-        });
-        // --- FIN DE LA VÉRIFICATION ---
+        if (!articleRepository.existsById(articleId)) {
+            throw new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId);
+        }
+        Article article = articleRepository.getReferenceById(articleId);
+        bypassSecondLevelCacheOnInsert();
 
+        // Les doublons (même auteur, même contenu sur le même article) sont rejetés par l'index unique
+        // (article_id, fingerprint) au moment de l'INSERT : pas de requête de vérification préalable,
+        // et deux envois identiques simultanés ne peuvent pas réussir tous les deux (409 via GlobalExceptionHandler).
         Comment comment = new Comment();
         comment.setContenu(commentRequestDTO.getContenu());
         comment.setAuteur(commentRequestDTO.getAuteur());
         comment.setArticle(article);
 
-        Comment savedComment = commentRepository.save(comment);
+        Comment savedComment = commentRepository.saveAndFlush(comment); // flush : la violation d'unicité est levée ici
+        // Compteur de commentaires de l'article incrémenté et position réservée dans la même transaction (sa version ne
+        // change pas). Dernières instructions avant le commit : la ligne de l'article n'est verrouillée qu'à partir d'ici
+        recordCommentsAdded(articleId, 1, savedComment.getDateCommentaire());
+        savedComment.setThreadPosition(commentPositionRepository.assignReservedPositions(articleId, List.of(savedComment.getId())));
+        CommentResponseDTO commentDTO = convertToDto(savedComment);
+        eventPublisher.publishEvent(new CommentChangedEvent(articleId, savedComment.getId(), ChangeType.CREATED, commentDTO));
         // si on as besoi de l'article mis à jour immédiatement dans la même transaction.
         // article.getCommentaires().add(savedComment);
         // articleRepository.save(article); // Cette sauvegarde est généralement superflue avec CascadeType.ALL et mappedBy="article"
 
-        return convertToDto(savedComment);
+        return commentDTO;
     }
 
     @Override
-    public List<CommentResponseDTO> getCommentsByArticleId(Long articleId) {
-        // Optionnel : Vérifier si l'article existe avant de chercher les commentaires
+    @Transactional
+    public List<BulkCommentResultDTO> addCommentsToArticle(Long articleId, List<CommentRequestDTO> commentRequestDTOs) {
+        if (commentRequestDTOs.size() > MAX_BULK_SIZE) {
+            throw new BulkLimitExceededException("Un import ne peut pas dépasser " + MAX_BULK_SIZE + " commentaires.");
+        }
         if (!articleRepository.existsById(articleId)) {
             throw new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId);
         }
-        return commentRepository.findByArticleId(articleId).stream()
-                .map(this::convertToDto)
+        Article article = articleRepository.getReferenceById(articleId);
+        bypassSecondLevelCacheOnInsert();
+
+        List<BulkCommentResultDTO> results = new ArrayList<>(commentRequestDTOs.size());
+        List<CommentResponseDTO> created = new ArrayList<>(); // Dans l'ordre des INSERT, sans position pour l'instant
+        Set<String> seenInRequest = new HashSet<>(); // Empreintes déjà vues : doublons à l'intérieur de la requête elle-même
+        for (int start = 0; start < commentRequestDTOs.size(); start += BULK_CHUNK_SIZE) {
+            List<CommentRequestDTO> chunk = commentRequestDTOs.subList(start, Math.min(start + BULK_CHUNK_SIZE, commentRequestDTOs.size()));
+            importChunk(article, start, chunk, seenInRequest, results, created);
+        }
+        if (created.isEmpty()) {
+            return results;
+        }
+
+        // Un seul UPDATE du compteur pour tout l'import ; lastCommentAt = date du plus récent commentaire importé,
+        // celle que MAX(dateCommentaire) redonnerait à la réconciliation. Positions réservées une fois tous les INSERT
+        // faits (elles se suivent) : la ligne de l'article n'est verrouillée que jusqu'au commit, pas pendant l'import
+        LocalDateTime lastCommentedAt = created.stream().map(CommentResponseDTO::getDateCommentaire)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        recordCommentsAdded(articleId, created.size(), lastCommentedAt);
+        long firstPosition = commentPositionRepository.assignReservedPositions(articleId,
+                created.stream().map(CommentResponseDTO::getId).toList());
+        for (int i = 0; i < created.size(); i++) {
+            CommentResponseDTO comment = created.get(i);
+            comment.setPosition(firstPosition + i);
+            eventPublisher.publishEvent(new CommentChangedEvent(articleId, comment.getId(), ChangeType.CREATED, comment));
+        }
+        return results;
+    }
+
+    // UPDATE du compteur, qui ne touche aucune ligne si l'article a disparu depuis la vérification de son existence :
+    // les commentaires insérés sont alors annulés avec la transaction
+    private void recordCommentsAdded(Long articleId, long added, LocalDateTime commentedAt) {
+        if (articleRepository.recordCommentsAdded(articleId, added, commentedAt) == 0) {
+            throw new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId);
+        }
+    }
+
+    // Les commentaires insérés ne sont pas mis dans le cache de second niveau : leur position, inscrite après l'INSERT
+    // par JDBC (CommentPositionRepository), y resterait vide. Ils y entrent à leur première lecture.
+    private void bypassSecondLevelCacheOnInsert() {
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+    }
+
+    // Importe un lot : validation, une seule requête de détection des doublons en base, puis INSERT regroupés en lots JDBC.
+    // Les commentaires créés sont ajoutés à created, dans l'ordre ; leur position est attribuée à la fin de l'import.
+    private void importChunk(Article article, int offset, List<CommentRequestDTO> chunk, Set<String> seenInRequest,
+                             List<BulkCommentResultDTO> results, List<CommentResponseDTO> created) {
+        Set<String> fingerprints = chunk.stream()
+                .map(request -> CommentFingerprint.of(request.getAuteur(), request.getContenu()))
+                .collect(Collectors.toSet());
+        Set<String> existingFingerprints = new HashSet<>(
+                commentRepository.findExistingFingerprints(article.getId(), fingerprints));
+
+        List<Comment> toInsert = new ArrayList<>();
+        List<BulkCommentResultDTO> createdResults = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            CommentRequestDTO request = chunk.get(i);
+            int index = offset + i;
+
+            Set<ConstraintViolation<CommentRequestDTO>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(" "));
+                results.add(new BulkCommentResultDTO(index, BulkCommentResultDTO.Status.INVALID, null, message));
+                continue;
+            }
+            String fingerprint = CommentFingerprint.of(request.getAuteur(), request.getContenu());
+            if (existingFingerprints.contains(fingerprint) || !seenInRequest.add(fingerprint)) {
+                results.add(new BulkCommentResultDTO(index, BulkCommentResultDTO.Status.DUPLICATE, null,
+                        "Cet auteur a déjà posté ce commentaire sur cet article."));
+                continue;
+            }
+
+            Comment comment = new Comment();
+            comment.setContenu(request.getContenu());
+            comment.setAuteur(request.getAuteur());
+            comment.setArticle(article);
+            toInsert.add(comment);
+
+            BulkCommentResultDTO result = new BulkCommentResultDTO(index, BulkCommentResultDTO.Status.CREATED, null, null);
+            createdResults.add(result);
+            results.add(result);
+        }
+
+        commentRepository.saveAll(toInsert);
+        // Les INSERT partent ici, par lots de hibernate.jdbc.batch_size ; on vide ensuite le contexte de persistance
+        // pour que la mémoire utilisée ne dépende pas de la taille de l'import.
+        commentRepository.flush();
+        for (int i = 0; i < toInsert.size(); i++) {
+            Comment comment = toInsert.get(i);
+            createdResults.get(i).setCommentId(comment.getId());
+            created.add(convertToDto(comment));
+        }
+        entityManager.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentResponseDTO> getCommentsByArticleId(Long articleId) {
+        List<CommentResponseDTO> comments = commentRepository.findByArticleIdOrderByDateCommentaireAscIdAsc(articleId).stream()
+                .map(CommentServiceImpl::convertToDto)
                 .collect(Collectors.toList());
+        // L'existence de l'article n'est vérifiée (requête supplémentaire) que si aucun commentaire n'a été trouvé
+        if (comments.isEmpty() && !articleRepository.existsById(articleId)) {
+            throw new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId);
+        }
+        return comments;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentResponseDTO> getCommentsPage(Long articleId, String cursor, int size, CommentDirection direction) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Un commentaire de plus que la taille de page pour savoir s'il existe une page suivante
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        ThreadCursor position = cursor == null || cursor.isBlank() ? null : ThreadCursor.decode(cursor);
+
+        // Fil parcouru dans l'ordre des positions (Comment.threadPosition), qui deviennent visibles dans l'ordre
+        // croissant : un curseur NEWER gardé pour interroger l'API plus tard ne saute aucun commentaire validé depuis
+        List<CommentResponseDTO> rows = switch (direction) {
+            case NEWER -> position == null
+                    ? commentRepository.findThreadFirstPage(articleId, limit)
+                    : commentRepository.findThreadNewerThan(articleId, position.position(), limit);
+            case OLDER -> position == null
+                    ? commentRepository.findThreadLatestPage(articleId, limit)
+                    : commentRepository.findThreadOlderThan(articleId, position.position(), limit);
+        };
+        if (rows.isEmpty()) { // Aucune ligne, pas même celle de l'article (voir CommentRepository.THREAD_SELECT)
+            throw new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId);
+        }
+        if (rows.get(0).getId() == null) { // L'article existe, sans commentaire au-delà du curseur
+            rows = List.of();
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor;
+        if (direction == CommentDirection.NEWER) {
+            // Toujours un curseur (sauf fil vide) : le client le renvoie plus tard pour ne recevoir que les nouveaux commentaires
+            nextCursor = rows.isEmpty() ? (position == null ? null : cursor) : positionOf(rows.get(rows.size() - 1)).encode();
+        } else {
+            nextCursor = hasNext ? positionOf(rows.get(rows.size() - 1)).encode() : null;
+        }
+        return new CursorPageDTO<>(rows, nextCursor, hasNext);
+    }
+
+    private static ThreadCursor positionOf(CommentResponseDTO comment) {
+        return new ThreadCursor(comment.getPosition());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO getCommentsVersion(Long articleId) {
+        // Version de l'article combinée à son nombre de commentaires et à la date du plus récemment modifié (voir
+        // ResourceVersionDTO) : elle change à chaque ajout, modification ou suppression d'un de ses commentaires
+        return articleRepository.findVersionById(articleId)
+                .orElseThrow(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public CommentResponseDTO getCommentById(Long id) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id));
@@ -81,36 +281,39 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ResourceVersionDTO getCommentVersion(Long id) {
+        return commentRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id));
+    }
+
+    @Override
+    @Transactional
     public CommentResponseDTO updateComment(Long id, CommentRequestDTO commentRequestDTO) {
         Comment existingComment = commentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id));
 
-        // --- VÉRIFICATION DES DOUBLONS LORS DE LA MISE À JOUR POUR LES COMMENTAIRES ---
-        // Similaire à la création, mais on doit exclure le commentaire qu'on est en train de modifier.
-        commentRepository.findByArticleIdAndAuteurAndContenu(
-                        existingComment.getArticle().getId(),
-                        commentRequestDTO.getAuteur(),
-                        commentRequestDTO.getContenu()
-                )
-                .ifPresent(commentWithSameDetails -> {
-                    if (!commentWithSameDetails.getId().equals(id)) { // Si le commentaire trouvé n'est PAS celui qu'on met à jour
-                        throw new DuplicateResourceException("Un autre commentaire avec le même auteur et contenu existe déjà sur cet article.");
-                    }
-                });
-        // --- FIN DE LA VÉRIFICATION ---
-
+        // Doublons détectés par l'index unique (article_id, fingerprint), comme à la création
         existingComment.setContenu(commentRequestDTO.getContenu());
         existingComment.setAuteur(commentRequestDTO.getAuteur());
 
-        Comment updatedComment = commentRepository.save(existingComment);
-        return convertToDto(updatedComment);
+        // La ligne de l'article n'est pas modifiée : la date de modification du commentaire suffit à changer l'ETag
+        // de l'article et de ses commentaires (voir ArticleRepository.findVersionById)
+        Comment updatedComment = commentRepository.saveAndFlush(existingComment);
+        CommentResponseDTO commentDTO = convertToDto(updatedComment);
+        eventPublisher.publishEvent(new CommentChangedEvent(existingComment.getArticle().getId(), id, ChangeType.UPDATED, commentDTO));
+        return commentDTO;
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long id) {
-        if (!commentRepository.existsById(id)) {
-            throw new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id);
-        }
-        commentRepository.deleteById(id);
+        // On charge le commentaire (plutôt qu'un simple existsById) pour connaître l'article à notifier
+        Comment comment = commentRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id));
+        commentRepository.delete(comment);
+        commentRepository.flush(); // Le DELETE doit précéder le recalcul de la date du dernier commentaire
+        articleRepository.recordCommentRemoved(comment.getArticle().getId(), LocalDateTime.now());
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getArticle().getId(), id, ChangeType.DELETED, null));
     }
 }
\ No newline at end of file
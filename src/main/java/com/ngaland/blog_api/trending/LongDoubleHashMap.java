@@ -0,0 +1,118 @@
+package com.ngaland.blog_api.trending;
+
+/**
+ * Table de hachage long -&gt; double sans objets intermédiaires (ni Long, ni Double, ni entrées) : deux tableaux
+ * parallèles, adressage ouvert et sondage linéaire, suppression par recul des entrées suivantes (pas de marqueurs).
+ * La clé 0 est réservée aux cases vides (les ID générés commencent à 1). Non thread-safe.
+ */
+final class LongDoubleHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, double value);
+    }
+
+    private long[] keys;
+    private double[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongDoubleHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Mélange des bits de l'ID (Fibonacci) : des ID consécutifs ne tombent pas dans des cases consécutives
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Case de la clé, ou case vide où l'insérer
+    private int slot(long key) {
+        int index = home(key);
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(long key) {
+        int index = slot(key);
+        return keys[index] == key ? values[index] : 0.0;
+    }
+
+    // Ajoute delta à la valeur de la clé (0 si absente) et renvoie la nouvelle valeur
+    double addTo(long key, double delta) {
+        int index = slot(key);
+        if (keys[index] == key) {
+            return values[index] += delta;
+        }
+        keys[index] = key;
+        values[index] = delta;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    boolean remove(long key) {
+        int gap = slot(key);
+        if (keys[gap] != key) {
+            return false;
+        }
+        // Les entrées suivantes de la même séquence reculent dans le trou si leur case d'origine le permet
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == EMPTY) {
+                break;
+            }
+            int home = home(keys[index]);
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0.0;
+        size--;
+        return true;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slot(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
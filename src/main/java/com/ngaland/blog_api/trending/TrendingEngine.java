@@ -0,0 +1,281 @@
+package com.ngaland.blog_api.trending;
+
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.TrendingArticleDTO;
+import com.ngaland.blog_api.event.ArticleChangedEvent;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.TrendingScoreRepository;
+import com.ngaland.blog_api.repository.TrendingScoreRepository.TrendingScoreRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Articles tendance (GET /api/v1/articles/trending), calculés en continu à partir des événements publiés après
+ * validation par CommentServiceImpl (commentaires ajoutés ou supprimés) et des consultations de
+ * GET /api/v1/articles/{id}, sans jamais relire la table des commentaires.
+ * <p>
+ * Chaque événement met à jour en mémoire le score atténué de son article (TrendingScores). Toutes les
+ * blog.trending.refresh-interval-ms, le classement est figé dans une liste prête à servir, avec les titres de ses
+ * articles (lus une fois, à leur entrée dans le classement) : une lecture du classement ne fait qu'en copier le
+ * début, sans accès à la base. Les scores sont sauvegardés toutes les blog.trending.snapshot-interval-ms (et à
+ * l'arrêt), puis relus au démarrage.
+ * <p>
+ * Chaque instance ne compte que ses propres événements et les sauvegarde sous son identifiant (blog.trending.node-id,
+ * nom d'hôte par défaut) : elle ne remplace que sa propre sauvegarde. Une sauvegarde qui n'a pas été réécrite depuis
+ * blog.trending.orphan-after (instance arrêtée ou renommée) est reprise par la prochaine instance qui sauvegarde.
+ */
+@Slf4j
+@Component
+public class TrendingEngine {
+
+    public static final String TRACKED_METRIC = "blog.trending.tracked-articles";
+
+    private final ArticleRepository articleRepository;
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double commentWeight;
+    private final double viewWeight;
+    private final double minScore;
+    private final String nodeId;
+    private final Duration orphanAfter;
+
+    private final TrendingScores scores; // Protégé par lock : mis à jour par les threads des requêtes
+    private final ReentrantLock lock = new ReentrantLock();
+    // Un seul rafraîchissement et une seule sauvegarde à la fois. ReentrantLock plutôt que synchronized : les deux
+    // lisent ou écrivent en base, et un moniteur tenu pendant une attente bloquerait le thread porteur d'un thread virtuel
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    // Titre et date des articles du classement uniquement
+    private final Map<Long, ArticleSummaryDTO> summaries = new ConcurrentHashMap<>();
+    private volatile List<TrendingArticleDTO> trending = List.of();
+
+    public TrendingEngine(ArticleRepository articleRepository,
+                          TrendingScoreRepository trendingScoreRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${blog.trending.half-life:6h}") Duration halfLife,
+                          @Value("${blog.trending.capacity:100}") int capacity,
+                          @Value("${blog.trending.comment-weight:1.0}") double commentWeight,
+                          @Value("${blog.trending.view-weight:0.05}") double viewWeight,
+                          @Value("${blog.trending.min-score:0.01}") double minScore,
+                          @Value("${blog.trending.node-id:}") String nodeId,
+                          @Value("${blog.trending.orphan-after:30m}") Duration orphanAfter) {
+        this.articleRepository = articleRepository;
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.commentWeight = commentWeight;
+        this.viewWeight = viewWeight;
+        this.minScore = minScore;
+        this.nodeId = nodeId.isBlank() ? localHostName() : nodeId;
+        this.orphanAfter = orphanAfter;
+        this.scores = new TrendingScores(halfLife, capacity, System.currentTimeMillis());
+        Gauge.builder(TRACKED_METRIC, this, TrendingEngine::trackedArticles)
+                .description("Articles dont le score de tendance est suivi en mémoire")
+                .register(meterRegistry);
+    }
+
+    // Classement courant, du plus tendance au moins tendance (limit articles au plus)
+    public List<TrendingArticleDTO> getTrending(int limit) {
+        List<TrendingArticleDTO> current = trending;
+        return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+    }
+
+    public void recordView(Long articleId) {
+        if (viewWeight > 0) {
+            record(articleId, viewWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // Après le commit : seules les modifications validées comptent
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            record(event.articleId(), commentWeight);
+        } else if (event.type() == ChangeType.DELETED) {
+            // La date du commentaire supprimé n'est pas connue : on retire le poids d'un commentaire récent
+            record(event.articleId(), -commentWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            lock.lock();
+            try {
+                scores.remove(event.articleId());
+            } finally {
+                lock.unlock();
+            }
+        } else if (event.type() == ChangeType.UPDATED) {
+            summaries.remove(event.articleId()); // Titre relu au prochain rafraîchissement
+        }
+    }
+
+    private void record(Long articleId, double weight) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            scores.add(articleId, weight, now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Fige le classement courant ; seuls les articles qui viennent d'y entrer sont lus en base
+    @Scheduled(fixedDelayString = "${blog.trending.refresh-interval-ms:1000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            List<TrendingScores.Entry> top;
+            lock.lock();
+            try {
+                top = scores.top(System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+
+            Set<Long> ids = new HashSet<>();
+            List<Long> missing = new ArrayList<>();
+            for (TrendingScores.Entry entry : top) {
+                ids.add(entry.articleId());
+                if (!summaries.containsKey(entry.articleId())) {
+                    missing.add(entry.articleId());
+                }
+            }
+            if (!missing.isEmpty()) {
+                articleRepository.findSummariesByIdIn(missing).forEach(summary -> summaries.put(summary.getId(), summary));
+            }
+            summaries.keySet().retainAll(ids);
+
+            List<TrendingArticleDTO> ranking = new ArrayList<>(top.size());
+            for (TrendingScores.Entry entry : top) {
+                ArticleSummaryDTO summary = summaries.get(entry.articleId());
+                if (summary == null) {
+                    forget(entry.articleId()); // Article supprimé (ou purgé) : il ne reviendra pas
+                    continue;
+                }
+                ranking.add(new TrendingArticleDTO(summary.getId(), summary.getTitre(), summary.getDatePublication(), entry.score()));
+            }
+            trending = List.copyOf(ranking);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void forget(long articleId) {
+        lock.lock();
+        try {
+            scores.remove(articleId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Oublie les scores devenus négligeables et sauvegarde les autres, à la place de la sauvegarde précédente de cette
+    // instance ; reprend au passage les sauvegardes abandonnées par d'autres instances
+    @Scheduled(fixedDelayString = "${blog.trending.snapshot-interval-ms:60000}",
+            initialDelayString = "${blog.trending.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            List<TrendingScores.Entry> entries;
+            lock.lock();
+            try {
+                scores.rescale(now, minScore);
+                entries = scores.all(now);
+            } finally {
+                lock.unlock();
+            }
+            LocalDateTime scoredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+            List<TrendingScoreRow> rows = entries.stream()
+                    .map(entry -> new TrendingScoreRow(entry.articleId(), entry.score(), scoredAt))
+                    .toList();
+            LocalDateTime orphanedBefore = scoredAt.minus(orphanAfter);
+            List<TrendingScoreRow> orphans = transactionTemplate.execute(status -> {
+                trendingScoreRepository.replaceNode(nodeId, rows);
+                return trendingScoreRepository.takeOrphans(nodeId, orphanedBefore);
+            });
+            // Ajoutés en mémoire après le commit seulement : sauvegardés sous cet identifiant à la prochaine sauvegarde
+            if (!orphans.isEmpty()) {
+                addSaved(orphans);
+                log.info("Scores de tendance repris d'une autre instance : {} article(s)", orphans.size());
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Redémarrage à chaud : les scores sauvegardés reprennent leur décroissance depuis leur date de sauvegarde
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        trendingScoreRepository.createSchemaIfMissing();
+        List<TrendingScoreRow> rows = trendingScoreRepository.findByNode(nodeId);
+        addSaved(rows);
+        refresh();
+        log.info("Scores de tendance relus (instance {}) : {} article(s)", nodeId, rows.size());
+    }
+
+    private void addSaved(List<TrendingScoreRow> rows) {
+        lock.lock();
+        try {
+            for (TrendingScoreRow row : rows) {
+                scores.add(row.articleId(), row.score(), row.scoredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Nom d'hôte introuvable : définir blog.trending.node-id", e);
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) { // Base déjà indisponible : la sauvegarde périodique précédente sera relue
+            log.warn("Sauvegarde des scores de tendance impossible à l'arrêt : {}", e.getMessage());
+        }
+    }
+
+    private int trackedArticles() {
+        lock.lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.ngaland.blog_api.trending;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Scores de tendance des articles, atténués exponentiellement avec le temps (demi-vie halfLife), et les capacity
+ * meilleurs d'entre eux. Non thread-safe : l'appelant (TrendingEngine) sérialise les accès.
+ * <p>
+ * Au lieu de faire décroître tous les scores au fil du temps, chaque événement compte pour
+ * weight * 2^((instant - origine) / demi-vie) : un événement récent pèse plus que les anciens, les valeurs
+ * stockées n'ont jamais à être mises à jour et leur ordre ne change qu'avec les nouveaux événements. Le score
+ * courant s'obtient en divisant par 2^((maintenant - origine) / demi-vie). rescale() ramène régulièrement l'origine
+ * à maintenant (valeurs bornées) et oublie les articles dont le score est devenu négligeable.
+ * <p>
+ * Les meilleurs articles sont tenus dans un tas minimal borné (le moins bon à la racine). Quand l'un d'eux perd
+ * des points ou disparaît, un article hors du tas peut mériter sa place : le tas est alors reconstruit à la
+ * prochaine lecture par un parcours de tous les scores.
+ */
+final class TrendingScores {
+
+    record Entry(long articleId, double score) {
+    }
+
+    // En dessous, un score est considéré comme nul (erreurs d'arrondi après un ajout puis un retrait)
+    private static final double NEGLIGIBLE_SCORE = 1e-9;
+
+    private final double halfLifeMillis;
+    private final long[] topIds;
+    private final double[] topValues;
+    private int topSize;
+    private boolean topIncomplete;
+
+    private LongDoubleHashMap values = new LongDoubleHashMap(1024);
+    private long originMillis;
+
+    TrendingScores(Duration halfLife, int capacity, long nowMillis) {
+        this.halfLifeMillis = halfLife.toMillis();
+        this.topIds = new long[capacity];
+        this.topValues = new double[capacity];
+        this.originMillis = nowMillis;
+    }
+
+    // Poids relatif d'un événement survenu à atMillis
+    private double growth(long atMillis) {
+        return Math.pow(2.0, (atMillis - originMillis) / halfLifeMillis);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    // Ajoute (ou retire, weight négatif) des points à l'article pour un événement survenu à atMillis
+    void add(long articleId, double weight, long atMillis) {
+        double growth = growth(atMillis);
+        double value = values.addTo(articleId, weight * growth);
+        if (value <= NEGLIGIBLE_SCORE * growth) {
+            remove(articleId); // Plus rien à son actif (ex: commentaire supprimé d'un article jamais compté)
+            return;
+        }
+        int index = indexInTop(articleId);
+        if (index >= 0) {
+            double previous = topValues[index];
+            topValues[index] = value;
+            if (value >= previous) {
+                siftDown(index);
+            } else {
+                siftUp(index);
+                topIncomplete |= values.size() > topSize;
+            }
+        } else if (topSize < topIds.length) {
+            topIds[topSize] = articleId;
+            topValues[topSize] = value;
+            siftUp(topSize++);
+        } else if (value > topValues[0]) {
+            topIds[0] = articleId;
+            topValues[0] = value;
+            siftDown(0);
+        }
+    }
+
+    void remove(long articleId) {
+        values.remove(articleId);
+        int index = indexInTop(articleId);
+        if (index >= 0) {
+            topSize--;
+            if (index < topSize) {
+                topIds[index] = topIds[topSize];
+                topValues[index] = topValues[topSize];
+                siftDown(index);
+                siftUp(index);
+            }
+            topIncomplete |= values.size() > topSize;
+        }
+    }
+
+    // Meilleurs articles, du plus haut score au plus bas, avec leur score à nowMillis
+    List<Entry> top(long nowMillis) {
+        if (topIncomplete) {
+            rebuildTop();
+        }
+        double decay = 1.0 / growth(nowMillis);
+        List<Entry> entries = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            entries.add(new Entry(topIds[i], topValues[i] * decay));
+        }
+        entries.sort(Comparator.comparingDouble(Entry::score).reversed().thenComparing(Entry::articleId, Comparator.reverseOrder()));
+        return entries;
+    }
+
+    // Tous les scores à nowMillis (sauvegarde)
+    List<Entry> all(long nowMillis) {
+        double decay = 1.0 / growth(nowMillis);
+        List<Entry> entries = new ArrayList<>(values.size());
+        values.forEach((articleId, value) -> entries.add(new Entry(articleId, value * decay)));
+        return entries;
+    }
+
+    // Ramène l'origine à nowMillis et oublie les scores inférieurs à minScore
+    void rescale(long nowMillis, double minScore) {
+        double decay = 1.0 / growth(nowMillis);
+        LongDoubleHashMap rescaled = new LongDoubleHashMap(values.size());
+        values.forEach((articleId, value) -> {
+            double score = value * decay;
+            if (score >= minScore) {
+                rescaled.addTo(articleId, score);
+            }
+        });
+        values = rescaled;
+        originMillis = nowMillis;
+        rebuildTop();
+    }
+
+    private void rebuildTop() {
+        topSize = 0;
+        values.forEach((articleId, value) -> {
+            if (topSize < topIds.length) {
+                topIds[topSize] = articleId;
+                topValues[topSize] = value;
+                siftUp(topSize++);
+            } else if (value > topValues[0]) {
+                topIds[0] = articleId;
+                topValues[0] = value;
+                siftDown(0);
+            }
+        });
+        topIncomplete = false;
+    }
+
+    // Recherche linéaire : le tas est petit (capacity) et tient dans quelques lignes de cache
+    private int indexInTop(long articleId) {
+        for (int i = 0; i < topSize; i++) {
+            if (topIds[i] == articleId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (topValues[parent] <= topValues[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < topSize && topValues[left] < topValues[smallest]) {
+                smallest = left;
+            }
+            if (right < topSize && topValues[right] < topValues[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long id = topIds[i];
+        topIds[i] = topIds[j];
+        topIds[j] = id;
+        double value = topValues[i];
+        topValues[i] = topValues[j];
+        topValues[j] = value;
+    }
+}
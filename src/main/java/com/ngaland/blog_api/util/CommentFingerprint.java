@@ -0,0 +1,70 @@
+package com.ngaland.blog_api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Empreinte d'un commentaire : SHA-256 (hexadécimal, 64 caractères) de l'auteur et du contenu normalisés.
+ * Deux commentaires du même auteur avec le même contenu ont la même empreinte ; l'index unique
+ * (article_id, fingerprint) empêche donc les doublons sans comparer les colonnes TEXT.
+ * <p>
+ * La fonction SQL commentaire_fingerprint (bd/migrations/002 et 012) calcule la même empreinte pour les commentaires
+ * existants : la normalisation se limite donc à ce que PostgreSQL reproduit à l'identique quelle que soit la locale
+ * de la base (espaces ASCII, casse ASCII). Toute modification doit être reportée dans une nouvelle migration.
+ */
+public final class CommentFingerprint {
+
+    // Caractères retirés en début et en fin, ceux de btrim(x, E' \t\n\f\r' || chr(11)) côté SQL
+    private static final String TRIMMED_CHARACTERS = " \t\n\u000B\f\r";
+
+    private CommentFingerprint() {
+    }
+
+    public static String of(String auteur, String contenu) {
+        String normalizedAuteur = normalizeAuteur(auteur);
+        // Longueur de l'auteur (en octets UTF-8) en préfixe : frontière non ambiguë entre auteur et contenu,
+        // sans caractère séparateur que l'un ou l'autre pourrait contenir (ni caractère nul, refusé par PostgreSQL)
+        String normalized = normalizedAuteur.getBytes(StandardCharsets.UTF_8).length + ":" + normalizedAuteur
+                + normalizeContenu(contenu);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e); // Toute JVM doit fournir SHA-256
+        }
+    }
+
+    // L'auteur est comparé sans tenir compte de la casse des lettres ASCII ni des espaces en début/fin
+    // (translate(..., 'A..Z', 'a..z') côté SQL : lower() dépendrait de la locale de la base)
+    private static String normalizeAuteur(String auteur) {
+        String trimmed = trim(auteur);
+        StringBuilder lowerCase = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            lowerCase.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return lowerCase.toString();
+    }
+
+    // Le contenu est comparé sans tenir compte des espaces en début/fin
+    private static String normalizeContenu(String contenu) {
+        return trim(contenu);
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return "";
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && TRIMMED_CHARACTERS.indexOf(value.charAt(start)) >= 0) {
+            start++;
+        }
+        while (end > start && TRIMMED_CHARACTERS.indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ngaland.blog_api.util;
+
+import com.ngaland.blog_api.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste triée sur (date, id), utilisée pour la pagination par curseur (keyset).
+ * Le curseur transmis au client est la forme Base64 (URL-safe) de "date|id" : il est opaque pour lui.
+ */
+public record KeysetCursor(LocalDateTime date, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException("Curseur de pagination invalide: " + cursor);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.valueOf(raw.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) { // NumberFormatException hérite d'IllegalArgumentException
+            throw new InvalidCursorException("Curseur de pagination invalide: " + cursor, e);
+        }
+    }
+}
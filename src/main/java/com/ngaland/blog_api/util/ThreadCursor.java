@@ -0,0 +1,32 @@
+package com.ngaland.blog_api.util;
+
+import com.ngaland.blog_api.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans le fil de commentaires d'un article (Comment.threadPosition), utilisée pour la pagination par curseur
+ * du fil et comme identifiant des événements SSE. Comme KeysetCursor, le curseur transmis au client est opaque (Base64).
+ */
+public record ThreadCursor(long position) {
+
+    private static final String PREFIX = "p:";
+
+    public String encode() {
+        String raw = PREFIX + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ThreadCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) { // Par exemple un curseur (date, id) émis avant la numérotation du fil
+                throw new InvalidCursorException("Curseur de pagination invalide: " + cursor);
+            }
+            return new ThreadCursor(Long.parseLong(raw.substring(PREFIX.length())));
+        } catch (IllegalArgumentException e) { // NumberFormatException hérite d'IllegalArgumentException
+            throw new InvalidCursorException("Curseur de pagination invalide: " + cursor, e);
+        }
+    }
+}
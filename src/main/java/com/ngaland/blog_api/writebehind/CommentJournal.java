@@ -0,0 +1,290 @@
+package com.ngaland.blog_api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * File d'attente bornée et durable des commentaires acceptés en écriture différée.
+ * <p>
+ * Chaque soumission est ajoutée (et, si fsync, forcée sur disque) à la fin du fichier comments.journal avant d'être
+ * acceptée. Écritures forcées par groupe : une ligne est ajoutée sous le verrou, puis un seul des auteurs en attente
+ * force le fichier (hors verrou) pour toutes les lignes écrites jusque-là ; les autres attendent ce forçage au lieu de
+ * forcer chacun le leur. Une soumission n'est remise au consommateur qu'une fois sur disque. Le fichier comments.checkpoint contient la position, dans le journal, de la fin de la dernière soumission
+ * enregistrée en base. Au redémarrage, les soumissions situées après cette position sont rejouées.
+ * Le journal est tronqué dès que toutes les soumissions ont été enregistrées.
+ * <p>
+ * Un seul consommateur : chaque lot obtenu par {@link #poll} doit être acquitté par {@link #acknowledge}
+ * avant de demander le suivant.
+ */
+@Slf4j
+public class CommentJournal implements Closeable {
+
+    static final String JOURNAL_FILE = "comments.journal";
+    static final String CHECKPOINT_FILE = "comments.checkpoint";
+
+    private final Path checkpointPath;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final boolean fsync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition forced = lock.newCondition(); // Signalé à la fin de chaque forçage
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>(); // Soumissions non acquittées, dans l'ordre du journal
+    private int inFlight; // Soumissions en tête de pending remises au consommateur, en attente d'acquittement
+    private long written; // Octets écrits depuis l'ouverture (jamais remis à zéro, contrairement au fichier tronqué)
+    private long durable; // Parmi eux, octets forcés sur disque (tous, sans fsync)
+    private boolean forcing; // Un auteur force le fichier pour le groupe en cours
+
+    private CommentJournal(Path directory, ObjectMapper objectMapper, int capacity, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        this.checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.fsync = fsync;
+    }
+
+    // Ouvre (ou crée) le journal du répertoire et recharge les soumissions non encore enregistrées en base
+    public static CommentJournal open(Path directory, ObjectMapper objectMapper, int capacity, boolean fsync) {
+        try {
+            CommentJournal journal = new CommentJournal(directory, objectMapper, capacity, fsync);
+            journal.recover();
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'ouvrir le journal des commentaires dans " + directory, e);
+        }
+    }
+
+    // Ajoute une soumission au journal ; false si la file est pleine (rien n'est écrit). Rend la main une fois la
+    // soumission sur disque (si fsync), forcée par cet appel ou par celui d'un autre auteur du même groupe
+    public boolean offer(CommentSubmission submission) {
+        byte[] line = toLine(submission);
+        lock.lock();
+        try {
+            if (pending.size() >= capacity) {
+                return false;
+            }
+            long end = channel.size() + line.length;
+            writeFully(line);
+            written += line.length;
+            long mine = written;
+            pending.addLast(new Entry(submission, end, mine));
+            if (!fsync) {
+                durable = mine;
+                notEmpty.signal();
+                return true;
+            }
+            while (durable < mine) {
+                if (forcing) {
+                    forced.awaitUninterruptibly(); // Forçage en cours : il couvre peut-être déjà cette ligne
+                } else {
+                    forceGroup();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture dans le journal des commentaires impossible", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Force sur disque toutes les lignes écrites jusqu'ici, verrou relâché pendant le forçage (appelé verrou tenu)
+    private void forceGroup() throws IOException {
+        long target = written;
+        forcing = true;
+        lock.unlock();
+        try {
+            channel.force(false);
+        } finally {
+            lock.lock();
+            forcing = false;
+            forced.signalAll(); // En cas d'échec, un autre auteur en attente reprend le forçage
+        }
+        durable = Math.max(durable, target);
+        notEmpty.signal();
+    }
+
+    // Attend au plus timeout la première soumission en attente, puis renvoie jusqu'à maxSize soumissions (liste vide sinon)
+    public List<CommentSubmission> poll(int maxSize, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (inFlight > 0) {
+                throw new IllegalStateException("Le lot précédent n'a pas été acquitté");
+            }
+            while (pending.isEmpty() || pending.peekFirst().written() > durable) {
+                if (nanos <= 0) {
+                    return List.of();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            List<CommentSubmission> batch = new ArrayList<>(Math.min(maxSize, pending.size()));
+            Iterator<Entry> entries = pending.iterator();
+            while (entries.hasNext() && batch.size() < maxSize) {
+                Entry entry = entries.next();
+                if (entry.written() > durable) {
+                    break; // Pas encore sur disque : remise au prochain lot
+                }
+                batch.add(entry.submission());
+            }
+            inFlight = batch.size();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Le dernier lot obtenu par poll est enregistré en base : avance le point de reprise et libère la place dans la file
+    public void acknowledge() {
+        lock.lock();
+        try {
+            if (inFlight == 0) {
+                return;
+            }
+            long checkpoint = 0;
+            for (int i = 0; i < inFlight; i++) {
+                checkpoint = pending.removeFirst().end();
+            }
+            inFlight = 0;
+            if (pending.isEmpty()) {
+                // Plus rien à rejouer : le journal repart de zéro (une reprise au-delà de la fin du fichier repart aussi de zéro)
+                channel.truncate(0);
+                checkpoint = 0;
+            }
+            writeCheckpoint(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Mise à jour du point de reprise du journal impossible", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Nombre de soumissions acceptées et pas encore enregistrées en base
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Date d'acceptation de la plus ancienne soumission pas encore enregistrée (null si la file est vide)
+    public LocalDateTime oldestPendingAcceptedAt() {
+        lock.lock();
+        try {
+            Entry oldest = pending.peekFirst();
+            return oldest == null ? null : oldest.submission().acceptedAt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Relit le journal à partir du point de reprise ; une dernière ligne incomplète (arrêt brutal pendant l'écriture) est ignorée
+    private void recover() throws IOException {
+        long size = channel.size();
+        long checkpoint = readCheckpoint();
+        if (checkpoint > size) {
+            checkpoint = 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - checkpoint));
+        channel.read(buffer, checkpoint);
+        byte[] bytes = buffer.array();
+
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            long end = checkpoint + i + 1;
+            try {
+                CommentSubmission submission = objectMapper.readValue(bytes, lineStart, i - lineStart, CommentSubmission.class);
+                pending.addLast(new Entry(submission, end, 0)); // Déjà sur disque
+            } catch (IOException e) {
+                log.warn("Ligne illisible ignorée dans le journal des commentaires (position {})", checkpoint + lineStart, e);
+            }
+            lineStart = i + 1;
+        }
+        if (lineStart < bytes.length) {
+            log.warn("Fin de journal incomplète ignorée ({} octet(s))", bytes.length - lineStart);
+            channel.truncate(checkpoint + lineStart);
+        }
+        channel.position(channel.size());
+        if (!pending.isEmpty()) {
+            log.info("{} commentaire(s) du journal à rejouer", pending.size());
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointPath).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    // Écrit dans un fichier temporaire puis le renomme : le point de reprise n'est jamais lu à moitié écrit
+    private void writeCheckpoint(long checkpoint) throws IOException {
+        Path temporary = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(Long.toString(checkpoint).getBytes(StandardCharsets.US_ASCII)));
+            if (fsync) {
+                out.force(false);
+            }
+        }
+        Files.move(temporary, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeFully(byte[] line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private byte[] toLine(CommentSubmission submission) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(submission); // Les retours à la ligne du contenu sont échappés
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Soumission en attente, position de sa fin dans le journal (point de reprise une fois enregistrée), et valeur de
+    // written après son écriture (sur disque dès que durable l'atteint)
+    private record Entry(CommentSubmission submission, long end, long written) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.ngaland.blog_api.writebehind;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Commentaire accepté en mode écriture différée, tel qu'il est écrit dans le journal (une ligne JSON par soumission).
+ */
+public record CommentSubmission(UUID trackingId, Long articleId, String contenu, String auteur, LocalDateTime acceptedAt) {
+}
@@ -0,0 +1,266 @@
+package com.ngaland.blog_api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentSubmissionDTO;
+import com.ngaland.blog_api.exception.WriteQueueFullException;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.CommentService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture différée des commentaires (blog.comments.write-behind.enabled=true), pour absorber les pics de trafic.
+ * <p>
+ * POST /api/v1/articles/{articleId}/comments ne touche plus la base : le commentaire validé est ajouté au
+ * CommentJournal (fichier local) et la requête reçoit 202 avec un identifiant de suivi, ou 429 si la file est pleine.
+ * Un thread unique vide la file par lots : un lot est enregistré dans une seule transaction, avec une requête
+ * d'existence des articles puis, par article, le chemin de l'import en masse (doublons détectés en une requête,
+ * INSERT regroupés, une seule mise à jour du compteur de commentaires).
+ * <p>
+ * Après un arrêt brutal, les soumissions non acquittées sont rejouées depuis le journal. Une soumission déjà
+ * enregistrée avant l'arrêt est alors reconnue comme doublon par l'empreinte des commentaires : pas de double insertion.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blog.comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBehindQueue {
+
+    public static final String DEPTH_METRIC = "blog.comments.write-behind.depth";
+    public static final String LAG_METRIC = "blog.comments.write-behind.lag";
+    public static final String LATENCY_METRIC = "blog.comments.write-behind.latency";
+
+    private final CommentService commentService;
+    private final ArticleRepository articleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Path journalDirectory;
+    private final int capacity;
+    private final boolean fsync;
+    private final int batchSize;
+    private final long retryAfterSeconds;
+    private final long retryDelayMillis;
+
+    // États des soumissions récentes, consultables avec leur identifiant de suivi (les plus anciennes sont oubliées)
+    private final Map<UUID, CommentSubmissionDTO> statuses;
+
+    private CommentJournal journal;
+    private Timer latency;
+    private Thread writer;
+    private volatile boolean running;
+
+    public CommentWriteBehindQueue(CommentService commentService,
+                                   ArticleRepository articleRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${blog.comments.write-behind.journal-dir:data/comment-journal}") Path journalDirectory,
+                                   @Value("${blog.comments.write-behind.capacity:10000}") int capacity,
+                                   @Value("${blog.comments.write-behind.fsync:true}") boolean fsync,
+                                   @Value("${blog.comments.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${blog.comments.write-behind.retry-after-seconds:1}") long retryAfterSeconds,
+                                   @Value("${blog.comments.write-behind.retry-delay-ms:1000}") long retryDelayMillis,
+                                   @Value("${blog.comments.write-behind.status-retention:100000}") int statusRetention) {
+        this.commentService = commentService;
+        this.articleRepository = articleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.journalDirectory = journalDirectory;
+        this.capacity = capacity;
+        this.fsync = fsync;
+        this.batchSize = batchSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.retryDelayMillis = retryDelayMillis;
+        this.statuses = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CommentSubmissionDTO> eldest) {
+                return size() > statusRetention;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        journal = CommentJournal.open(journalDirectory, objectMapper, capacity, fsync);
+        Gauge.builder(DEPTH_METRIC, journal, CommentJournal::depth)
+                .description("Commentaires acceptés pas encore enregistrés en base")
+                .register(meterRegistry);
+        Gauge.builder(LAG_METRIC, this, CommentWriteBehindQueue::lagSeconds)
+                .description("Âge de la plus ancienne soumission pas encore enregistrée")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        latency = Timer.builder(LATENCY_METRIC)
+                .description("Délai entre l'acceptation d'un commentaire et son enregistrement en base")
+                .register(meterRegistry);
+
+        running = true;
+        writer = Thread.ofPlatform().name("comment-write-behind").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        // Les soumissions restantes sont dans le journal : elles seront rejouées au prochain démarrage
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // Accepte un commentaire (déjà validé) : journalisé, il sera enregistré en base par le thread d'écriture
+    public CommentSubmissionDTO submit(Long articleId, CommentRequestDTO commentRequestDTO) {
+        CommentSubmission submission = new CommentSubmission(UUID.randomUUID(), articleId,
+                commentRequestDTO.getContenu(), commentRequestDTO.getAuteur(), LocalDateTime.now());
+        CommentSubmissionDTO status = new CommentSubmissionDTO(submission.trackingId(), articleId,
+                CommentSubmissionDTO.Status.PENDING, null, null);
+        statuses.put(submission.trackingId(), status);
+        if (!journal.offer(submission)) {
+            statuses.remove(submission.trackingId());
+            throw new WriteQueueFullException("Trop de commentaires en attente d'enregistrement. Veuillez réessayer plus tard.",
+                    retryAfterSeconds);
+        }
+        return status;
+    }
+
+    public Optional<CommentSubmissionDTO> getSubmission(UUID trackingId) {
+        return Optional.ofNullable(statuses.get(trackingId));
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = journal.oldestPendingAcceptedAt();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                List<CommentSubmission> batch = journal.poll(batchSize, 1, TimeUnit.SECONDS);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                List<CommentSubmissionDTO> results = persistWithRetry(batch);
+                journal.acknowledge(); // Après le commit seulement : un arrêt avant cette ligne rejoue le lot
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < batch.size(); i++) {
+                    statuses.put(batch.get(i).trackingId(), results.get(i));
+                    latency.record(Duration.between(batch.get(i).acceptedAt(), now));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erreur inattendue de l'écriture différée des commentaires", e);
+            }
+        }
+    }
+
+    // Base indisponible (ou toute erreur non liée aux données) : le lot est retenté, sans perdre de commentaire
+    private List<CommentSubmissionDTO> persistWithRetry(List<CommentSubmission> batch) throws InterruptedException {
+        while (true) {
+            try {
+                return persist(batch);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    throw new InterruptedException("Arrêt demandé");
+                }
+                log.warn("Enregistrement d'un lot de {} commentaire(s) impossible, nouvel essai dans {} ms",
+                        batch.size(), retryDelayMillis, e);
+                Thread.sleep(retryDelayMillis);
+            }
+        }
+    }
+
+    private List<CommentSubmissionDTO> persist(List<CommentSubmission> batch) {
+        // Articles dans l'ordre de leurs ID : les lignes des articles sont verrouillées dans le même ordre par tous les lots
+        // (voir CommentServiceImpl.addCommentsToArticle), sans interblocage entre instances
+        Map<Long, List<Integer>> positionsByArticle = new TreeMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            positionsByArticle.computeIfAbsent(batch.get(i).articleId(), id -> new ArrayList<>()).add(i);
+        }
+
+        CommentSubmissionDTO[] results = new CommentSubmissionDTO[batch.size()];
+        try {
+            // Tout le lot dans une seule transaction. L'existence des articles y est vérifiée : sur la base principale,
+            // comme les écritures (en lecture seule hors transaction, un réplica en retard ignorerait un article récent)
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> existingArticleIds = new HashSet<>(articleRepository.findExistingIds(positionsByArticle.keySet()));
+                positionsByArticle.forEach((articleId, positions) ->
+                        persistArticle(batch, articleId, positions, existingArticleIds, results));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Un article supprimé entre-temps fait échouer tout le lot : on isole alors chaque article
+            log.warn("Lot d'écriture différée rejeté par la base, enregistrement article par article", e);
+            positionsByArticle.forEach((articleId, positions) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            persistArticle(batch, articleId, positions,
+                                    new HashSet<>(articleRepository.findExistingIds(List.of(articleId))), results));
+                } catch (DataIntegrityViolationException ex) {
+                    positions.forEach(i -> results[i] = result(batch.get(i), CommentSubmissionDTO.Status.REJECTED, null,
+                            "Commentaire refusé par la base de données."));
+                }
+            });
+        }
+        return List.of(results);
+    }
+
+    private void persistArticle(List<CommentSubmission> batch, Long articleId, List<Integer> positions,
+                                Set<Long> existingArticleIds, CommentSubmissionDTO[] results) {
+        if (!existingArticleIds.contains(articleId)) {
+            positions.forEach(i -> results[i] = result(batch.get(i), CommentSubmissionDTO.Status.REJECTED, null,
+                    "Article non trouvé avec l'ID: " + articleId));
+            return;
+        }
+        List<CommentRequestDTO> requests = positions.stream()
+                .map(i -> new CommentRequestDTO(batch.get(i).contenu(), batch.get(i).auteur()))
+                .collect(Collectors.toList());
+        List<BulkCommentResultDTO> imported = commentService.addCommentsToArticle(articleId, requests);
+        for (BulkCommentResultDTO outcome : imported) {
+            CommentSubmission submission = batch.get(positions.get(outcome.getIndex()));
+            CommentSubmissionDTO.Status status = switch (outcome.getStatus()) {
+                case CREATED -> CommentSubmissionDTO.Status.CREATED;
+                case DUPLICATE -> CommentSubmissionDTO.Status.DUPLICATE;
+                case INVALID -> CommentSubmissionDTO.Status.REJECTED;
+            };
+            results[positions.get(outcome.getIndex())] = result(submission, status, outcome.getCommentId(), outcome.getMessage());
+        }
+    }
+
+    private static CommentSubmissionDTO result(CommentSubmission submission, CommentSubmissionDTO.Status status,
+                                               Long commentId, String message) {
+        return new CommentSubmissionDTO(submission.trackingId(), submission.articleId(), status, commentId, message);
+    }
+}
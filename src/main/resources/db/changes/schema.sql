@@ -0,0 +1,33 @@
+-- Boîte d'envoi (outbox) : une ligne par modification d'article ou de commentaire, écrite dans la transaction de la
+-- modification (ChangeOutbox). Table courte : ChangeRelay en retire les lignes dès qu'elles sont publiées.
+CREATE TABLE IF NOT EXISTS change_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    article_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL
+);
+
+-- Flux des modifications publiées (GET /api/v1/changes), numérotées sans trou dans l'ordre de publication
+CREATE TABLE IF NOT EXISTS change_events (
+    sequence BIGINT PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    article_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6) NOT NULL
+);
+
+-- Compactage : recherche d'un événement plus récent sur la même entité
+CREATE INDEX IF NOT EXISTS idx_change_events_entity ON change_events (entity_type, entity_id, sequence);
+
+-- Dernier numéro attribué ; la ligne est verrouillée par le relais pendant une publication (un seul relais à la fois)
+CREATE TABLE IF NOT EXISTS change_relay_state (
+    id INT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+INSERT INTO change_relay_state (id, last_sequence)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM change_relay_state WHERE id = 1);
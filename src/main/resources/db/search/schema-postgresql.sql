@@ -0,0 +1,22 @@
+-- Index de recherche plein texte des articles (titre, contenu et commentaires récents).
+-- Une ligne par article : document tsvector pondéré (A = titre, B = contenu, C = commentaires),
+-- et version de l'article au moment de l'indexation (sert à la réindexation incrémentale).
+CREATE TABLE IF NOT EXISTS article_search (
+    article_id BIGINT PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE,
+    document TSVECTOR NOT NULL,
+    indexed_version BIGINT NOT NULL
+);
+
+-- Index inversé : les requêtes "document @@ tsquery" ne lisent que les documents contenant les termes recherchés
+CREATE INDEX IF NOT EXISTS idx_article_search_document ON article_search USING GIN (document);
+
+-- État des commentaires au moment de l'indexation : un commentaire ajouté, modifié ou supprimé ne change pas la version
+-- de l'article, la réindexation incrémentale compare donc aussi le nombre de commentaires et leur dernière modification
+ALTER TABLE article_search ADD COLUMN IF NOT EXISTS indexed_comment_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE article_search ADD COLUMN IF NOT EXISTS indexed_comments_modified TIMESTAMP(6);
+
+-- Articles modifiés en attente de réindexation, marqués dans la transaction de la modification : rien n'est perdu
+-- au redémarrage. Chaque passage de l'indexation en retire un lot (partagé entre instances, FOR UPDATE SKIP LOCKED).
+CREATE TABLE IF NOT EXISTS article_search_pending (
+    article_id BIGINT PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE
+);
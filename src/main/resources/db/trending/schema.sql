@@ -0,0 +1,10 @@
+-- Dernière sauvegarde des scores de tendance (TrendingEngine) : relue au démarrage pour ne pas repartir de zéro.
+-- Une sauvegarde par instance (node_id) : chacune ne compte que ses propres événements et ne réécrit que ses lignes.
+-- score : valeur atténuée à l'instant scored_at, qui continue de décroître avec la demi-vie après relecture.
+CREATE TABLE IF NOT EXISTS article_trending_scores (
+    node_id VARCHAR(255) NOT NULL,
+    article_id BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    scored_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (node_id, article_id)
+);
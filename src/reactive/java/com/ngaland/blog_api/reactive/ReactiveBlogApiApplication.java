@@ -0,0 +1,47 @@
+package com.ngaland.blog_api.reactive;
+
+import com.ngaland.blog_api.exception.GlobalExceptionHandler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Point d'entrée du mode réactif (WebFlux sur Netty, accès à PostgreSQL par R2DBC), choisi au déploiement :
+ * le jar construit avec le profil Maven "reactive" démarre cette classe au lieu de BlogApiApplication.
+ * <p>
+ * Seul le paquet reactive est parcouru : ni JPA, ni JDBC, ni les caches de l'API servlet. Les erreurs sont
+ * traduites par le même GlobalExceptionHandler, complété par ReactiveExceptionHandler.
+ * <p>
+ * Pas de @SpringBootApplication : BlogApiApplication reste la seule configuration trouvée par les tests @SpringBootTest,
+ * et l'API servlet, dont le parcours des composants passe aussi par ce paquet, ignore ses classes (condition REACTIVE).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ComponentScan
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class
+})
+@Import(GlobalExceptionHandler.class)
+public class ReactiveBlogApiApplication {
+
+    // Profil Spring du mode réactif (application-reactive.properties)
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBlogApiApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ngaland.blog_api.reactive.config;
+
+import com.ngaland.blog_api.dto.ArticleRanking;
+import com.ngaland.blog_api.dto.ArticleView;
+import com.ngaland.blog_api.dto.CommentDirection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // Mêmes conversions que WebConfig (paramètres view, by et direction insensibles à la casse)
+        registry.addConverter(String.class, ArticleView.class, (Converter<String, ArticleView>) ArticleView::fromParameter);
+        registry.addConverter(String.class, ArticleRanking.class, (Converter<String, ArticleRanking>) ArticleRanking::fromParameter);
+        registry.addConverter(String.class, CommentDirection.class, (Converter<String, CommentDirection>) CommentDirection::fromParameter);
+    }
+
+    // Tomcat est aussi présent dans le jar (API servlet) et serait choisi en premier par Spring Boot :
+    // le mode réactif doit tourner sur Netty (quelques threads de boucle d'événements, aucun thread par connexion)
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,137 @@
+package com.ngaland.blog_api.reactive.controller;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleView;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.reactive.service.ReactiveArticleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Version réactive d'ArticleController (mêmes chemins, mêmes DTO). Les listes sont émises au fil de l'eau :
+// en application/x-ndjson un article par ligne dès qu'il est lu, en application/json un tableau écrit progressivement.
+// Hors de ce mode : ETag / Last-Modified, lecture groupée par ID, classements, export et réponses pré-compressées.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/articles") // Chemin de base pour toutes les requêtes de ce contrôleur
+@RequiredArgsConstructor
+@Tag(name = "Articles", description = "API pour la gestion des articles de blog")
+public class ReactiveArticleController {
+
+    private final ReactiveArticleService articleService;
+
+    @Operation(summary = "Crée un nouvel article de blog")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Article créé avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Requête invalide (données manquantes ou format incorrect)",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Un article avec ce titre existe déjà",
+                    content = @Content)
+    })
+    @PostMapping // Mappe les requêtes POST sur ce chemin
+    public Mono<ResponseEntity<ArticleResponseDTO>> createArticle(
+            @Valid @RequestBody @Parameter(description = "Objet ArticleRequestDTO pour la création de l'article")
+            ArticleRequestDTO articleRequestDTO) {
+        return articleService.createArticle(articleRequestDTO)
+                .map(createdArticle -> new ResponseEntity<>(createdArticle, HttpStatus.CREATED)); // Retourne 201 Created
+    }
+
+    @Operation(summary = "Récupère tous les articles de blog en flux (view=summary : résumés sans contenu complet ni commentaires)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Articles émis au fur et à mesure de leur lecture (ArticleResponseDTO, ou ArticleSummaryDTO avec view=summary)",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class)),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ArticleResponseDTO.class))
+                    }),
+            @ApiResponse(responseCode = "400", description = "Valeur de view invalide",
+                    content = @Content)
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}) // Mappe les requêtes GET sur ce chemin
+    public Flux<?> getAllArticles(
+            @Parameter(description = "Représentation des articles : full (contenu et commentaires) ou summary (titre, date, extrait, nombre de commentaires)")
+            @RequestParam(defaultValue = "full") ArticleView view) {
+        return view == ArticleView.SUMMARY
+                ? articleService.getArticleSummaries()
+                : articleService.getAllArticles();
+    }
+
+    @Operation(summary = "Récupère les articles page par page (pagination par curseur, les plus récents d'abord)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page d'articles récupérée avec succès (ArticleResponseDTO, ou ArticleSummaryDTO avec view=summary)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Curseur de pagination ou valeur de view invalide",
+                    content = @Content)
+    })
+    @GetMapping("/page") // Mappe les requêtes GET sur /articles/page
+    public Mono<? extends CursorPageDTO<?>> getArticlesPage(
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre d'articles par page (100 au maximum)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Représentation des articles : full (contenu et commentaires) ou summary (titre, date, extrait, nombre de commentaires)")
+            @RequestParam(defaultValue = "full") ArticleView view) {
+        return view == ArticleView.SUMMARY
+                ? articleService.getArticleSummariesPage(cursor, size)
+                : articleService.getArticlesPage(cursor, size);
+    }
+
+    @Operation(summary = "Récupère un article de blog par son ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Article récupéré avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content)
+    })
+    @GetMapping("/{id}") // Mappe les requêtes GET sur /articles/{id}
+    public Mono<ArticleResponseDTO> getArticleById(
+            @Parameter(description = "ID de l'article à récupérer") @PathVariable Long id) {
+        return articleService.getArticleById(id);
+    }
+
+    @Operation(summary = "Met à jour un article de blog existant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Article mis à jour avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArticleResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Requête invalide",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Un autre article avec ce titre existe déjà",
+                    content = @Content)
+    })
+    @PutMapping("/{id}") // Mappe les requêtes PUT sur /articles/{id}
+    public Mono<ArticleResponseDTO> updateArticle(
+            @Parameter(description = "ID de l'article à mettre à jour") @PathVariable Long id,
+            @Valid @RequestBody @Parameter(description = "Objet ArticleRequestDTO avec les données de mise à jour")
+            ArticleRequestDTO articleRequestDTO) {
+        return articleService.updateArticle(id, articleRequestDTO);
+    }
+
+    @Operation(summary = "Supprime un article de blog par son ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Article supprimé avec succès"),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content)
+    })
+    @DeleteMapping("/{id}") // Mappe les requêtes DELETE sur /articles/{id}
+    public Mono<ResponseEntity<Void>> deleteArticle(
+            @Parameter(description = "ID de l'article à supprimer") @PathVariable Long id) {
+        return articleService.deleteArticle(id)
+                .then(Mono.just(ResponseEntity.noContent().build())); // Retourne 204 No Content
+    }
+}
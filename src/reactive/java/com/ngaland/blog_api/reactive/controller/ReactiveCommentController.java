@@ -0,0 +1,117 @@
+package com.ngaland.blog_api.reactive.controller;
+
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.reactive.service.ReactiveCommentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Version réactive de CommentController (mêmes chemins, mêmes DTO). Le fil de commentaires est émis au fil de l'eau.
+// Hors de ce mode : écriture différée, import en masse, pages par curseur, ETag et abonnement temps réel (SSE).
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/articles/{articleId}/comments")
+@RequiredArgsConstructor
+@Tag(name = "Commentaires", description = "API pour la gestion des commentaires d'articles de blog")
+public class ReactiveCommentController {
+
+    private final ReactiveCommentService commentService;
+
+    @Operation(summary = "Ajoute un commentaire à un article spécifique")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Commentaire ajouté avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Requête invalide",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Un commentaire identique de cet auteur existe déjà sur cet article",
+                    content = @Content)
+    })
+    @PostMapping // Mappe les requêtes POST sur /articles/{articleId}/comments
+    public Mono<ResponseEntity<CommentResponseDTO>> addCommentToArticle(
+            @Parameter(description = "ID de l'article auquel ajouter le commentaire") @PathVariable Long articleId,
+            @Valid @RequestBody @Parameter(description = "Objet CommentRequestDTO pour la création du commentaire")
+            CommentRequestDTO commentRequestDTO) {
+        return commentService.addCommentToArticle(articleId, commentRequestDTO)
+                .map(createdComment -> new ResponseEntity<>(createdComment, HttpStatus.CREATED));
+    }
+
+    @Operation(summary = "Récupère en flux tous les commentaires d'un article spécifique (du plus ancien au plus récent)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Commentaires émis au fur et à mesure de leur lecture",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class)),
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CommentResponseDTO.class))
+                    }),
+            @ApiResponse(responseCode = "404", description = "Article non trouvé",
+                    content = @Content)
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}) // Mappe les requêtes GET sur /articles/{articleId}/comments
+    public Flux<CommentResponseDTO> getCommentsByArticleId(
+            @Parameter(description = "ID de l'article dont on veut récupérer les commentaires") @PathVariable Long articleId) {
+        return commentService.getCommentsByArticleId(articleId);
+    }
+
+    @Operation(summary = "Récupère un commentaire spécifique par son ID (indépendant de l'article pour cette opération)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Commentaire récupéré avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
+                    content = @Content)
+    })
+    @GetMapping("/{commentId}") // Mappe les requêtes GET sur /articles/{articleId}/comments/{commentId}
+    public Mono<CommentResponseDTO> getCommentById(
+            @Parameter(description = "ID de l'article (non utilisé ici, mais présent pour la cohérence du chemin)") @PathVariable Long articleId,
+            @Parameter(description = "ID du commentaire à récupérer") @PathVariable Long commentId) {
+        return commentService.getCommentById(commentId);
+    }
+
+    @Operation(summary = "Met à jour un commentaire existant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Commentaire mis à jour avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Requête invalide",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Un commentaire identique de cet auteur existe déjà sur cet article",
+                    content = @Content)
+    })
+    @PutMapping("/{commentId}") // Mappe les requêtes PUT sur /articles/{articleId}/comments/{commentId}
+    public Mono<CommentResponseDTO> updateComment(
+            @Parameter(description = "ID de l'article (non utilisé ici)") @PathVariable Long articleId,
+            @Parameter(description = "ID du commentaire à mettre à jour") @PathVariable Long commentId,
+            @Valid @RequestBody @Parameter(description = "Objet CommentRequestDTO avec les données de mise à jour")
+            CommentRequestDTO commentRequestDTO) {
+        return commentService.updateComment(commentId, commentRequestDTO);
+    }
+
+    @Operation(summary = "Supprime un commentaire par son ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Commentaire supprimé avec succès"),
+            @ApiResponse(responseCode = "404", description = "Commentaire non trouvé",
+                    content = @Content)
+    })
+    @DeleteMapping("/{commentId}") // Mappe les requêtes DELETE sur /articles/{articleId}/comments/{commentId}
+    public Mono<ResponseEntity<Void>> deleteComment(
+            @Parameter(description = "ID de l'article (non utilisé ici)") @PathVariable Long articleId,
+            @Parameter(description = "ID du commentaire à supprimer") @PathVariable Long commentId) {
+        return commentService.deleteComment(commentId)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ngaland.blog_api.reactive.exception;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Erreurs propres à WebFlux, traduites comme leurs équivalents servlet dans GlobalExceptionHandler.
+// Consulté avant GlobalExceptionHandler, dont le gestionnaire de toutes les exceptions répondrait 500.
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveExceptionHandler {
+
+    // Équivalent de MethodArgumentNotValidException (@Valid sur le corps de la requête)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, List<String>>> handleValidationErrors(WebExchangeBindException ex) {
+        List<String> errors = ex.getBindingResult().getFieldErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.toList());
+        Map<String, List<String>> errorResponse = new HashMap<>();
+        errorResponse.put("errors", errors);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+
+    // Corps JSON illisible ou paramètre de requête invalide (ex: ?view=inconnu, ?size=abc)
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<String> handleServerWebInputException(ServerWebInputException ex) {
+        if (ex.getMethodParameter() != null && ex.getMethodParameter().getParameterName() != null
+                && !ex.getMethodParameter().hasParameterAnnotation(RequestBody.class)) {
+            return new ResponseEntity<>("Valeur invalide pour le paramètre '" + ex.getMethodParameter().getParameterName() + "'.",
+                    HttpStatus.BAD_REQUEST); // 400 Bad Request
+        }
+        return new ResponseEntity<>("Corps de requête JSON invalide.", HttpStatus.BAD_REQUEST); // 400 Bad Request
+    }
+}
@@ -0,0 +1,39 @@
+package com.ngaland.blog_api.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Ligne de la table articles lue et écrite par R2DBC (mêmes colonnes que l'entité JPA Article, créées par l'API servlet
+// ou par bd/migrations). Pas de collection de commentaires : R2DBC ne gère pas les relations, ils sont lus à part.
+@Table("articles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleRow {
+
+    @Id
+    private Long id; // IDENTITY : null avant l'INSERT, renseigné par la base
+
+    private String titre;
+
+    private String contenu;
+
+    private LocalDateTime datePublication;
+
+    // Incrémentée par les UPDATE de ReactiveArticleRepository / ReactiveCommentRepository (pas de @Version :
+    // une sauvegarde complète de la ligne écraserait les compteurs de commentaires modifiés entre-temps)
+    private Long version;
+
+    private LocalDateTime dateModification;
+
+    private Long commentCount;
+
+    private LocalDateTime lastCommentAt;
+
+    private LocalDateTime deletedAt; // null tant que l'article n'est pas supprimé (suppression logique)
+}
@@ -0,0 +1,37 @@
+package com.ngaland.blog_api.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Ligne de la table commentaires lue et écrite par R2DBC (mêmes colonnes que l'entité JPA Comment)
+@Table("commentaires")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentRow {
+
+    // Pris dans la séquence commentaires_id_seq avant l'INSERT (ReactiveCommentRepository.nextId)
+    @Id
+    private Long id;
+
+    private String contenu;
+
+    private String auteur;
+
+    private String fingerprint; // CommentFingerprint.of(auteur, contenu), recalculée à chaque écriture
+
+    private LocalDateTime dateCommentaire;
+
+    private Long threadPosition; // Voir Comment.threadPosition
+
+    private Long version;
+
+    private LocalDateTime dateModification;
+
+    private Long articleId;
+}
@@ -0,0 +1,87 @@
+package com.ngaland.blog_api.reactive.repository;
+
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.reactive.model.ArticleRow;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Équivalent R2DBC de ArticleRepository : mêmes requêtes, écrites en SQL (pas de JPQL ni de @SQLRestriction ici,
+// la condition "deleted_at IS NULL" des articles supprimés figure donc dans chaque requête)
+public interface ReactiveArticleRepository extends R2dbcRepository<ArticleRow, Long> {
+
+    @Query("SELECT * FROM articles WHERE id = :id AND deleted_at IS NULL")
+    Mono<ArticleRow> findActiveById(Long id);
+
+    @Query("SELECT EXISTS (SELECT 1 FROM articles WHERE id = :id AND deleted_at IS NULL)")
+    Mono<Boolean> existsActiveById(Long id);
+
+    @Query("SELECT * FROM articles WHERE titre = :titre AND deleted_at IS NULL")
+    Mono<ArticleRow> findActiveByTitre(String titre);
+
+    // Lot suivant de la liste complète des articles, parcourue par ID croissant (clé primaire, sans OFFSET)
+    @Query("SELECT * FROM articles WHERE deleted_at IS NULL AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<ArticleRow> findBatchAfter(Long afterId, int limit);
+
+    // Projection résumé (voir ArticleRepository.SUMMARY_SELECT) : colonnes nommées comme les propriétés d'ArticleSummaryDTO
+    String SUMMARY_SELECT = "SELECT id, titre, date_publication, SUBSTRING(contenu, 1, " + ArticleRepository.EXCERPT_LENGTH + ") AS extrait, " +
+            "comment_count, last_comment_at FROM articles WHERE deleted_at IS NULL ";
+
+    // Position strictement après le curseur (date_publication, id), comme ArticleRepository.findPageAfter
+    String AFTER_CURSOR = "AND (date_publication < :datePublication OR (date_publication = :datePublication AND id < :id)) ";
+
+    String PAGE_ORDER = "ORDER BY date_publication DESC, id DESC ";
+
+    // Tous les résumés en une requête, lus au rythme du client : le driver ne lit les lignes suivantes
+    // que lorsqu'elles sont demandées
+    @Query(SUMMARY_SELECT + PAGE_ORDER)
+    Flux<ArticleSummaryDTO> findAllSummaries();
+
+    @Query("SELECT * FROM articles WHERE deleted_at IS NULL " + PAGE_ORDER + "LIMIT :limit")
+    Flux<ArticleRow> findFirstPage(int limit);
+
+    @Query("SELECT * FROM articles WHERE deleted_at IS NULL " + AFTER_CURSOR + PAGE_ORDER + "LIMIT :limit")
+    Flux<ArticleRow> findPageAfter(LocalDateTime datePublication, Long id, int limit);
+
+    @Query(SUMMARY_SELECT + PAGE_ORDER + "LIMIT :limit")
+    Flux<ArticleSummaryDTO> findSummaryFirstPage(int limit);
+
+    @Query(SUMMARY_SELECT + AFTER_CURSOR + PAGE_ORDER + "LIMIT :limit")
+    Flux<ArticleSummaryDTO> findSummaryPageAfter(LocalDateTime datePublication, Long id, int limit);
+
+    // Modification du titre et du contenu seulement : les compteurs de commentaires ne sont jamais réécrits
+    @Modifying
+    @Query("UPDATE articles SET titre = :titre, contenu = :contenu, version = version + 1, date_modification = :dateModification " +
+            "WHERE id = :id AND deleted_at IS NULL")
+    Mono<Integer> updateContent(Long id, String titre, String contenu, LocalDateTime dateModification);
+
+    // Voir ArticleRepository.recordCommentsAdded (un commentaire à la fois en mode réactif) : réserve aussi la position
+    // du commentaire déjà inséré, dernière instruction sur la ligne de l'article avant le commit
+    @Modifying
+    @Query("UPDATE articles SET comment_count = comment_count + 1, last_thread_position = last_thread_position + 1, " +
+            "last_comment_at = CASE WHEN last_comment_at IS NULL OR last_comment_at < :commentedAt THEN :commentedAt ELSE last_comment_at END, " +
+            "date_modification = :commentedAt WHERE id = :id")
+    Mono<Integer> recordCommentAdded(Long id, LocalDateTime commentedAt);
+
+    // Position réservée par recordCommentAdded, lue dans la même transaction (voir CommentPositionRepository)
+    @Query("SELECT last_thread_position FROM articles WHERE id = :id")
+    Mono<Long> findLastThreadPosition(Long id);
+
+    // Voir ArticleRepository.recordCommentRemoved
+    @Modifying
+    @Query("UPDATE articles SET comment_count = CASE WHEN comment_count > 0 THEN comment_count - 1 ELSE 0 END, " +
+            "last_comment_at = (SELECT MAX(c.date_commentaire) FROM commentaires c WHERE c.article_id = articles.id), " +
+            "date_modification = :dateModification WHERE id = :id")
+    Mono<Integer> recordCommentRemoved(Long id, LocalDateTime dateModification);
+
+    // Suppression logique, purgée ensuite par ArticlePurger (voir ArticleRepository.markDeleted)
+    @Modifying
+    @Query("UPDATE articles SET deleted_at = :deletedAt, version = version + 1, date_modification = :deletedAt " +
+            "WHERE id = :id AND deleted_at IS NULL")
+    Mono<Integer> markDeleted(Long id, LocalDateTime deletedAt);
+}
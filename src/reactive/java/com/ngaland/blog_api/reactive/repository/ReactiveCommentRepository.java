@@ -0,0 +1,42 @@
+package com.ngaland.blog_api.reactive.repository;
+
+import com.ngaland.blog_api.reactive.model.CommentRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Équivalent R2DBC de CommentRepository
+public interface ReactiveCommentRepository extends R2dbcRepository<CommentRow, Long> {
+
+    // Identifiant du prochain commentaire. La séquence avance de 50 à chaque appel (optimiseur "pooled" de Hibernate,
+    // voir Comment) : la valeur lue n'est jamais dans un bloc d'ID alloué par l'API servlet, on peut l'utiliser telle quelle.
+    @Query("SELECT nextval('commentaires_id_seq')")
+    Mono<Long> nextId();
+
+    // Commentaire visible : son article n'est pas supprimé (voir Comment @SQLRestriction)
+    @Query("SELECT c.* FROM commentaires c WHERE c.id = :id " +
+            "AND NOT EXISTS (SELECT 1 FROM articles a WHERE a.id = c.article_id AND a.deleted_at IS NOT NULL)")
+    Mono<CommentRow> findVisibleById(Long id);
+
+    // Fil de commentaires d'un article, servi par l'index idx_commentaires_article_date_id et émis au rythme du client
+    Flux<CommentRow> findByArticleIdOrderByDateCommentaireAscIdAsc(Long articleId);
+
+    // Commentaires de plusieurs articles en une seule requête IN (listes d'articles)
+    Flux<CommentRow> findByArticleIdInOrderByDateCommentaireAscIdAsc(Collection<Long> articleIds);
+
+    // Position dans le fil, inscrite après l'INSERT une fois réservée (voir CommentPositionRepository)
+    @Modifying
+    @Query("UPDATE commentaires SET thread_position = :position WHERE id = :id")
+    Mono<Integer> assignThreadPosition(Long id, Long position);
+
+    // Modification du contenu seulement (l'article et la date du commentaire ne changent pas)
+    @Modifying
+    @Query("UPDATE commentaires SET contenu = :contenu, auteur = :auteur, fingerprint = :fingerprint, " +
+            "version = version + 1, date_modification = :dateModification WHERE id = :id")
+    Mono<Integer> updateContent(Long id, String contenu, String auteur, String fingerprint, LocalDateTime dateModification);
+}
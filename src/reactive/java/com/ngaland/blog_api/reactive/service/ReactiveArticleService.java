@@ -0,0 +1,20 @@
+package com.ngaland.blog_api.reactive.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Version réactive d'ArticleService : mêmes opérations et mêmes DTO, résultats en Mono / Flux
+public interface ReactiveArticleService {
+    Mono<ArticleResponseDTO> createArticle(ArticleRequestDTO articleRequestDTO);
+    Flux<ArticleResponseDTO> getAllArticles();
+    Flux<ArticleSummaryDTO> getArticleSummaries();
+    Mono<CursorPageDTO<ArticleResponseDTO>> getArticlesPage(String cursor, int size);
+    Mono<CursorPageDTO<ArticleSummaryDTO>> getArticleSummariesPage(String cursor, int size);
+    Mono<ArticleResponseDTO> getArticleById(Long id);
+    Mono<ArticleResponseDTO> updateArticle(Long id, ArticleRequestDTO articleRequestDTO);
+    Mono<Void> deleteArticle(Long id);
+}
@@ -0,0 +1,208 @@
+package com.ngaland.blog_api.reactive.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.exception.DuplicateResourceException;
+import com.ngaland.blog_api.reactive.model.ArticleRow;
+import com.ngaland.blog_api.reactive.model.CommentRow;
+import com.ngaland.blog_api.reactive.repository.ReactiveArticleRepository;
+import com.ngaland.blog_api.reactive.repository.ReactiveCommentRepository;
+import com.ngaland.blog_api.util.KeysetCursor;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveArticleServiceImpl implements ReactiveArticleService {
+
+    // Taille maximale d'une page d'articles (comme ArticleServiceImpl)
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Nombre d'articles lus (puis complétés par une requête IN sur leurs commentaires) à chaque étape du flux de GET /articles
+    static final int STREAM_BATCH_SIZE = 100;
+
+    private final ReactiveArticleRepository articleRepository;
+    private final ReactiveCommentRepository commentRepository;
+
+    private CommentResponseDTO convertCommentToDto(CommentRow comment) {
+        return new CommentResponseDTO(
+                comment.getId(),
+                comment.getContenu(),
+                comment.getAuteur(),
+                comment.getDateCommentaire(),
+                comment.getArticleId(),
+                comment.getThreadPosition()
+        );
+    }
+
+    private ArticleResponseDTO convertToDto(ArticleRow article, List<CommentResponseDTO> commentaires) {
+        return new ArticleResponseDTO(
+                article.getId(),
+                article.getTitre(),
+                article.getContenu(),
+                article.getDatePublication(),
+                article.getVersion(),
+                commentaires
+        );
+    }
+
+    // Article et son fil de commentaires (deux requêtes successives)
+    private Mono<ArticleResponseDTO> withComments(ArticleRow article) {
+        return commentRepository.findByArticleIdOrderByDateCommentaireAscIdAsc(article.getId())
+                .map(this::convertCommentToDto)
+                .collectList()
+                .map(commentaires -> convertToDto(article, commentaires));
+    }
+
+    // Lot d'articles complété par les commentaires de tous ses articles en une seule requête IN (pas de N+1)
+    private Mono<List<ArticleResponseDTO>> withComments(List<ArticleRow> articles) {
+        if (articles.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<Long> articleIds = articles.stream().map(ArticleRow::getId).collect(Collectors.toList());
+        return commentRepository.findByArticleIdInOrderByDateCommentaireAscIdAsc(articleIds)
+                .map(this::convertCommentToDto)
+                .collect(Collectors.groupingBy(CommentResponseDTO::getArticleId))
+                .map(commentsByArticleId -> articles.stream()
+                        .map(article -> convertToDto(article, commentsByArticleId.getOrDefault(article.getId(), List.of())))
+                        .collect(Collectors.toList()));
+    }
+
+    // Dates tronquées à la microseconde, la précision de PostgreSQL : la date renvoyée au client (et les curseurs
+    // construits à partir d'elle) est celle qui sera relue en base
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    @Transactional
+    public Mono<ArticleResponseDTO> createArticle(ArticleRequestDTO articleRequestDTO) {
+        // Vérification des doublons de titre ; deux créations simultanées sont départagées par l'index unique (409)
+        return articleRepository.findActiveByTitre(articleRequestDTO.getTitre())
+                .flatMap(existing -> Mono.<ArticleRow>error(new DuplicateResourceException(
+                        "Un article avec ce titre existe déjà: " + articleRequestDTO.getTitre())))
+                .switchIfEmpty(Mono.defer(() -> {
+                    LocalDateTime now = now();
+                    ArticleRow article = new ArticleRow(null, articleRequestDTO.getTitre(), articleRequestDTO.getContenu(),
+                            now, 0L, now, 0L, null, null);
+                    return articleRepository.save(article);
+                }))
+                .map(savedArticle -> convertToDto(savedArticle, List.of()));
+    }
+
+    @Override
+    // Pas de transaction : elle resterait ouverte tant que le client lit la réponse.
+    // Les articles sont lus par lots successifs sur l'ID (keyset) : un lot n'est lu, avec les commentaires de ses articles,
+    // que lorsque le client a consommé le précédent, et aucune connexion n'est gardée pendant l'envoi d'un lot.
+    public Flux<ArticleResponseDTO> getAllArticles() {
+        return loadBatchAfter(0L)
+                .expand(batch -> batch.size() < STREAM_BATCH_SIZE
+                        ? Mono.empty()
+                        : loadBatchAfter(batch.get(batch.size() - 1).getId()))
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<ArticleResponseDTO>> loadBatchAfter(Long afterId) {
+        return articleRepository.findBatchAfter(afterId, STREAM_BATCH_SIZE)
+                .collectList()
+                .flatMap(this::withComments);
+    }
+
+    @Override
+    // Une seule requête, sans commentaires : les lignes sont lues au rythme du client
+    public Flux<ArticleSummaryDTO> getArticleSummaries() {
+        return articleRepository.findAllSummaries();
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ArticleResponseDTO>> getArticlesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Un article de plus que la taille de page pour savoir s'il existe une page suivante
+        Flux<ArticleRow> rows = cursor == null || cursor.isBlank()
+                ? articleRepository.findFirstPage(pageSize + 1)
+                : decode(cursor).flatMapMany(position -> articleRepository.findPageAfter(position.date(), position.id(), pageSize + 1));
+
+        return rows.collectList()
+                .map(articles -> toCursorPage(articles, pageSize,
+                        article -> new KeysetCursor(article.getDatePublication(), article.getId())))
+                .flatMap(page -> withComments(page.getItems())
+                        .map(items -> new CursorPageDTO<>(items, page.getNextCursor(), page.isHasNext())));
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ArticleSummaryDTO>> getArticleSummariesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Flux<ArticleSummaryDTO> rows = cursor == null || cursor.isBlank()
+                ? articleRepository.findSummaryFirstPage(pageSize + 1)
+                : decode(cursor).flatMapMany(position -> articleRepository.findSummaryPageAfter(position.date(), position.id(), pageSize + 1));
+
+        // Même ordre et même curseur que les pages complètes
+        return rows.collectList()
+                .map(summaries -> toCursorPage(summaries, pageSize,
+                        summary -> new KeysetCursor(summary.getDatePublication(), summary.getId())));
+    }
+
+    // Un curseur illisible donne une InvalidCursorException (400), émise dans le flux de la réponse
+    private static Mono<KeysetCursor> decode(String cursor) {
+        return Mono.fromCallable(() -> KeysetCursor.decode(cursor));
+    }
+
+    // Découpe les pageSize + 1 lignes lues en une page et, s'il reste une ligne, le curseur de la page suivante
+    private static <T> CursorPageDTO<T> toCursorPage(List<T> rows, int pageSize, Function<T, KeysetCursor> positionOf) {
+        boolean hasNext = rows.size() > pageSize;
+        String nextCursor = null;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = positionOf.apply(rows.get(rows.size() - 1)).encode();
+        }
+        return new CursorPageDTO<>(rows, nextCursor, hasNext);
+    }
+
+    @Override
+    public Mono<ArticleResponseDTO> getArticleById(Long id) {
+        return articleRepository.findActiveById(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id)))
+                .flatMap(this::withComments);
+    }
+
+    @Override
+    @Transactional
+    public Mono<ArticleResponseDTO> updateArticle(Long id, ArticleRequestDTO articleRequestDTO) {
+        return articleRepository.findActiveById(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id)))
+                // Titre unique, sauf si l'article trouvé est celui qu'on modifie
+                .flatMap(existingArticle -> articleRepository.findActiveByTitre(articleRequestDTO.getTitre())
+                        .filter(articleWithSameTitle -> !articleWithSameTitle.getId().equals(id))
+                        .flatMap(articleWithSameTitle -> Mono.<Integer>error(new DuplicateResourceException(
+                                "Un autre article avec ce titre existe déjà: " + articleRequestDTO.getTitre())))
+                        .switchIfEmpty(Mono.defer(() -> articleRepository.updateContent(
+                                id, articleRequestDTO.getTitre(), articleRequestDTO.getContenu(), now()))))
+                .then(Mono.defer(() -> articleRepository.findActiveById(id)))
+                .flatMap(this::withComments);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteArticle(Long id) {
+        // Suppression logique, comme ArticleServiceImpl : ArticlePurger (API servlet) purge ensuite les commentaires
+        return articleRepository.markDeleted(id, now())
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + id)))
+                .then();
+    }
+}
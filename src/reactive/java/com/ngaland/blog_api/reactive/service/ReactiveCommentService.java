@@ -0,0 +1,15 @@
+package com.ngaland.blog_api.reactive.service;
+
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Version réactive de CommentService : mêmes opérations et mêmes DTO, résultats en Mono / Flux
+public interface ReactiveCommentService {
+    Mono<CommentResponseDTO> addCommentToArticle(Long articleId, CommentRequestDTO commentRequestDTO);
+    Flux<CommentResponseDTO> getCommentsByArticleId(Long articleId);
+    Mono<CommentResponseDTO> getCommentById(Long id);
+    Mono<CommentResponseDTO> updateComment(Long id, CommentRequestDTO commentRequestDTO);
+    Mono<Void> deleteComment(Long id);
+}
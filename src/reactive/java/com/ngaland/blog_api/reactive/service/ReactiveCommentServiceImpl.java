@@ -0,0 +1,120 @@
+package com.ngaland.blog_api.reactive.service;
+
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.reactive.model.CommentRow;
+import com.ngaland.blog_api.reactive.repository.ReactiveArticleRepository;
+import com.ngaland.blog_api.reactive.repository.ReactiveCommentRepository;
+import com.ngaland.blog_api.util.CommentFingerprint;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCommentServiceImpl implements ReactiveCommentService {
+
+    private final ReactiveCommentRepository commentRepository;
+    private final ReactiveArticleRepository articleRepository;
+    private final R2dbcEntityTemplate entityTemplate; // INSERT avec un ID déjà connu (save() ferait un UPDATE)
+
+    private CommentResponseDTO convertToDto(CommentRow comment) {
+        return new CommentResponseDTO(
+                comment.getId(),
+                comment.getContenu(),
+                comment.getAuteur(),
+                comment.getDateCommentaire(),
+                comment.getArticleId(),
+                comment.getThreadPosition()
+        );
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // Précision de PostgreSQL
+    }
+
+    private Mono<CommentRow> findVisibleComment(Long id) {
+        return commentRepository.findVisibleById(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Commentaire non trouvé avec l'ID: " + id)));
+    }
+
+    @Override
+    @Transactional
+    public Mono<CommentResponseDTO> addCommentToArticle(Long articleId, CommentRequestDTO commentRequestDTO) {
+        // Doublons rejetés par l'index unique (article_id, fingerprint) au moment de l'INSERT (409 via GlobalExceptionHandler).
+        return articleRepository.existsActiveById(articleId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId)))
+                .then(commentRepository.nextId())
+                .flatMap(id -> {
+                    LocalDateTime now = now();
+                    CommentRow comment = new CommentRow(id, commentRequestDTO.getContenu(), commentRequestDTO.getAuteur(),
+                            CommentFingerprint.of(commentRequestDTO.getAuteur(), commentRequestDTO.getContenu()),
+                            now, null, 0L, now, articleId);
+                    return entityTemplate.insert(comment);
+                })
+                // Compteur de l'article et position dans le fil, après l'INSERT : la ligne de l'article n'est verrouillée
+                // que jusqu'au commit qui suit (voir CommentServiceImpl.addCommentToArticle)
+                .flatMap(savedComment -> articleRepository.recordCommentAdded(articleId, savedComment.getDateCommentaire())
+                        .filter(updated -> updated > 0)
+                        .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId)))
+                        .then(articleRepository.findLastThreadPosition(articleId))
+                        .flatMap(position -> commentRepository.assignThreadPosition(savedComment.getId(), position)
+                                .then(Mono.fromSupplier(() -> {
+                                    savedComment.setThreadPosition(position);
+                                    return convertToDto(savedComment);
+                                }))));
+    }
+
+    @Override
+    // Fil de commentaires émis au rythme du client, sans transaction (voir ReactiveArticleServiceImpl.getAllArticles).
+    // L'existence de l'article est vérifiée avant : un fil vide ne se confond pas avec un article inexistant (404).
+    public Flux<CommentResponseDTO> getCommentsByArticleId(Long articleId) {
+        return articleRepository.existsActiveById(articleId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Article non trouvé avec l'ID: " + articleId)))
+                .thenMany(Flux.defer(() -> commentRepository.findByArticleIdOrderByDateCommentaireAscIdAsc(articleId)))
+                .map(this::convertToDto);
+    }
+
+    @Override
+    public Mono<CommentResponseDTO> getCommentById(Long id) {
+        return findVisibleComment(id).map(this::convertToDto);
+    }
+
+    @Override
+    @Transactional
+    public Mono<CommentResponseDTO> updateComment(Long id, CommentRequestDTO commentRequestDTO) {
+        return findVisibleComment(id)
+                .flatMap(existingComment -> {
+                    LocalDateTime now = now();
+                    existingComment.setContenu(commentRequestDTO.getContenu());
+                    existingComment.setAuteur(commentRequestDTO.getAuteur());
+                    existingComment.setFingerprint(CommentFingerprint.of(existingComment.getAuteur(), existingComment.getContenu()));
+                    // Doublons détectés par l'index unique (article_id, fingerprint), comme à la création.
+                    // La ligne de l'article n'est pas modifiée (voir CommentServiceImpl.updateComment).
+                    return commentRepository.updateContent(id, existingComment.getContenu(), existingComment.getAuteur(),
+                                    existingComment.getFingerprint(), now)
+                            .thenReturn(convertToDto(existingComment));
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteComment(Long id) {
+        // Le commentaire est lu pour connaître l'article dont le compteur doit être décrémenté
+        return findVisibleComment(id)
+                .flatMap(comment -> commentRepository.deleteById(id)
+                        .then(articleRepository.recordCommentRemoved(comment.getArticleId(), now())))
+                .then();
+    }
+}
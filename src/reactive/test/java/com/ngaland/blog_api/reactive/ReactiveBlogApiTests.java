@@ -0,0 +1,240 @@
+package com.ngaland.blog_api.reactive;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.reactive.service.ReactiveCommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ReactiveBlogApiApplication.class, properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles(ReactiveBlogApiApplication.PROFILE)
+@AutoConfigureWebTestClient
+class ReactiveBlogApiTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveCommentService commentService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM commentaires").then()
+                .then(databaseClient.sql("DELETE FROM articles").then())
+                .block();
+    }
+
+    private ArticleResponseDTO createArticle(String titre) {
+        return webTestClient.post().uri("/api/v1/articles")
+                .bodyValue(new ArticleRequestDTO(titre, "Contenu de " + titre))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ArticleResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private CommentResponseDTO addComment(Long articleId, String contenu) {
+        return webTestClient.post().uri("/api/v1/articles/{articleId}/comments", articleId)
+                .bodyValue(new CommentRequestDTO(contenu, "alice"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CommentResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    @Test
+    void articleLifecycle() {
+        ArticleResponseDTO created = createArticle("Article réactif");
+        assertEquals(0L, created.getVersion());
+        assertTrue(created.getCommentaires().isEmpty());
+
+        webTestClient.post().uri("/api/v1/articles")
+                .bodyValue(new ArticleRequestDTO("Article réactif", "Autre contenu"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        ArticleResponseDTO updated = webTestClient.put().uri("/api/v1/articles/{id}", created.getId())
+                .bodyValue(new ArticleRequestDTO("Article réactif modifié", "Nouveau contenu"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ArticleResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertEquals("Article réactif modifié", updated.getTitre());
+        assertEquals(1L, updated.getVersion());
+
+        webTestClient.delete().uri("/api/v1/articles/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/v1/articles/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/v1/articles/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void commentsAreCountedAndStreamedAsNdjson() {
+        Long articleId = createArticle("Article commenté").getId();
+        CommentResponseDTO first = addComment(articleId, "Premier");
+        addComment(articleId, "Second");
+        CommentResponseDTO third = addComment(articleId, "Troisième");
+
+        // Doublon (même auteur, même contenu) rejeté par l'index unique
+        webTestClient.post().uri("/api/v1/articles/{articleId}/comments", articleId)
+                .bodyValue(new CommentRequestDTO("Premier", "alice"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        webTestClient.put().uri("/api/v1/articles/{articleId}/comments/{commentId}", articleId, first.getId())
+                .bodyValue(new CommentRequestDTO("Premier, corrigé", "alice"))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/v1/articles/{articleId}/comments/{commentId}", articleId, third.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<CommentResponseDTO> thread = webTestClient.get().uri("/api/v1/articles/{articleId}/comments", articleId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CommentResponseDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertEquals(List.of("Premier, corrigé", "Second"), thread.stream().map(CommentResponseDTO::getContenu).toList());
+
+        List<ArticleSummaryDTO> summaries = webTestClient.get().uri("/api/v1/articles?view=summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ArticleSummaryDTO.class)
+                .returnResult().getResponseBody();
+        assertEquals(1, summaries.size());
+        assertEquals(2L, summaries.get(0).getCommentCount());
+        assertEquals("Contenu de Article commenté", summaries.get(0).getExtrait());
+    }
+
+    @Test
+    void fullListingCrossesStreamBatchesWithoutLosingComments() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 130; i++) { // Plus qu'un lot de ReactiveArticleServiceImpl.STREAM_BATCH_SIZE
+            ids.add(createArticle("Article " + i).getId());
+        }
+        addComment(ids.get(0), "Sur le premier lot");
+        addComment(ids.get(129), "Sur le second lot");
+
+        List<ArticleResponseDTO> articles = webTestClient.get().uri("/api/v1/articles")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ArticleResponseDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(ids, articles.stream().map(ArticleResponseDTO::getId).toList());
+        assertEquals("Sur le premier lot", articles.get(0).getCommentaires().get(0).getContenu());
+        assertEquals("Sur le second lot", articles.get(129).getCommentaires().get(0).getContenu());
+        assertTrue(articles.get(1).getCommentaires().isEmpty());
+    }
+
+    @Test
+    void pagesFollowPublicationOrderMostRecentFirst() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(0, createArticle("Article paginé " + i).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String uri = "/api/v1/articles/page?size=2" + (cursor != null ? "&cursor=" + cursor : "");
+            CursorPageDTO<ArticleResponseDTO> page = webTestClient.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(new ParameterizedTypeReference<CursorPageDTO<ArticleResponseDTO>>() { })
+                    .returnResult().getResponseBody();
+            page.getItems().forEach(article -> seen.add(article.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(ids, seen);
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        webTestClient.post().uri("/api/v1/articles")
+                .bodyValue(new ArticleRequestDTO("", ""))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors").isArray();
+        webTestClient.get().uri("/api/v1/articles?view=inconnu")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/v1/articles/page?cursor=pas-un-curseur")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/v1/articles/{articleId}/comments", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void commentsOfDeletedArticlesAreHidden() {
+        Long articleId = createArticle("Article supprimé").getId();
+        CommentResponseDTO comment = addComment(articleId, "Bientôt purgé");
+
+        webTestClient.delete().uri("/api/v1/articles/{id}", articleId).exchange().expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/v1/articles/{articleId}/comments/{commentId}", articleId, comment.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v1/articles/{articleId}/comments", articleId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void commentThreadIsEmittedOnDemand() {
+        Long articleId = createArticle("Article au fil long").getId();
+        for (int i = 0; i < 5; i++) {
+            addComment(articleId, "Commentaire " + i);
+        }
+
+        // Aucun commentaire n'est émis avant d'être demandé, puis exactement le nombre demandé
+        StepVerifier.create(commentService.getCommentsByArticleId(articleId), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(2)
+                .expectNextMatches(comment -> comment.getContenu().equals("Commentaire 0"))
+                .expectNextMatches(comment -> comment.getContenu().equals("Commentaire 1"))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,31 @@
+-- Tables de l'API servlet (créées en production par Hibernate et bd/migrations), pour les tests du mode réactif
+CREATE TABLE IF NOT EXISTS articles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    titre VARCHAR(255) NOT NULL,
+    contenu TEXT NOT NULL,
+    date_publication TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    date_modification TIMESTAMP,
+    comment_count BIGINT DEFAULT 0 NOT NULL,
+    last_comment_at TIMESTAMP,
+    last_thread_position BIGINT DEFAULT 0 NOT NULL,
+    deleted_at TIMESTAMP
+);
+
+CREATE SEQUENCE IF NOT EXISTS commentaires_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS commentaires (
+    id BIGINT PRIMARY KEY,
+    contenu TEXT NOT NULL,
+    auteur VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64),
+    date_commentaire TIMESTAMP NOT NULL,
+    thread_position BIGINT DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    date_modification TIMESTAMP,
+    article_id BIGINT NOT NULL REFERENCES articles (id),
+    CONSTRAINT uk_commentaires_article_fingerprint UNIQUE (article_id, fingerprint),
+    CONSTRAINT uk_commentaires_article_position UNIQUE (article_id, thread_position)
+);
+
+CREATE INDEX IF NOT EXISTS idx_commentaires_article_date_id ON commentaires (article_id, date_commentaire, id);
@@ -0,0 +1,46 @@
+package com.ngaland.blog_api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Génère le document OpenAPI à la construction : target/openapi.json, embarqué par le profil Maven "prod"
+// (servi en /openapi.json, springdoc étant désactivé en production)
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenApiDocumentTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void openApiDocumentIsGeneratedAtBuildTime() throws Exception {
+        String json = mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode paths = objectMapper.readTree(json).get("paths");
+        assertTrue(paths.has("/api/v1/articles/{id}"));
+        assertTrue(paths.has("/api/v1/articles/{articleId}/comments"));
+        assertTrue(paths.has("/api/v1/changes"));
+
+        Path output = Path.of("target", "openapi.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ngaland.blog_api.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticlePayloadCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(
+                new ArticleRequestDTO("Article populaire", "Un long contenu très demandé. ".repeat(500))).getId();
+    }
+
+    @Test
+    void gzipClientsReceiveThePreCompressedPayload() throws Exception {
+        MockHttpServletResponse plain = fetch(null);
+        MockHttpServletResponse gzip = fetch("gzip, deflate, br");
+
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzip.getContentAsByteArray().length < plain.getContentAsByteArray().length / 10);
+        assertArrayEquals(plain.getContentAsByteArray(), gunzip(gzip.getContentAsByteArray()));
+        assertNotEquals(plain.getHeader(HttpHeaders.ETAG), gzip.getHeader(HttpHeaders.ETAG));
+        assertTrue(gzip.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void cachedPayloadsOnlyCostTheVersionLookup() throws Exception {
+        fetch("gzip");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        fetch("gzip");
+
+        // Seule la lecture de la version (pour l'ETag) touche la base
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatesAreServedImmediately() throws Exception {
+        fetch("gzip");
+
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article populaire", "Contenu remplacé"));
+
+        JsonNode article = objectMapper.readTree(fetch(null).getContentAsByteArray());
+        assertEquals("Contenu remplacé", article.get("contenu").asText());
+    }
+
+    @Test
+    void acceptEncodingIsParsed() {
+        assertTrue(ArticlePayloadCache.acceptsGzip("gzip"));
+        assertTrue(ArticlePayloadCache.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(ArticlePayloadCache.acceptsGzip("*"));
+        assertFalse(ArticlePayloadCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ArticlePayloadCache.acceptsGzip("br, identity"));
+        assertFalse(ArticlePayloadCache.acceptsGzip(null));
+    }
+
+    private MockHttpServletResponse fetch(String acceptEncoding) throws Exception {
+        var request = get("/api/v1/articles/{id}", articleId);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
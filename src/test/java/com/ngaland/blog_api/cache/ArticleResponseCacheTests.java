@@ -0,0 +1,79 @@
+package com.ngaland.blog_api.cache;
+
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticleResponseCacheTests {
+
+    private static final Long ARTICLE_ID = 1L;
+
+    // Deux appelants concurrents du même cache (une lecture et l'invalidation d'une modification) : un gestionnaire commun
+    private ConcurrentMapCacheManager sharedCacheManager;
+    private ArticleResponseCache reader;
+    private ArticleResponseCache writer;
+
+    @BeforeEach
+    void setUp() {
+        sharedCacheManager = new ConcurrentMapCacheManager();
+        reader = new ArticleResponseCache(sharedCacheManager);
+        writer = new ArticleResponseCache(sharedCacheManager);
+    }
+
+    private static ArticleResponseDTO article(String titre) {
+        return new ArticleResponseDTO(ARTICLE_ID, titre, "Contenu", LocalDateTime.now(), 0L, List.of());
+    }
+
+    @Test
+    void readsAreLoadedOnceThenServedFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        reader.get(ARTICLE_ID, () -> { loads.incrementAndGet(); return article("Titre"); });
+        reader.get(ARTICLE_ID, () -> { loads.incrementAndGet(); return article("Titre"); });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aReadThatOverlapsAnInvalidationIsNotCached() {
+        // La lecture charge l'ancienne version ; la modification est validée et invalidée avant la mise en cache
+        ArticleResponseDTO stale = reader.get(ARTICLE_ID, () -> {
+            ArticleResponseDTO oldVersion = article("Ancien titre");
+            writer.invalidate(ARTICLE_ID);
+            return oldVersion;
+        });
+
+        assertEquals("Ancien titre", stale.getTitre());
+        assertNull(reader.get(ARTICLE_ID));
+        assertEquals("Nouveau titre", reader.get(ARTICLE_ID, () -> article("Nouveau titre")).getTitre());
+        assertEquals("Nouveau titre", writer.get(ARTICLE_ID).getTitre());
+    }
+
+    @Test
+    void anInvalidationIsSeenByLaterReads() {
+        reader.get(ARTICLE_ID, () -> article("Ancien titre"));
+        assertEquals("Ancien titre", writer.get(ARTICLE_ID).getTitre());
+
+        writer.invalidate(ARTICLE_ID);
+
+        assertNull(reader.get(ARTICLE_ID));
+        assertEquals("Nouveau titre", reader.get(ARTICLE_ID, () -> article("Nouveau titre")).getTitre());
+    }
+
+    @Test
+    void nothingIsCachedWithoutTheInvalidationCache() {
+        ConcurrentMapCacheManager articlesOnly = new ConcurrentMapCacheManager("articles");
+        ArticleResponseCache cache = new ArticleResponseCache(articlesOnly);
+
+        cache.get(ARTICLE_ID, () -> article("Titre"));
+
+        assertNull(cache.get(ARTICLE_ID));
+    }
+}
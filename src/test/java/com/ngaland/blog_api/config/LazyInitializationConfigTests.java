@@ -0,0 +1,37 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.outbox.ChangeOutbox;
+import com.ngaland.blog_api.outbox.ChangeRelay;
+import com.ngaland.blog_api.service.ArticlePurger;
+import com.ngaland.blog_api.service.ChangeFeedServiceImpl;
+import com.ngaland.blog_api.trending.TrendingEngine;
+import com.ngaland.blog_api.writebehind.CommentWriteBehindQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInitializationConfigTests {
+
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.scheduledAndStartupBeans();
+
+    private boolean isEager(Class<?> beanType) {
+        return filter.isExcluded("bean", new RootBeanDefinition(beanType), beanType);
+    }
+
+    @Test
+    void scheduledAndStartupBeansAreCreatedEagerly() {
+        assertTrue(isEager(ChangeRelay.class));
+        assertTrue(isEager(TrendingEngine.class));
+        assertTrue(isEager(ArticlePurger.class));
+        assertTrue(isEager(ChangeOutbox.class)); // @PostConstruct : tables créées avant le rejeu du journal
+        assertTrue(isEager(CommentWriteBehindQueue.class));
+    }
+
+    @Test
+    void otherBeansAreCreatedOnFirstUse() {
+        assertFalse(isEager(ChangeFeedServiceImpl.class));
+        assertFalse(isEager(WebConfig.class));
+    }
+}
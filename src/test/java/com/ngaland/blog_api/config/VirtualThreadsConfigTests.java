@@ -0,0 +1,39 @@
+package com.ngaland.blog_api.config;
+
+import com.ngaland.blog_api.outbox.ChangeRelay;
+import com.ngaland.blog_api.trending.TrendingEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.lang.reflect.Modifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class VirtualThreadsConfigTests {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void platformThreadsAreTheDefault() {
+        // Threads virtuels mesurés plus lents au test de charge : activés seulement par BLOG_VIRTUAL_THREADS=true
+        assertFalse(environment.getProperty("spring.threads.virtual.enabled", Boolean.class));
+        assertInstanceOf(ThreadPoolTaskScheduler.class, taskScheduler); // SimpleAsyncTaskScheduler avec les threads virtuels
+    }
+
+    @Test
+    void scheduledDatabaseTasksDoNotHoldAMonitor() throws NoSuchMethodException {
+        // Un moniteur (synchronized) tenu pendant un appel JDBC bloquerait le thread porteur d'un thread virtuel
+        assertFalse(Modifier.isSynchronized(ChangeRelay.class.getMethod("relay").getModifiers()));
+        assertFalse(Modifier.isSynchronized(TrendingEngine.class.getMethod("refresh").getModifiers()));
+        assertFalse(Modifier.isSynchronized(TrendingEngine.class.getMethod("snapshot").getModifiers()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ngaland.blog_api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.ratelimit.ExportBulkhead;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleExportTests {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ExportBulkhead exportBulkhead;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+    }
+
+    @Test
+    void eachArticleIsWrittenOnOneLineInIdOrderWithItsComments() throws Exception {
+        // Plus de deux lots d'export (EXPORT_CHUNK_SIZE = 100)
+        List<Long> articleIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            articleIds.add(articleService.createArticle(new ArticleRequestDTO("Article " + i, "Contenu " + i)).getId());
+        }
+        Long commented = articleIds.get(150);
+        commentService.addCommentToArticle(commented, new CommentRequestDTO("Premier commentaire", "alice"));
+        commentService.addCommentToArticle(commented, new CommentRequestDTO("Deuxième commentaire", "bob"));
+
+        List<JsonNode> lines = export();
+
+        assertEquals(articleIds, lines.stream().map(line -> line.get("id").asLong()).toList());
+        assertEquals("Article 150", lines.get(150).get("titre").asText());
+        List<String> comments = new ArrayList<>();
+        lines.get(150).get("commentaires").forEach(comment -> comments.add(comment.get("contenu").asText()));
+        assertEquals(List.of("Premier commentaire", "Deuxième commentaire"), comments);
+        assertTrue(lines.get(149).get("commentaires").isEmpty());
+    }
+
+    @Test
+    void emptyTableGivesAnEmptyExport() throws Exception {
+        assertTrue(export().isEmpty());
+    }
+
+    @Test
+    void exportIsRefusedWhileTheMaximumIsRunning() throws Exception {
+        exportBulkhead.acquire();
+        exportBulkhead.acquire();
+        try {
+            mockMvc.perform(get("/api/v1/articles/export"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        } finally {
+            exportBulkhead.release();
+            exportBulkhead.release();
+        }
+        // Places rendues : l'export suivant passe, et rend la sienne une fois terminé
+        export();
+        export();
+    }
+
+    private List<JsonNode> export() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/articles/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        assertTrue(body.isEmpty() || body.endsWith("\n"));
+        return lines;
+    }
+}
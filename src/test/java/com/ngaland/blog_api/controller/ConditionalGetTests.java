@@ -0,0 +1,144 @@
+package com.ngaland.blog_api.controller;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article conditionnel", "Contenu")).getId();
+    }
+
+    private MockHttpServletResponse fetch(String path, String ifNoneMatch) throws Exception {
+        var request = get(path);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    @Test
+    void unchangedArticleIsAnsweredWith304() throws Exception {
+        MockHttpServletResponse first = fetch("/api/v1/articles/" + articleId, null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getHeader(HttpHeaders.LAST_MODIFIED);
+        assertEquals(200, first.getStatus());
+        assertNotNull(eTag);
+        assertNotNull(lastModified);
+
+        MockHttpServletResponse revalidated = fetch("/api/v1/articles/" + articleId, eTag);
+        assertEquals(304, revalidated.getStatus());
+        assertEquals(0, revalidated.getContentLength());
+        assertEquals(eTag, revalidated.getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/v1/articles/{id}", articleId).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void commentChangesChangeTheArticleAndCommentListETags() throws Exception {
+        String articlePath = "/api/v1/articles/" + articleId;
+        String commentsPath = articlePath + "/comments";
+        String articleETag = fetch(articlePath, null).getHeader(HttpHeaders.ETAG);
+        String commentsETag = fetch(commentsPath, null).getHeader(HttpHeaders.ETAG);
+        assertEquals(304, fetch(commentsPath, commentsETag).getStatus());
+
+        Long commentId = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Bravo", "alice")).getId();
+        MockHttpServletResponse afterAdd = fetch(articlePath, articleETag);
+        assertEquals(200, afterAdd.getStatus());
+        assertTrue(afterAdd.getContentAsString().contains("Bravo"));
+        assertEquals(200, fetch(commentsPath, commentsETag).getStatus());
+
+        articleETag = afterAdd.getHeader(HttpHeaders.ETAG);
+        commentsETag = fetch(commentsPath, null).getHeader(HttpHeaders.ETAG);
+        String commentETag = fetch(commentsPath + "/" + commentId, null).getHeader(HttpHeaders.ETAG);
+        assertEquals(304, fetch(commentsPath + "/" + commentId, commentETag).getStatus());
+
+        commentService.updateComment(commentId, new CommentRequestDTO("Bravo, vraiment", "alice"));
+        MockHttpServletResponse afterUpdate = fetch(articlePath, articleETag);
+        assertEquals(200, afterUpdate.getStatus());
+        assertTrue(afterUpdate.getContentAsString().contains("Bravo, vraiment"));
+        assertEquals(200, fetch(commentsPath, commentsETag).getStatus());
+        assertEquals(200, fetch(commentsPath + "/" + commentId, commentETag).getStatus());
+
+        articleETag = afterUpdate.getHeader(HttpHeaders.ETAG);
+        commentService.deleteComment(commentId);
+        MockHttpServletResponse afterDelete = fetch(articlePath, articleETag);
+        assertEquals(200, afterDelete.getStatus());
+        assertFalse(afterDelete.getContentAsString().contains("Bravo"));
+    }
+
+    @Test
+    void updateReturnsTheNewVersion() throws Exception {
+        Long versionBefore = articleService.getArticleById(articleId).getVersion();
+
+        ArticleResponseDTO updated = articleService.updateArticle(articleId, new ArticleRequestDTO("Article conditionnel modifié", "Contenu"));
+
+        assertEquals(versionBefore + 1, updated.getVersion());
+        assertEquals(updated.getVersion(), articleRepository.findById(articleId).orElseThrow().getVersion());
+        // La version renvoyée est celle de l'ETag servi ensuite pour l'article
+        String eTag = fetch("/api/v1/articles/" + articleId, null).getHeader(HttpHeaders.ETAG);
+        assertTrue(eTag.contains("-v" + updated.getVersion() + "."), eTag);
+    }
+
+    @Test
+    void commentWritesDoNotConflictWithAConcurrentArticleEdit() {
+        Long versionBefore = articleRepository.findById(articleId).orElseThrow().getVersion();
+
+        // L'article est lu par une modification, puis commenté par une autre transaction avant que la modification soit validée
+        ArticleResponseDTO updated = new TransactionTemplate(transactionManager).execute(status -> {
+            articleRepository.findById(articleId).orElseThrow();
+            CompletableFuture.runAsync(() -> commentService.addCommentToArticle(articleId, new CommentRequestDTO("Pendant la modification", "bob")))
+                    .join();
+            return articleService.updateArticle(articleId, new ArticleRequestDTO("Article conditionnel modifié", "Contenu"));
+        });
+
+        Article article = articleRepository.findById(articleId).orElseThrow();
+        assertEquals("Article conditionnel modifié", article.getTitre());
+        assertEquals(versionBefore + 1, article.getVersion());
+        assertEquals(article.getVersion(), updated.getVersion());
+        assertEquals(1L, article.getCommentCount());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ngaland.blog_api.controller;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DuplicateCommentTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article sans doublons", "Contenu")).getId();
+    }
+
+    private int submit(String auteur, String contenu) throws Exception {
+        return mockMvc.perform(post("/api/v1/articles/{articleId}/comments", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contenu\":\"" + contenu + "\",\"auteur\":\"" + auteur + "\"}"))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Test
+    void aSecondIdenticalCommentIsAConflict() throws Exception {
+        assertEquals(201, submit("alice", "Bravo"));
+
+        // Même auteur (casse et espaces ignorés) et même contenu : 409
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contenu\":\" Bravo \",\"auteur\":\"ALICE\"}"))
+                .andExpect(status().isConflict());
+        assertEquals(201, submit("bob", "Bravo"));
+
+        assertEquals(2, commentService.getCommentsByArticleId(articleId).size());
+    }
+
+    @Test
+    void concurrentIdenticalCommentsAreStoredOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> submissions = List.of(1, 2).stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                        return submit("alice", "Premier !");
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }))
+                .toList();
+        start.countDown();
+
+        List<Integer> statuses = submissions.stream().map(CompletableFuture::join).sorted().toList();
+
+        assertEquals(List.of(201, 409), statuses);
+        assertEquals(1, commentService.getCommentsByArticleId(articleId).size());
+    }
+}
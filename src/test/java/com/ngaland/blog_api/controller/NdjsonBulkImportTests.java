@@ -0,0 +1,124 @@
+package com.ngaland.blog_api.controller;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NdjsonBulkImportTests {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article importé en NDJSON", "Contenu")).getId();
+    }
+
+    private static String element(int i) {
+        return "{\"contenu\":\"Commentaire " + i + "\",\"auteur\":\"alice\"}";
+    }
+
+    private static String line(int i) {
+        return element(i) + "\n";
+    }
+
+    @Test
+    void eachLineIsImported() throws Exception {
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments/bulk", articleId)
+                        .contentType(NDJSON)
+                        .content(line(1) + line(2) + line(3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("CREATED"));
+
+        assertEquals(3, commentService.getCommentsByArticleId(articleId).size());
+    }
+
+    @Test
+    void readingStopsAtTheFirstLineBeyondTheLimit() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i <= CommentService.MAX_BULK_SIZE; i++) {
+            body.append(line(i));
+        }
+        // Ligne illisible après la ligne de trop : si le flux était lu jusqu'au bout, la réponse serait 400
+        body.append("pas du JSON\n");
+
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments/bulk", articleId)
+                        .contentType(NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertEquals(0, commentService.getCommentsByArticleId(articleId).size());
+    }
+
+    @Test
+    void jsonArrayIsImported() throws Exception {
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments/bulk", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + element(1) + "," + element(2) + "," + element(1) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].status").value("DUPLICATE"));
+
+        assertEquals(2, commentService.getCommentsByArticleId(articleId).size());
+    }
+
+    @Test
+    void jsonArrayReadingStopsAtTheFirstElementBeyondTheLimit() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i <= CommentService.MAX_BULK_SIZE; i++) {
+            body.append(element(i)).append(',');
+        }
+        // Élément illisible après l'élément de trop : si le tableau était lu jusqu'au bout, la réponse serait 400
+        body.append("pas du JSON]");
+
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments/bulk", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertEquals(0, commentService.getCommentsByArticleId(articleId).size());
+    }
+
+    @Test
+    void jsonBodyThatIsNotACompleteArrayIsRejected() throws Exception {
+        for (String body : List.of(element(1), "[" + element(1) + ",", "")) {
+            mockMvc.perform(post("/api/v1/articles/{articleId}/comments/bulk", articleId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        assertEquals(0, commentService.getCommentsByArticleId(articleId).size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ngaland.blog_api.datasource;
+
+import com.jayway.jsonpath.JsonPath;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Deux réplicas H2, copies de la base principale prises à des moments différents : chacun a son propre retard
+@SpringBootTest(properties = "blog.datasource.replica-urls=" + LaggingReplicasTests.REPLICA_A + "," + LaggingReplicasTests.REPLICA_B)
+@AutoConfigureMockMvc
+class LaggingReplicasTests {
+
+    private static final String H2_MODE = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_A = "jdbc:h2:mem:lagging_replica_a" + H2_MODE;
+    static final String REPLICA_B = "jdbc:h2:mem:lagging_replica_b" + H2_MODE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int commentNumber;
+
+    private Long comment(Long articleId) {
+        return commentService.addCommentToArticle(articleId,
+                new CommentRequestDTO("Commentaire " + commentNumber++, "lecteur")).getId();
+    }
+
+    @Test
+    void commentBodiesAreNeverOlderThanTheirETag() throws Exception {
+        Long articleId = articleService.createArticle(new ArticleRequestDTO("Article lu sur des réplicas en retard", "Contenu")).getId();
+        Long commentId = comment(articleId);
+        copyPrimaryTo(REPLICA_A); // Un commentaire
+        comment(articleId);
+        commentService.updateComment(commentId, new CommentRequestDTO("Commentaire modifié", "lecteur"));
+        copyPrimaryTo(REPLICA_B); // Deux commentaires, le premier modifié
+        comment(articleId); // Base principale : trois commentaires
+
+        // Version et contenu lus tour à tour sur l'un et l'autre réplica : le contenu doit être au moins aussi récent
+        // que l'ETag sous lequel il part, quel que soit le réplica qui a fourni la version
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletResponse comments = mockMvc.perform(get("/api/v1/articles/{articleId}/comments", articleId))
+                    .andReturn().getResponse();
+            assertEquals(200, comments.getStatus());
+            assertEquals(3, JsonPath.<List<?>>read(comments.getContentAsString(StandardCharsets.UTF_8), "$").size());
+
+            MockHttpServletResponse comment = mockMvc.perform(get("/api/v1/articles/{articleId}/comments/{commentId}", articleId, commentId))
+                    .andReturn().getResponse();
+            assertEquals(200, comment.getStatus());
+            assertEquals("Commentaire modifié", com.jayway.jsonpath.JsonPath.read(comment.getContentAsString(StandardCharsets.UTF_8), "$.contenu"));
+        }
+    }
+
+    // Remplace le contenu du réplica par une copie de la base principale à cet instant
+    private void copyPrimaryTo(String replicaUrl) throws SQLException {
+        List<String> script = jdbcTemplate.queryForList("SCRIPT", String.class);
+        try (Connection connection = DriverManager.getConnection(replicaUrl, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
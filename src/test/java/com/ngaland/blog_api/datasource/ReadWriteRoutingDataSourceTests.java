@@ -0,0 +1,90 @@
+package com.ngaland.blog_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+    private HikariDataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        // Deux bases H2 distinctes : CALL DATABASE() indique celle qui a servi la requête
+        replica = pool("replica-0", "routing_replica");
+        routingDataSource = new ReadWriteRoutingDataSource(pool("primary", "routing_primary"), List.of(replica), new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+        routingDataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndEverythingElseToThePrimary() {
+        assertEquals("ROUTING_REPLICA", readOnlyTransaction.execute(status -> database()));
+        assertEquals("ROUTING_PRIMARY", writeTransaction.execute(status -> database()));
+        assertEquals("ROUTING_PRIMARY", database()); // Hors transaction
+    }
+
+    @Test
+    void pinnedRequestsReadFromThePrimary() {
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        assertEquals("ROUTING_PRIMARY", readOnlyTransaction.execute(status -> database()));
+    }
+
+    @Test
+    void readsForACacheGoToThePrimaryWithoutUnpinningTheRequest() {
+        assertEquals("ROUTING_PRIMARY", ReadWriteRoutingDataSource.readFromPrimary(
+                () -> readOnlyTransaction.execute(status -> database())));
+        assertFalse(ReadWriteRoutingDataSource.isPinnedToPrimary());
+        assertEquals("ROUTING_REPLICA", readOnlyTransaction.execute(status -> database()));
+
+        ReadWriteRoutingDataSource.pinToPrimary();
+        ReadWriteRoutingDataSource.readFromPrimary(() -> readOnlyTransaction.execute(status -> database()));
+        assertTrue(ReadWriteRoutingDataSource.isPinnedToPrimary());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() {
+        replica.close();
+
+        assertEquals("ROUTING_PRIMARY", readOnlyTransaction.execute(status -> database()));
+        routingDataSource.checkReplicas();
+        assertEquals("ROUTING_PRIMARY", readOnlyTransaction.execute(status -> database()));
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("CALL DATABASE()", String.class).toUpperCase();
+    }
+
+    private static HikariDataSource pool(String name, String database) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+}
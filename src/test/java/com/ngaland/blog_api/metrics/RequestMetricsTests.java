@@ -0,0 +1,93 @@
+package com.ngaland.blog_api.metrics;
+
+import com.ngaland.blog_api.config.MetricsConfig;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            Long articleId = articleService.createArticle(new ArticleRequestDTO("Article mesuré " + i, "Contenu " + i)).getId();
+            commentService.addCommentToArticle(articleId, new CommentRequestDTO("Commentaire", "alice"));
+        }
+    }
+
+    // Le registre est partagé par tout le contexte (et les autres classes de test) : les mesures sont comparées
+    // avant / après la requête, sans vider le registre
+    private DistributionSummary pageStatements() {
+        return meterRegistry.find(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/articles/page")
+                .summary();
+    }
+
+    private Timer getAllArticlesTimer() {
+        return meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("class", "com.ngaland.blog_api.service.impl.ArticleServiceImpl")
+                .tag("method", "getAllArticles")
+                .timer();
+    }
+
+    @Test
+    void sqlStatementsAreCountedPerRequestAndUriTemplate() throws Exception {
+        DistributionSummary before = pageStatements();
+        long countBefore = before != null ? before.count() : 0;
+        double totalBefore = before != null ? before.totalAmount() : 0;
+
+        mockMvc.perform(get("/api/v1/articles/page").param("size", "10")).andExpect(status().isOk());
+
+        DistributionSummary statements = pageStatements();
+        assertNotNull(statements);
+        assertEquals(1, statements.count() - countBefore);
+        // Une requête pour les articles + une requête IN pour leurs commentaires
+        assertEquals(2, statements.totalAmount() - totalBefore);
+    }
+
+    @Test
+    void serviceMethodsAreTimed() {
+        Timer before = getAllArticlesTimer();
+        long countBefore = before != null ? before.count() : 0;
+
+        articleService.getAllArticles();
+
+        Timer timer = getAllArticlesTimer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count() - countBefore);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ngaland.blog_api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ChangeEventDTO;
+import com.ngaland.blog_api.dto.ChangeEventDTO.EntityType;
+import com.ngaland.blog_api.dto.ChangeFeedPageDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.ChangeEventRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Relais déclenché par les tests eux-mêmes (voir config/application.properties des tests) ; les événements des autres
+// tests (base H2 partagée) sont ignorés
+@SpringBootTest(properties = "blog.changes.batch-size=3")
+@AutoConfigureMockMvc
+class ChangeFeedTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeRelay changeRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long baseline;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        changeRelay.relay();
+        baseline = jdbcTemplate.queryForObject("SELECT last_sequence FROM change_relay_state WHERE id = 1", Long.class);
+    }
+
+    // Parcourt le flux depuis baseline, page par page, comme un client qui se synchronise
+    private List<ChangeEventDTO> readFeed(int limit) throws Exception {
+        List<ChangeEventDTO> events = new ArrayList<>();
+        long since = baseline;
+        ChangeFeedPageDTO page;
+        do {
+            String json = mockMvc.perform(get("/api/v1/changes").param("since", String.valueOf(since)).param("limit", String.valueOf(limit)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            page = objectMapper.readValue(json, ChangeFeedPageDTO.class);
+            events.addAll(page.getItems());
+            since = page.getNextSince();
+        } while (page.isHasMore());
+        return events;
+    }
+
+    @Test
+    void mutationsAreRelayedInOrderAndPaginated() throws Exception {
+        Long articleId = articleService.createArticle(new ArticleRequestDTO("Article suivi", "Contenu")).getId();
+        Long commentId = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Premier", "alice")).getId();
+        commentService.updateComment(commentId, new CommentRequestDTO("Premier, corrigé", "alice"));
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article suivi, modifié", "Contenu"));
+        commentService.deleteComment(commentId);
+        articleService.deleteArticle(articleId);
+
+        // Rien n'est visible avant le passage du relais
+        assertTrue(readFeed(100).isEmpty());
+        assertEquals(6, changeRelay.relay());
+
+        List<ChangeEventDTO> events = readFeed(2);
+        assertEquals(List.of("ARTICLE:CREATED", "COMMENT:CREATED", "COMMENT:UPDATED", "ARTICLE:UPDATED", "COMMENT:DELETED", "ARTICLE:DELETED"),
+                events.stream().map(event -> event.getEntityType() + ":" + event.getChangeType()).toList());
+        assertTrue(events.stream().allMatch(event -> event.getArticleId().equals(articleId)));
+        assertEquals(commentId, events.get(1).getEntityId());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(baseline + i + 1, events.get(i).getSequence()); // Ni trou ni doublon
+        }
+    }
+
+    @Test
+    void rolledBackMutationsAreNotPublished() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            articleService.createArticle(new ArticleRequestDTO("Article annulé", "Contenu"));
+            status.setRollbackOnly();
+        });
+        changeRelay.relay();
+
+        assertTrue(readFeed(100).isEmpty());
+        assertEquals(0, changeEventRepository.countOutbox());
+    }
+
+    @Test
+    void relayingAgainPublishesNothingTwice() throws Exception {
+        Long articleId = articleService.createArticle(new ArticleRequestDTO("Article publié une fois", "Contenu")).getId();
+        assertEquals(1, changeRelay.relay());
+        assertEquals(0, changeRelay.relay());
+
+        List<ChangeEventDTO> events = readFeed(100);
+        assertEquals(1, events.size());
+        assertEquals(articleId, events.get(0).getEntityId());
+    }
+
+    @Test
+    void concurrentRelaysOnVirtualThreadsPublishEachChangeOnce() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            articleService.createArticle(new ArticleRequestDTO("Article relayé " + i, "Contenu"));
+        }
+
+        // Les relais de l'instance s'attendent (ReentrantLock), ceux des autres instances sur change_relay_state
+        int relayed = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> relays = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                relays.add(executor.submit(changeRelay::relay));
+            }
+            for (Future<Integer> relay : relays) {
+                relayed += relay.get();
+            }
+        }
+
+        assertEquals(10, relayed);
+        List<ChangeEventDTO> events = readFeed(100);
+        assertEquals(10, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(baseline + i + 1, events.get(i).getSequence());
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestEventPerEntity() throws Exception {
+        Long kept = articleService.createArticle(new ArticleRequestDTO("Article gardé", "Contenu")).getId();
+        Long deleted = articleService.createArticle(new ArticleRequestDTO("Article supprimé", "Contenu")).getId();
+        articleService.updateArticle(kept, new ArticleRequestDTO("Article gardé, modifié", "Contenu"));
+        articleService.deleteArticle(deleted);
+        changeRelay.relay();
+        // Événements publiés avant l'horizon de compaction
+        jdbcTemplate.update("UPDATE change_events SET published_at = published_at - INTERVAL '2' DAY WHERE sequence > ?", baseline);
+
+        assertTrue(changeRelay.compact() >= 2);
+
+        List<ChangeEventDTO> events = readFeed(100);
+        assertEquals(Set.of("ARTICLE:" + kept + ":UPDATED", "ARTICLE:" + deleted + ":DELETED"),
+                Set.copyOf(events.stream().map(event -> event.getEntityType() + ":" + event.getEntityId() + ":" + event.getChangeType()).toList()));
+        assertEquals(EntityType.ARTICLE, events.get(0).getEntityType());
+        assertEquals(ChangeType.UPDATED, events.get(0).getChangeType()); // Ordre du flux conservé
+    }
+}
@@ -0,0 +1,136 @@
+package com.ngaland.blog_api.ratelimit;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.exception.RateLimitExceededException;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Période d'une heure : aucun jeton n'est rendu pendant les tests
+@SpringBootTest(properties = {
+        "blog.rate-limit.enabled=true",
+        "blog.rate-limit.limits.comment-client.capacity=3",
+        "blog.rate-limit.limits.comment-client.period=1h",
+        "blog.rate-limit.limits.comment-author.capacity=2",
+        "blog.rate-limit.limits.comment-author.period=1h",
+        "blog.rate-limit.limits.comment-article.capacity=4",
+        "blog.rate-limit.limits.comment-article.period=1h"
+})
+@AutoConfigureMockMvc
+class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article limité", "Contenu")).getId();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private ResultActions comment(String address, String auteur, String contenu) throws Exception {
+        return mockMvc.perform(post("/api/v1/articles/{articleId}/comments", articleId)
+                .with(from(address))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"contenu\":\"" + contenu + "\",\"auteur\":\"" + auteur + "\"}"));
+    }
+
+    private double rejections(RateLimit limit) {
+        return meterRegistry.get(RateLimiter.REJECTIONS_METRIC).tag("limit", limit.getPropertyName()).counter().count();
+    }
+
+    @Test
+    void clientBeyondItsLimitGets429WithRetryAfter() throws Exception {
+        double rejectedBefore = rejections(RateLimit.COMMENT_CLIENT);
+        for (int i = 0; i < 3; i++) {
+            comment("10.0.0.1", "auteur" + i, "Commentaire " + i).andExpect(status().isCreated());
+        }
+
+        String retryAfter = comment("10.0.0.1", "auteur3", "De trop")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertTrue(Long.parseLong(retryAfter) > 0);
+        assertEquals(rejectedBefore + 1, rejections(RateLimit.COMMENT_CLIENT));
+
+        // Un autre client n'est pas concerné, et les lectures ne sont jamais limitées
+        comment("10.0.0.2", "auteur4", "Autre client").andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/articles/{id}", articleId).with(from("10.0.0.1"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void authorIsLimitedWhateverItsAddress() throws Exception {
+        comment("10.0.1.1", "spammeur", "Un").andExpect(status().isCreated());
+        comment("10.0.1.2", "spammeur", "Deux").andExpect(status().isCreated());
+
+        // Même auteur, casse et espaces différents, depuis une troisième adresse
+        comment("10.0.1.3", " Spammeur ", "Trois")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void articleIsLimitedWhateverTheClients() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            comment("10.0.2." + i, "lecteur" + i, "Commentaire " + i).andExpect(status().isCreated());
+        }
+        comment("10.0.2.9", "lecteur9", "Un de trop").andExpect(status().isTooManyRequests());
+
+        // Les autres articles restent ouverts aux commentaires
+        articleId = articleService.createArticle(new ArticleRequestDTO("Autre article", "Contenu")).getId();
+        comment("10.0.2.9", "lecteur9", "Ailleurs").andExpect(status().isCreated());
+    }
+
+    @Test
+    void bulkheadRefusesWritesBeyondTheConnectionsLeftToWriters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        // Pool de 3 connexions dont 2 réservées aux lectures : une seule écriture à la fois
+        WriteBulkhead bulkhead = new WriteBulkhead(registry, 3, 2, 10, 1);
+
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.inUse());
+        RateLimitExceededException refused = assertThrows(RateLimitExceededException.class, bulkhead::acquire);
+        assertEquals(1, refused.getRetryAfterSeconds());
+        assertEquals(1, registry.get(RateLimiter.REJECTIONS_METRIC).tag("limit", WriteBulkhead.LIMIT_TAG).counter().count());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        bulkhead.release();
+        assertEquals(0, bulkhead.inUse());
+    }
+}
@@ -0,0 +1,69 @@
+package com.ngaland.blog_api.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    // 5 requêtes par seconde, d'affilée ou au rythme d'une toutes les 200 ms
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(1), 1_000, clock::get);
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void burstUpToCapacityThenWaitForTheNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.tryAcquire("client"));
+
+        advanceMillis(150);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), limiter.tryAcquire("client"));
+        advanceMillis(50);
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void refusedRequestsDoNotConsumeTokens() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client");
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire("client") > 0);
+        }
+        advanceMillis(200);
+        assertEquals(0, limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void bucketRefillsToCapacityButNotBeyond() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client");
+        }
+        advanceMillis(10_000); // Bien plus que la période : le seau est plein, sans jetons en plus
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client-a");
+        }
+        assertTrue(limiter.tryAcquire("client-a") > 0);
+        assertEquals(0, limiter.tryAcquire("client-b"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ngaland.blog_api.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.event.ChangeType;
+import com.ngaland.blog_api.event.CommentChangedEvent;
+import com.ngaland.blog_api.exception.SubscriberLimitExceededException;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import com.ngaland.blog_api.util.ThreadCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentStreamHub hub;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article suivi", "Contenu")).getId();
+    }
+
+    @Test
+    void committedCommentsArePushedToSubscribers() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/articles/{articleId}/comments/stream", articleId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, hub.subscriberCount(articleId));
+
+        CommentResponseDTO comment = commentService.addCommentToArticle(articleId, new CommentRequestDTO("En direct", "alice"));
+        commentService.deleteComment(comment.getId());
+
+        String body = awaitContent(result.getResponse(), "event:deleted");
+        assertTrue(body.contains("event:ready"));
+        assertTrue(body.contains("event:created"));
+        assertTrue(body.contains("\"contenu\":\"En direct\""));
+        // Les autres articles ne reçoivent rien
+        assertEquals(0, hub.subscriberCount(articleId + 1));
+    }
+
+    @Test
+    void unknownArticleIsRejectedBeforeSubscribing() throws Exception {
+        mockMvc.perform(get("/api/v1/articles/{articleId}/comments/stream", articleId + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void slowSubscribersAreEvicted() {
+        // Exécuteur qui ne délivre jamais rien : la file de l'abonné finit par déborder
+        CommentStreamHub slowHub = new CommentStreamHub(new InMemoryCommentEventBroker(), new ObjectMapper().findAndRegisterModules(),
+                task -> { }, 2, 60_000, 10);
+        slowHub.subscribe(1L, "v1"); // L'événement ready occupe la première place
+        slowHub.dispatch(createdEvent(1L, 10L));
+        assertEquals(1, slowHub.subscriberCount(1L));
+
+        slowHub.dispatch(createdEvent(1L, 11L));
+
+        assertEquals(0, slowHub.subscriberCount(1L));
+        assertEquals(0, slowHub.subscriberCount());
+    }
+
+    @Test
+    void subscriberLimitIsEnforced() {
+        CommentStreamHub limitedHub = new CommentStreamHub(new InMemoryCommentEventBroker(), new ObjectMapper(),
+                task -> { }, 8, 60_000, 1);
+        limitedHub.subscribe(1L, "v1");
+
+        assertThrows(SubscriberLimitExceededException.class, () -> limitedHub.subscribe(2L, "v1"));
+        assertEquals(1, limitedHub.subscriberCount());
+    }
+
+    @Test
+    void changesCommittedOnOneInstanceReachSubscribersOfAnother() throws Exception {
+        // Deux instances de l'API partageant le même broker (Redis, LISTEN/NOTIFY... en production)
+        CommentEventBroker sharedBroker = new InMemoryCommentEventBroker();
+        CommentStreamHub writerHub = standaloneHub(sharedBroker);
+        CommentStreamHub readerHub = standaloneHub(sharedBroker);
+        try {
+            MvcResult result = subscribe(readerHub, 1L);
+            assertEquals(0, writerHub.subscriberCount());
+
+            CommentStreamEvent created = createdEvent(1L, 10L);
+            writerHub.onCommentChanged(new CommentChangedEvent(1L, 10L, ChangeType.CREATED, created.comment()));
+
+            String body = awaitContent(result.getResponse(), "event:created");
+            assertTrue(body.contains("id:" + new ThreadCursor(10L).encode()));
+            assertEquals(1, readerHub.subscriberCount(1L));
+        } finally {
+            writerHub.shutdown();
+            readerHub.shutdown();
+        }
+    }
+
+    @Test
+    void heartbeatsReachEverySubscriber() throws Exception {
+        CommentStreamHub standaloneHub = standaloneHub(new InMemoryCommentEventBroker());
+        try {
+            MvcResult first = subscribe(standaloneHub, 1L);
+            MvcResult second = subscribe(standaloneHub, 2L);
+            awaitContent(first.getResponse(), "event:ready");
+            awaitContent(second.getResponse(), "event:ready");
+
+            standaloneHub.sendHeartbeats();
+
+            awaitContent(first.getResponse(), ":heartbeat");
+            awaitContent(second.getResponse(), ":heartbeat");
+            assertEquals(2, standaloneHub.subscriberCount());
+        } finally {
+            standaloneHub.shutdown();
+        }
+    }
+
+    private static CommentStreamHub standaloneHub(CommentEventBroker broker) {
+        return new CommentStreamHub(broker, new ObjectMapper().findAndRegisterModules(),
+                Executors.newVirtualThreadPerTaskExecutor(), 16, 60_000, 10);
+    }
+
+    // Abonnement HTTP à un hub construit dans le test (celui de l'application est servi par CommentController)
+    private static MvcResult subscribe(CommentStreamHub hub, Long articleId) throws Exception {
+        return MockMvcBuilders.standaloneSetup(new StreamController(hub)).build()
+                .perform(get("/stream/{articleId}", articleId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Classe imbriquée d'une classe de test : ignorée par le scan des composants (TestTypeExcludeFilter)
+    @RestController
+    static class StreamController {
+
+        private final CommentStreamHub hub;
+
+        StreamController(CommentStreamHub hub) {
+            this.hub = hub;
+        }
+
+        @GetMapping("/stream/{articleId}")
+        SseEmitter stream(@PathVariable Long articleId) {
+            return hub.subscribe(articleId, "v1");
+        }
+    }
+
+    private static CommentStreamEvent createdEvent(Long articleId, Long commentId) {
+        CommentResponseDTO comment = new CommentResponseDTO(commentId, "Bonjour", "bob", LocalDateTime.now(), articleId, commentId);
+        return new CommentStreamEvent(articleId, commentId, ChangeType.CREATED, comment);
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        assertTrue(body.contains(expected), body);
+        return body;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.config.CacheConfig;
+import com.ngaland.blog_api.dto.ArticleBatchDTO;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.exception.BulkLimitExceededException;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ArticleBatchTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Long> articleIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.ARTICLES_CACHE).clear();
+        articleIds.clear();
+        for (int i = 1; i <= 4; i++) {
+            Long id = articleService.createArticle(new ArticleRequestDTO("Article groupé " + i, "Contenu " + i)).getId();
+            commentService.addCommentToArticle(id, new CommentRequestDTO("Commentaire " + i, "alice"));
+            articleIds.add(id);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void articlesComeBackInTheRequestedOrderWithMissingIdsReported() {
+        Long unknownId = Collections.max(articleIds) + 1000;
+        List<Long> requested = List.of(articleIds.get(2), unknownId, articleIds.get(0), articleIds.get(2));
+
+        ArticleBatchDTO<ArticleResponseDTO> batch = articleService.getArticlesByIds(requested);
+
+        assertEquals(List.of(articleIds.get(2), articleIds.get(0)), batch.getItems().stream().map(ArticleResponseDTO::getId).toList());
+        assertEquals(List.of(unknownId), batch.getMissingIds());
+        batch.getItems().forEach(article -> assertEquals(1, article.getCommentaires().size()));
+        // Une requête IN pour les articles, une pour leurs commentaires
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cachedArticlesAreNotReadFromTheDatabase() {
+        articleService.getArticleById(articleIds.get(0));
+        articleService.getArticlesByIds(List.of(articleIds.get(1)));
+        statistics.clear();
+
+        ArticleBatchDTO<ArticleResponseDTO> batch = articleService.getArticlesByIds(List.of(articleIds.get(0), articleIds.get(1)));
+
+        assertEquals(2, batch.getItems().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertSame(articleService.getArticleById(articleIds.get(1)), batch.getItems().get(1));
+    }
+
+    @Test
+    void summariesUseASingleStatement() {
+        List<Long> requested = List.of(articleIds.get(3), articleIds.get(1));
+
+        ArticleBatchDTO<ArticleSummaryDTO> batch = articleService.getArticleSummariesByIds(requested);
+
+        assertEquals(requested, batch.getItems().stream().map(ArticleSummaryDTO::getId).toList());
+        batch.getItems().forEach(summary -> assertEquals(1, summary.getCommentCount()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchSizeIsCapped() {
+        List<Long> tooMany = LongStream.rangeClosed(1, 101).boxed().toList();
+        assertThrows(BulkLimitExceededException.class, () -> articleService.getArticlesByIds(tooMany));
+    }
+}
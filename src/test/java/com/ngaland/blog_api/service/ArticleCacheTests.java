@@ -0,0 +1,86 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.config.CacheConfig;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ArticleCacheTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache cache;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        cache = cacheManager.getCache(CacheConfig.ARTICLES_CACHE);
+        cache.clear();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article en cache", "Contenu initial")).getId();
+    }
+
+    @Test
+    void readsAreServedFromTheCache() {
+        ArticleResponseDTO first = articleService.getArticleById(articleId);
+
+        assertNotNull(cache.get(articleId));
+        assertSame(first, articleService.getArticleById(articleId));
+    }
+
+    @Test
+    void updateEvictsTheArticle() {
+        articleService.getArticleById(articleId);
+
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article modifié", "Nouveau contenu"));
+
+        assertNull(cache.get(articleId));
+        assertEquals("Article modifié", articleService.getArticleById(articleId).getTitre());
+    }
+
+    @Test
+    void commentMutationsEvictTheArticle() {
+        articleService.getArticleById(articleId);
+        CommentResponseDTO comment = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Bravo", "alice"));
+        assertEquals(1, articleService.getArticleById(articleId).getCommentaires().size());
+
+        commentService.updateComment(comment.getId(), new CommentRequestDTO("Bravo, vraiment", "alice"));
+        assertEquals("Bravo, vraiment", articleService.getArticleById(articleId).getCommentaires().get(0).getContenu());
+
+        commentService.deleteComment(comment.getId());
+        assertTrue(articleService.getArticleById(articleId).getCommentaires().isEmpty());
+    }
+
+    @Test
+    void deleteEvictsTheArticle() {
+        articleService.getArticleById(articleId);
+
+        articleService.deleteArticle(articleId);
+
+        assertNull(cache.get(articleId));
+        assertThrows(EntityNotFoundException.class, () -> articleService.getArticleById(articleId));
+    }
+}
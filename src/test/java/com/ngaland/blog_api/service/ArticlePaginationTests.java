@@ -0,0 +1,158 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleResponseDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.exception.InvalidCursorException;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ArticlePaginationTests {
+
+    // Taille maximale d'une page (ArticleServiceImpl.MAX_PAGE_SIZE)
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        for (int i = 1; i <= 5; i++) {
+            ArticleResponseDTO article = articleService.createArticle(
+                    new ArticleRequestDTO("Article paginé " + i, "Contenu de l'article " + i));
+            commentService.addCommentToArticle(article.getId(), new CommentRequestDTO("Premier commentaire", "alice"));
+            commentService.addCommentToArticle(article.getId(), new CommentRequestDTO("Second commentaire", "bob"));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void eachPageIsLoadedWithAFixedNumberOfStatements() {
+        List<Long> seenIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPageDTO<ArticleResponseDTO> page = articleService.getArticlesPage(cursor, 2);
+
+            // Une requête pour les articles de la page + une requête IN pour leurs commentaires, jamais plus
+            assertEquals(2, statistics.getPrepareStatementCount());
+            page.getItems().forEach(article -> {
+                assertEquals(2, article.getCommentaires().size());
+                seenIds.add(article.getId());
+            });
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasNext(), cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, seenIds.size());
+        assertEquals(5, seenIds.stream().distinct().count());
+    }
+
+    @Test
+    void pagesFollowPublicationOrderMostRecentFirst() {
+        List<Long> expected = articleService.getAllArticles().stream()
+                .sorted((a, b) -> {
+                    int byDate = b.getDatePublication().compareTo(a.getDatePublication());
+                    return byDate != 0 ? byDate : b.getId().compareTo(a.getId());
+                })
+                .map(ArticleResponseDTO::getId)
+                .toList();
+
+        CursorPageDTO<ArticleResponseDTO> first = articleService.getArticlesPage(null, 3);
+        CursorPageDTO<ArticleResponseDTO> second = articleService.getArticlesPage(first.getNextCursor(), 3);
+
+        List<Long> actual = new ArrayList<>();
+        first.getItems().forEach(article -> actual.add(article.getId()));
+        second.getItems().forEach(article -> actual.add(article.getId()));
+        assertEquals(expected, actual);
+        assertFalse(second.isHasNext());
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        // Plus d'articles que la taille maximale d'une page (5 déjà créés par setUp)
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+            Article article = new Article();
+            article.setTitre("Article en masse " + i);
+            article.setContenu("Contenu " + i);
+            articles.add(article);
+        }
+        articleRepository.saveAll(articles);
+
+        CursorPageDTO<ArticleResponseDTO> page = articleService.getArticlesPage(null, 10_000);
+        assertEquals(MAX_PAGE_SIZE, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void summaryPagesUseASingleStatementAndTheSameOrder() {
+        List<Long> fullIds = new ArrayList<>();
+        articleService.getArticlesPage(null, 5).getItems().forEach(article -> fullIds.add(article.getId()));
+
+        statistics.clear();
+        CursorPageDTO<ArticleSummaryDTO> first = articleService.getArticleSummariesPage(null, 3);
+        // Une seule requête : extrait et nombre de commentaires sont calculés par la base, sans charger d'entité
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        CursorPageDTO<ArticleSummaryDTO> second = articleService.getArticleSummariesPage(first.getNextCursor(), 3);
+
+        List<Long> summaryIds = new ArrayList<>();
+        first.getItems().forEach(summary -> summaryIds.add(summary.getId()));
+        second.getItems().forEach(summary -> summaryIds.add(summary.getId()));
+        assertEquals(fullIds, summaryIds);
+        first.getItems().forEach(summary -> {
+            assertEquals(2, summary.getCommentCount());
+            assertTrue(summary.getExtrait().startsWith("Contenu de l'article"));
+        });
+    }
+
+    @Test
+    void summaryExcerptIsTruncated() {
+        articleService.createArticle(new ArticleRequestDTO("Article long", "x".repeat(5_000)));
+
+        ArticleSummaryDTO summary = articleService.getArticleSummaries().stream()
+                .filter(s -> s.getTitre().equals("Article long"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(200, summary.getExtrait().length());
+        assertEquals(0, summary.getCommentCount());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThrows(InvalidCursorException.class, () -> articleService.getArticlesPage("pas-un-curseur", 2));
+    }
+}
@@ -0,0 +1,132 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleSearchHitDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// La recherche repose sur tsvector, absent de H2 : ces tests ne s'exécutent qu'avec une base PostgreSQL dédiée, ex :
+// mvn test -Dblog.test.postgres-url=jdbc:postgresql://localhost:5432/blog_search_test -Dblog.test.postgres-password=...
+// (les tables y sont recréées par Hibernate, ddl-auto=create-drop)
+@SpringBootTest(properties = {
+        "spring.datasource.url=${blog.test.postgres-url}",
+        "spring.datasource.username=${blog.test.postgres-username:postgres}",
+        "spring.datasource.password=${blog.test.postgres-password:}",
+        "blog.search.enabled=true",
+        "blog.search.refresh-interval-ms=3600000" // Indexation des articles en attente déclenchée par les tests
+})
+@EnabledIfSystemProperty(named = "blog.test.postgres-url", matches = ".+")
+class ArticleSearchTests {
+
+    @Autowired
+    private ArticleSearchServiceImpl articleSearchService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM article_search_pending");
+    }
+
+    private Long createArticle(String titre, String contenu) {
+        return articleService.createArticle(new ArticleRequestDTO(titre, contenu)).getId();
+    }
+
+    private List<Long> searchIds(String query) {
+        return articleSearchService.search(query, 0, 20).getResultats().stream().map(ArticleSearchHitDTO::getId).toList();
+    }
+
+    private int pendingCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM article_search_pending", Integer.class);
+    }
+
+    @Test
+    void titleMatchesRankAboveContentAboveComments() {
+        Long inComment = createArticle("Déploiement continu", "Pipeline et intégration");
+        commentService.addCommentToArticle(inComment, new CommentRequestDTO("Et avec Kubernetes ?", "alice"));
+        Long inContent = createArticle("Orchestration", "Un cluster Kubernetes en production");
+        Long inTitle = createArticle("Kubernetes pour les débutants", "Premiers pas");
+        articleSearchService.indexPendingArticles();
+
+        assertEquals(List.of(inTitle, inContent, inComment), searchIds("kubernetes"));
+    }
+
+    @Test
+    void accentedWordsMatchTheirOtherInflections() {
+        Long articleId = createArticle("Les développeurs publient", "Des articles publiés chaque semaine");
+        articleSearchService.indexPendingArticles();
+
+        // Racinisation du dictionnaire français : singulier / pluriel, participe / conjugaison
+        assertEquals(List.of(articleId), searchIds("développeur"));
+        assertEquals(List.of(articleId), searchIds("publiée"));
+        assertEquals(List.of(articleId), searchIds("\"articles publiés\""));
+        assertEquals(List.of(), searchIds("développeurs -publiés")); // Terme exclu
+        assertTrue(articleSearchService.search("semaines", 0, 20).getResultats().get(0).getExtrait().contains("<mark>"));
+    }
+
+    @Test
+    void changesAreKeptPendingInTheDatabaseUntilIndexed() {
+        Long articleId = createArticle("Titre provisoire", "Contenu");
+        assertEquals(1, pendingCount()); // Marqué dans la transaction de la création
+
+        articleSearchService.indexPendingArticles();
+        assertEquals(0, pendingCount());
+        assertEquals(List.of(articleId), searchIds("provisoire"));
+
+        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Remarque pertinente", "bob"));
+        assertEquals(1, pendingCount());
+        assertEquals(List.of(), searchIds("pertinente"));
+        articleSearchService.indexPendingArticles();
+        assertEquals(List.of(articleId), searchIds("pertinente"));
+
+        articleService.deleteArticle(articleId);
+        assertEquals(List.of(), searchIds("provisoire")); // Retiré sans attendre la réindexation
+        articleSearchService.indexPendingArticles();
+        assertEquals(List.of(), searchIds("provisoire"));
+    }
+
+    @Test
+    void incrementalReindexOnlyProcessesArticlesChangedSinceTheirIndexing() {
+        Long articleId = createArticle("Article indexé", "Contenu");
+        createArticle("Article inchangé", "Contenu");
+        jdbcTemplate.update("DELETE FROM article_search_pending"); // Seule la réindexation met l'index à jour ici
+
+        assertEquals(2, articleSearchService.reindex(false)); // Jamais indexés
+        assertEquals(0, articleSearchService.reindex(false));
+
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article indexé", "Contenu modifié"));
+        assertEquals(1, articleSearchService.reindex(false));
+
+        // Un commentaire ne change pas la version de l'article : son nombre et sa date de modification sont comparés
+        Long commentId = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Premier", "alice")).getId();
+        assertEquals(1, articleSearchService.reindex(false));
+        commentService.updateComment(commentId, new CommentRequestDTO("Premier, modifié", "alice"));
+        assertEquals(1, articleSearchService.reindex(false));
+        commentService.deleteComment(commentId);
+        assertEquals(1, articleSearchService.reindex(false));
+        assertEquals(0, articleSearchService.reindex(false));
+
+        assertEquals(2, articleSearchService.reindex(true));
+    }
+}
@@ -0,0 +1,140 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.repository.ArticlePurgeRepository;
+import com.ngaland.blog_api.repository.ArticlePurgeRepository.PurgeBacklog;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ArticleSoftDeleteTests {
+
+    private static final int COMMENT_COUNT = 250;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticlePurgeRepository purgeRepository;
+
+    @Autowired
+    private ArticlePurger articlePurger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long articleId;
+
+    private Long commentId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articlePurger.purge(); // Articles supprimés par d'autres tests
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article à supprimer", "Contenu")).getId();
+        List<CommentRequestDTO> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENT_COUNT; i++) {
+            comments.add(new CommentRequestDTO("Commentaire " + i, "auteur" + i));
+        }
+        commentService.addCommentsToArticle(articleId, comments);
+        commentId = commentService.getCommentsByArticleId(articleId).get(0).getId();
+    }
+
+    @Test
+    void deleteHidesTheArticleAndItsCommentsWithASingleStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        articleService.deleteArticle(articleId);
+
+        // Un seul UPDATE, quel que soit le nombre de commentaires
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertThrows(EntityNotFoundException.class, () -> articleService.getArticleById(articleId));
+        assertTrue(articleRepository.findById(articleId).isEmpty());
+        assertTrue(articleService.getArticleSummaries().stream().noneMatch(summary -> summary.getId().equals(articleId)));
+        assertThrows(EntityNotFoundException.class, () -> commentService.getCommentsByArticleId(articleId));
+        assertThrows(EntityNotFoundException.class, () -> commentService.getCommentById(commentId));
+        assertThrows(EntityNotFoundException.class,
+                () -> commentService.addCommentToArticle(articleId, new CommentRequestDTO("Trop tard", "alice")));
+        assertThrows(EntityNotFoundException.class, () -> articleService.deleteArticle(articleId));
+        // Les lignes ne sont pas encore supprimées
+        assertEquals(COMMENT_COUNT, countComments());
+    }
+
+    @Test
+    void titleCanBeReusedOnceTheArticleIsDeleted() {
+        articleService.deleteArticle(articleId);
+
+        Long newId = articleService.createArticle(new ArticleRequestDTO("Article à supprimer", "Nouveau contenu")).getId();
+
+        assertNotEquals(articleId, newId);
+        assertEquals(newId, articleRepository.findByTitre("Article à supprimer").orElseThrow().getId());
+    }
+
+    @Test
+    void purgeRemovesCommentsInChunksThenTheArticle() {
+        articleService.deleteArticle(articleId);
+        ArticlePurger purger = purger(100);
+
+        assertEquals(100, purger.purgeChunk(articleId));
+        assertEquals(new PurgeBacklog(1, COMMENT_COUNT - 100), purgeRepository.findBacklog());
+
+        assertEquals(1, purger.purge());
+        assertEquals(0, countComments());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM articles WHERE id = ?", Long.class, articleId));
+        assertEquals(new PurgeBacklog(0, 0), purgeRepository.findBacklog());
+    }
+
+    @Test
+    void interruptedPurgeResumesWithANewPurger() {
+        articleService.deleteArticle(articleId);
+
+        // Arrêt de l'application pendant la pause entre deux tranches
+        Thread.currentThread().interrupt();
+        boolean completed = purger(100).purgeArticle(articleId);
+        assertTrue(Thread.interrupted());
+        assertFalse(completed);
+        assertEquals(new PurgeBacklog(1, COMMENT_COUNT - 100), purgeRepository.findBacklog());
+
+        // Redémarrage : tout l'état de la purge est en base
+        assertEquals(1, purger(100).purge());
+        assertEquals(0, countComments());
+        assertEquals(new PurgeBacklog(0, 0), purgeRepository.findBacklog());
+    }
+
+    private ArticlePurger purger(int chunkSize) {
+        return new ArticlePurger(purgeRepository, transactionManager, new SimpleMeterRegistry(), chunkSize, 10);
+    }
+
+    private long countComments() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM commentaires WHERE article_id = ?", Long.class, articleId);
+    }
+}
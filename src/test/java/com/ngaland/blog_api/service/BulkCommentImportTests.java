@@ -0,0 +1,90 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BulkCommentImportTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article importé", "Contenu")).getId();
+    }
+
+    @Test
+    void reportsOneResultPerComment() {
+        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Déjà en base", "alice"));
+
+        List<BulkCommentResultDTO> results = commentService.addCommentsToArticle(articleId, List.of(
+                new CommentRequestDTO("Nouveau", "alice"),
+                new CommentRequestDTO("Déjà en base", "alice"),
+                new CommentRequestDTO("Nouveau", "alice"),
+                new CommentRequestDTO("", "bob"),
+                new CommentRequestDTO("Déjà en base", "bob")
+        ));
+
+        assertEquals(List.of(
+                BulkCommentResultDTO.Status.CREATED,
+                BulkCommentResultDTO.Status.DUPLICATE,
+                BulkCommentResultDTO.Status.DUPLICATE,
+                BulkCommentResultDTO.Status.INVALID,
+                BulkCommentResultDTO.Status.CREATED
+        ), results.stream().map(BulkCommentResultDTO::getStatus).toList());
+        assertNotNull(results.get(0).getCommentId());
+        assertNull(results.get(1).getCommentId());
+        assertEquals(3, commentRepository.findByArticleIdOrderByDateCommentaireAscIdAsc(articleId).size());
+    }
+
+    @Test
+    void insertsAreBatched() {
+        List<CommentRequestDTO> comments = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            comments.add(new CommentRequestDTO("Commentaire importé " + i, "auteur" + (i % 10)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BulkCommentResultDTO> results = commentService.addCommentsToArticle(articleId, comments);
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BulkCommentResultDTO.Status.CREATED));
+        assertEquals(1_200, commentRepository.findByArticleIdOrderByDateCommentaireAscIdAsc(articleId).size());
+        // 1 200 INSERT par lots de 50, 24 appels de séquence par blocs de 50, 3 requêtes de doublons :
+        // bien moins d'une instruction préparée par commentaire.
+        assertEquals(1_200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 100,
+                "Instructions préparées: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,159 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRanking;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.ArticleSummaryDTO;
+import com.ngaland.blog_api.dto.BulkCommentResultDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CommentCounterTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentCounterReconciler commentCounterReconciler;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article compté", "Contenu")).getId();
+    }
+
+    @Test
+    void countersFollowAddsBulkImportsAndDeletes() {
+        CommentResponseDTO first = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Premier", "alice"));
+        CommentResponseDTO second = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Second", "bob"));
+        assertEquals(2, counters().getCommentCount());
+        assertEquals(second.getDateCommentaire(), counters().getLastCommentAt());
+
+        commentService.addCommentsToArticle(articleId, List.of(
+                new CommentRequestDTO("Import 1", "carol"),
+                new CommentRequestDTO("Import 2", "carol"),
+                new CommentRequestDTO("Second", "bob"))); // Doublon : non compté
+        assertEquals(4, counters().getCommentCount());
+
+        commentService.deleteComment(first.getId());
+        assertEquals(3, counters().getCommentCount());
+
+        // Mettre à jour l'article ne doit pas écraser les compteurs
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article compté", "Contenu modifié"));
+        assertEquals(3, counters().getCommentCount());
+    }
+
+    @Test
+    void concurrentCommentersAreAllCounted() throws Exception {
+        int commenters = 8;
+        int commentsEach = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(commenters);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < commenters; t++) {
+                String auteur = "auteur" + t;
+                futures.add(executor.submit(() -> IntStream.range(0, commentsEach).forEach(i ->
+                        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Commentaire " + i, auteur)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(commenters * commentsEach, counters().getCommentCount());
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Premier", "alice"));
+        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Second", "bob"));
+        // Dérive introduite hors de l'application
+        jdbcTemplate.update("UPDATE articles SET comment_count = 42, last_comment_at = NULL WHERE id = ?", articleId);
+
+        assertEquals(1, commentCounterReconciler.reconcile());
+        assertEquals(2, counters().getCommentCount());
+        assertNotNull(counters().getLastCommentAt());
+        assertEquals(0, commentCounterReconciler.reconcile()); // Plus rien à réparer
+    }
+
+    @Test
+    void reconciliationRepairsLastCommentAtDrift() {
+        CommentResponseDTO latest = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Premier", "alice"));
+        Long empty = articleService.createArticle(new ArticleRequestDTO("Article sans commentaire", "Contenu")).getId();
+        // Compteur exact mais date fausse, et date sans aucun commentaire (compteur à 0)
+        jdbcTemplate.update("UPDATE articles SET last_comment_at = ? WHERE id = ?", latest.getDateCommentaire().minusDays(1), articleId);
+        jdbcTemplate.update("UPDATE articles SET last_comment_at = ? WHERE id = ?", latest.getDateCommentaire(), empty);
+
+        assertEquals(2, commentCounterReconciler.reconcile());
+        assertEquals(latest.getDateCommentaire(), counters().getLastCommentAt());
+        assertNull(articleRepository.findById(empty).orElseThrow().getLastCommentAt());
+        assertEquals(0, commentCounterReconciler.reconcile());
+    }
+
+    @Test
+    void bulkImportRecordsTheLatestImportedCommentDate() {
+        List<BulkCommentResultDTO> results = commentService.addCommentsToArticle(articleId, List.of(
+                new CommentRequestDTO("Import 1", "carol"),
+                new CommentRequestDTO("Import 2", "carol")));
+
+        LocalDateTime latest = results.stream()
+                .map(result -> commentRepository.findById(result.getCommentId()).orElseThrow().getDateCommentaire())
+                .max(LocalDateTime::compareTo).orElseThrow();
+        assertEquals(latest, counters().getLastCommentAt());
+        assertEquals(0, commentCounterReconciler.reconcile()); // Déjà cohérent avec MAX(dateCommentaire)
+    }
+
+    @Test
+    void rankingsFollowTheCounters() {
+        Long quiet = articleService.createArticle(new ArticleRequestDTO("Article calme", "Contenu")).getId();
+        Long busy = articleService.createArticle(new ArticleRequestDTO("Article animé", "Contenu")).getId();
+        commentService.addCommentToArticle(busy, new CommentRequestDTO("Un", "alice"));
+        commentService.addCommentToArticle(busy, new CommentRequestDTO("Deux", "bob"));
+        commentService.addCommentToArticle(articleId, new CommentRequestDTO("Dernier", "carol"));
+
+        List<Long> mostCommented = articleService.getArticleRanking(ArticleRanking.COMMENTS, 10).stream()
+                .map(ArticleSummaryDTO::getId).toList();
+        assertEquals(List.of(busy, articleId, quiet), mostCommented);
+
+        List<Long> recentlyActive = articleService.getArticleRanking(ArticleRanking.ACTIVITY, 10).stream()
+                .map(ArticleSummaryDTO::getId).toList();
+        assertEquals(List.of(articleId, busy), recentlyActive); // L'article sans commentaire n'y figure pas
+    }
+
+    private Article counters() {
+        return articleRepository.findById(articleId).orElseThrow();
+    }
+}
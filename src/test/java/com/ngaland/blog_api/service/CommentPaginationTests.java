@@ -0,0 +1,239 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentDirection;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.dto.CursorPageDTO;
+import com.ngaland.blog_api.exception.InvalidCursorException;
+import com.ngaland.blog_api.metrics.SqlStatementCounter;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.util.KeysetCursor;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+class CommentPaginationTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private Validator validator;
+
+    private TransactionTemplate transaction;
+
+    private Long articleId;
+
+    private List<Long> commentIds;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Fil de discussion", "Contenu")).getId();
+        commentIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            commentIds.add(commentService.addCommentToArticle(articleId, new CommentRequestDTO("Commentaire " + i, "alice")).getId());
+        }
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void threadIsReadOldestFirstWithOneStatementPerPage() {
+        List<Long> seenIds = new ArrayList<>();
+        String cursor = null;
+        CursorPageDTO<CommentResponseDTO> page;
+        do {
+            // Requêtes du thread du test seulement (les tâches planifiées de l'application tournent en parallèle)
+            SqlStatementCounter.start();
+            page = commentService.getCommentsPage(articleId, cursor, 2, CommentDirection.NEWER);
+            // Existence de l'article et page de commentaires en une seule requête
+            assertEquals(1, SqlStatementCounter.stop());
+            page.getItems().forEach(comment -> seenIds.add(comment.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertEquals(commentIds, seenIds);
+        assertNotNull(cursor); // Le dernier curseur sert ensuite à ne récupérer que les nouveaux commentaires
+    }
+
+    @Test
+    void newerModeReturnsOnlyNewComments() {
+        String cursor = commentService.getCommentsPage(articleId, null, 50, CommentDirection.NEWER).getNextCursor();
+
+        CursorPageDTO<CommentResponseDTO> nothingNew = commentService.getCommentsPage(articleId, cursor, 50, CommentDirection.NEWER);
+        assertTrue(nothingNew.getItems().isEmpty());
+        assertEquals(cursor, nothingNew.getNextCursor());
+
+        Long newId = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Nouveau", "bob")).getId();
+        CursorPageDTO<CommentResponseDTO> update = commentService.getCommentsPage(articleId, cursor, 50, CommentDirection.NEWER);
+        assertEquals(List.of(newId), update.getItems().stream().map(CommentResponseDTO::getId).toList());
+        assertNotEquals(cursor, update.getNextCursor());
+    }
+
+    @Test
+    void olderModeReadsMostRecentFirst() {
+        CursorPageDTO<CommentResponseDTO> first = commentService.getCommentsPage(articleId, null, 3, CommentDirection.OLDER);
+        CursorPageDTO<CommentResponseDTO> second = commentService.getCommentsPage(articleId, first.getNextCursor(), 3, CommentDirection.OLDER);
+
+        List<Long> seenIds = new ArrayList<>();
+        first.getItems().forEach(comment -> seenIds.add(comment.getId()));
+        second.getItems().forEach(comment -> seenIds.add(comment.getId()));
+        assertEquals(commentIds.reversed(), seenIds);
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void newerModeDoesNotSkipACommentCommittedLate() throws Exception {
+        String cursor = commentService.getCommentsPage(articleId, null, 50, CommentDirection.NEWER).getNextCursor();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Commentaire enregistré mais pas encore validé (date et ID antérieurs au suivant)
+            Future<?> slow = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                commentService.addCommentToArticle(articleId, new CommentRequestDTO("Validé tard", "alice"));
+                inserted.countDown();
+                await(release);
+            }));
+            assertTrue(inserted.await(5, TimeUnit.SECONDS));
+            Future<?> fast = executor.submit(() ->
+                    commentService.addCommentToArticle(articleId, new CommentRequestDTO("Validé tôt", "bob")));
+
+            // Le second ajout attend la validation du premier : le client ne peut pas avancer son curseur au-delà
+            Thread.sleep(200);
+            assertFalse(fast.isDone());
+            CursorPageDTO<CommentResponseDTO> meanwhile = commentService.getCommentsPage(articleId, cursor, 50, CommentDirection.NEWER);
+            assertTrue(meanwhile.getItems().isEmpty());
+            assertEquals(cursor, meanwhile.getNextCursor());
+
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+            fast.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        CursorPageDTO<CommentResponseDTO> update = commentService.getCommentsPage(articleId, cursor, 50, CommentDirection.NEWER);
+        assertEquals(List.of("Validé tard", "Validé tôt"), update.getItems().stream().map(CommentResponseDTO::getContenu).toList());
+        assertEquals(List.of(6L, 7L), update.getItems().stream().map(CommentResponseDTO::getPosition).toList());
+    }
+
+    @Test
+    void bulkImportTakesConsecutivePositions() {
+        commentService.addCommentsToArticle(articleId, List.of(
+                new CommentRequestDTO("Import 1", "carol"),
+                new CommentRequestDTO("Commentaire 1", "alice"), // Doublon : aucune position
+                new CommentRequestDTO("Import 2", "carol")));
+
+        List<CommentResponseDTO> thread = commentService.getCommentsPage(articleId, null, 50, CommentDirection.NEWER).getItems();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), thread.stream().map(CommentResponseDTO::getPosition).toList());
+        assertEquals("Import 2", thread.get(6).getContenu());
+    }
+
+    @Test
+    void singleCommentIsNotBlockedBehindARunningBulkImport() throws Exception {
+        CountDownLatch importing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // L'import s'arrête sur son dernier commentaire, une fois le premier lot inséré
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof CommentRequestDTO request && "Dernier import".equals(request.getContenu())) {
+                importing.countDown();
+                await(release);
+            }
+            return invocation.callRealMethod();
+        }).when(validator).validate(any());
+        List<CommentRequestDTO> imports = new ArrayList<>();
+        for (int i = 0; i < CommentServiceImpl.BULK_CHUNK_SIZE; i++) {
+            imports.add(new CommentRequestDTO("Import " + i, "carol"));
+        }
+        imports.add(new CommentRequestDTO("Dernier import", "carol"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> bulk = executor.submit(() -> commentService.addCommentsToArticle(articleId, imports));
+            assertTrue(importing.await(5, TimeUnit.SECONDS));
+
+            // La ligne de l'article n'est verrouillée qu'à la fin de l'import : l'ajout unitaire passe avant
+            CommentResponseDTO single = executor.submit(() ->
+                    commentService.addCommentToArticle(articleId, new CommentRequestDTO("Pendant l'import", "bob")))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(6L, single.getPosition());
+            assertFalse(bulk.isDone());
+
+            release.countDown();
+            bulk.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        String cursor = commentService.getCommentsPage(articleId, null, 6, CommentDirection.NEWER).getNextCursor();
+        List<CommentResponseDTO> imported = commentService.getCommentsPage(articleId, cursor, 100, CommentDirection.NEWER).getItems();
+        assertEquals("Import 0", imported.get(0).getContenu());
+        assertEquals(7L, imported.get(0).getPosition());
+        CommentResponseDTO last = commentService.getCommentsPage(articleId, null, 1, CommentDirection.OLDER).getItems().get(0);
+        assertEquals("Dernier import", last.getContenu());
+        assertEquals(CommentServiceImpl.BULK_CHUNK_SIZE + 7L, commentService.getCommentById(last.getId()).getPosition());
+    }
+
+    @Test
+    void legacyDateCursorIsRejected() {
+        String legacyCursor = new KeysetCursor(LocalDateTime.now(), commentIds.get(0)).encode();
+        assertThrows(InvalidCursorException.class,
+                () -> commentService.getCommentsPage(articleId, legacyCursor, 10, CommentDirection.NEWER));
+    }
+
+    @Test
+    void articleWithoutCommentsAndUnknownArticleAreDistinguished() {
+        Long emptyArticleId = articleService.createArticle(new ArticleRequestDTO("Article sans commentaire", "Contenu")).getId();
+
+        SqlStatementCounter.start();
+        CursorPageDTO<CommentResponseDTO> empty = commentService.getCommentsPage(emptyArticleId, null, 10, CommentDirection.NEWER);
+        assertEquals(1, SqlStatementCounter.stop());
+        assertTrue(empty.getItems().isEmpty());
+        assertFalse(empty.isHasNext());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> commentService.getCommentsPage(-1L, null, 10, CommentDirection.NEWER));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
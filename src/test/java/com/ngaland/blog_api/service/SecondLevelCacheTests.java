@@ -0,0 +1,223 @@
+package com.ngaland.blog_api.service;
+
+import com.ngaland.blog_api.datasource.ReadWriteRoutingDataSource;
+import com.ngaland.blog_api.datasource.ReplicaReadCacheModeListener;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.CommentResponseDTO;
+import com.ngaland.blog_api.model.Article;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SecondLevelCacheTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private TransactionTemplate transaction;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article en cache L2", "Contenu initial")).getId();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        loadArticle(articleId);
+        articleRepository.findByTitre("Article en cache L2");
+        statistics.clear();
+
+        Article article = loadArticle(articleId);
+        assertTrue(articleRepository.findByTitre("Article en cache L2").isPresent());
+
+        assertEquals("Contenu initial", article.getContenu());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2); // Article, puis sa collection de commentaires
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updateIsVisibleToTheNextRead() {
+        Article before = loadArticle(articleId);
+        assertTrue(articleRepository.findByTitre("Article renommé").isEmpty()); // Résultat vide mis en cache
+        statistics.clear();
+
+        articleService.updateArticle(articleId, new ArticleRequestDTO("Article renommé", "Contenu modifié"));
+        // L'article vient du cache d'entités, la vérification du titre du cache de requêtes : seuls l'UPDATE et la
+        // relecture qui remet l'article en cache après le commit (ArticleCacheInvalidator) touchent la base
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        Article after = loadArticle(articleId);
+        assertEquals("Article renommé", after.getTitre());
+        assertEquals("Contenu modifié", after.getContenu());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertTrue(articleRepository.findByTitre("Article en cache L2").isEmpty());
+        assertEquals(articleId, articleRepository.findByTitre("Article renommé").orElseThrow().getId());
+    }
+
+    @Test
+    void commentMutationsAreVisibleToTheNextRead() {
+        Article initial = loadArticle(articleId);
+
+        CommentResponseDTO comment = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Bravo", "alice"));
+        Article withComment = loadArticle(articleId);
+        assertEquals(1, withComment.getCommentaires().size());
+        assertEquals(1L, withComment.getCommentCount());
+        assertEquals(initial.getVersion(), withComment.getVersion()); // Un commentaire ne modifie pas la version de l'article
+
+        commentService.updateComment(comment.getId(), new CommentRequestDTO("Bravo, vraiment", "alice"));
+        assertEquals("Bravo, vraiment", loadArticle(articleId).getCommentaires().get(0).getContenu());
+        assertEquals("Bravo, vraiment", commentRepository.findById(comment.getId()).orElseThrow().getContenu());
+
+        commentService.deleteComment(comment.getId());
+        Article withoutComment = loadArticle(articleId);
+        assertTrue(withoutComment.getCommentaires().isEmpty());
+        assertEquals(0L, withoutComment.getCommentCount());
+        assertTrue(commentRepository.findById(comment.getId()).isEmpty());
+    }
+
+    @Test
+    void bulkImportIsVisibleToTheNextRead() {
+        loadArticle(articleId);
+
+        commentService.addCommentsToArticle(articleId, List.of(
+                new CommentRequestDTO("Premier", "alice"),
+                new CommentRequestDTO("Deuxième", "bob"),
+                new CommentRequestDTO("Troisième", "carol")));
+
+        Article article = loadArticle(articleId);
+        assertEquals(3, article.getCommentaires().size());
+        assertEquals(3L, article.getCommentCount());
+    }
+
+    @Test
+    void deletedArticleIsNoLongerFound() {
+        CommentResponseDTO comment = commentService.addCommentToArticle(articleId, new CommentRequestDTO("Bravo", "alice"));
+        loadArticle(articleId);
+        commentRepository.findById(comment.getId());
+        assertTrue(articleRepository.findByTitre("Article en cache L2").isPresent());
+
+        articleService.deleteArticle(articleId);
+
+        assertNull(loadArticle(articleId));
+        assertTrue(articleRepository.findByTitre("Article en cache L2").isEmpty());
+        assertTrue(commentRepository.findById(comment.getId()).isEmpty());
+    }
+
+    @Test
+    void concurrentReadersNeverBringBackAnOlderVersion() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(readers.submit(() -> {
+                    while (running.get()) {
+                        loadArticle(articleId);
+                    }
+                }));
+            }
+            for (int i = 1; i <= 30; i++) {
+                articleService.updateArticle(articleId, new ArticleRequestDTO("Article en cache L2", "Révision " + i));
+                // Dès la fin de la mise à jour, aucune lecture ne doit renvoyer une révision précédente
+                assertEquals("Révision " + i, loadArticle(articleId).getContenu());
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    void replicaReadsUseButDoNotPopulateTheCache() {
+        JpaTransactionManager replicaAwareManager = new JpaTransactionManager(entityManagerFactory);
+        replicaAwareManager.addListener(new ReplicaReadCacheModeListener(entityManagerFactory));
+        TransactionTemplate readOnly = new TransactionTemplate(replicaAwareManager);
+        readOnly.setReadOnly(true);
+
+        entityManagerFactory.getCache().evict(Article.class, articleId);
+        readOnly.executeWithoutResult(status -> articleRepository.findById(articleId).orElseThrow());
+        assertFalse(entityManagerFactory.getCache().contains(Article.class, articleId));
+        readOnly.executeWithoutResult(status -> articleService.getArticlesPage(null, 10));
+        assertFalse(entityManagerFactory.getCache().contains(Article.class, articleId));
+
+        loadArticle(articleId); // Transaction en écriture : l'article est mis en cache
+        statistics.clear();
+        readOnly.executeWithoutResult(status -> articleRepository.findById(articleId).orElseThrow());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void readsPinnedToThePrimaryPopulateTheCache() {
+        JpaTransactionManager replicaAwareManager = new JpaTransactionManager(entityManagerFactory);
+        replicaAwareManager.addListener(new ReplicaReadCacheModeListener(entityManagerFactory));
+        TransactionTemplate readOnly = new TransactionTemplate(replicaAwareManager);
+        readOnly.setReadOnly(true);
+
+        entityManagerFactory.getCache().evict(Article.class, articleId);
+        ReadWriteRoutingDataSource.readFromPrimary(
+                () -> readOnly.execute(status -> articleRepository.findById(articleId).orElseThrow()));
+        assertTrue(entityManagerFactory.getCache().contains(Article.class, articleId));
+    }
+
+    // Article et commentaires chargés dans une transaction (la collection est paresseuse), null si absent
+    private Article loadArticle(Long id) {
+        return transaction.execute(status -> {
+            Article article = articleRepository.findById(id).orElse(null);
+            if (article != null) {
+                Hibernate.initialize(article.getCommentaires());
+            }
+            return article;
+        });
+    }
+}
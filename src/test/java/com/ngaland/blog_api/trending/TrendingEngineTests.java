@@ -0,0 +1,201 @@
+package com.ngaland.blog_api.trending;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.dto.CommentRequestDTO;
+import com.ngaland.blog_api.dto.TrendingArticleDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.TrendingScoreRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import com.ngaland.blog_api.service.CommentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"blog.trending.view-weight=0.5", "blog.trending.node-id=node-a"})
+@AutoConfigureMockMvc
+class TrendingEngineTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private TrendingScoreRepository trendingScoreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long first;
+    private Long second;
+    private Long third;
+    private int commentNumber;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        first = articleService.createArticle(new ArticleRequestDTO("Article calme", "Contenu")).getId();
+        second = articleService.createArticle(new ArticleRequestDTO("Article très commenté", "Contenu")).getId();
+        third = articleService.createArticle(new ArticleRequestDTO("Article assez commenté", "Contenu")).getId();
+        comment(first, 1);
+        comment(second, 3);
+        comment(third, 2);
+    }
+
+    private List<Long> comment(Long articleId, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(commentService.addCommentToArticle(articleId, new CommentRequestDTO("Commentaire " + commentNumber++, "lecteur")).getId());
+        }
+        return ids;
+    }
+
+    // Classement limité aux articles du test : ceux des tests précédents, effacés sans passer par le service, restent suivis
+    private List<Long> trendingIds(TrendingEngine engine) {
+        List<Long> articleIds = List.of(first, second, third);
+        return engine.getTrending(100).stream().map(TrendingArticleDTO::getId).filter(articleIds::contains).toList();
+    }
+
+    @Test
+    void trendingIsServedFromMemoryWithoutSql() throws Exception {
+        trendingEngine.refresh();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/api/v1/articles/trending").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        List<JsonNode> ranked = new ArrayList<>();
+        body.forEach(article -> {
+            if (List.of(first, second, third).contains(article.get("id").asLong())) {
+                ranked.add(article);
+            }
+        });
+        assertEquals(List.of(second, third, first), ranked.stream().map(article -> article.get("id").asLong()).toList());
+        assertEquals("Article très commenté", ranked.get(0).get("titre").asText());
+        assertTrue(ranked.get(0).get("score").asDouble() > ranked.get(1).get("score").asDouble());
+
+        assertEquals(1, objectMapper.readTree(mockMvc.perform(get("/api/v1/articles/trending").param("limit", "1"))
+                .andReturn().getResponse().getContentAsString()).size());
+    }
+
+    @Test
+    void deletionsAndViewsMoveArticlesInTheRanking() throws Exception {
+        comment(first, 3); // 4 commentaires
+        trendingEngine.refresh();
+        assertEquals(List.of(first, second, third), trendingIds(trendingEngine));
+
+        // Six consultations (0,5 chacune) valent trois commentaires : 2 + 3 pour le troisième article
+        for (int i = 0; i < 6; i++) {
+            mockMvc.perform(get("/api/v1/articles/{id}", third)).andExpect(status().isOk());
+        }
+        trendingEngine.refresh();
+        assertEquals(List.of(third, first, second), trendingIds(trendingEngine));
+
+        articleService.deleteArticle(third);
+        trendingEngine.refresh();
+        assertEquals(List.of(first, second), trendingIds(trendingEngine));
+    }
+
+    @Test
+    void deletedCommentsNoLongerCount() {
+        List<Long> comments = comment(first, 3); // 4 commentaires : premier du classement
+        trendingEngine.refresh();
+        assertEquals(first, trendingIds(trendingEngine).get(0));
+
+        comments.forEach(commentService::deleteComment);
+        trendingEngine.refresh();
+        assertEquals(List.of(second, third, first), trendingIds(trendingEngine));
+    }
+
+    @Test
+    void scoresSurviveARestart() {
+        trendingEngine.refresh();
+        List<Long> before = trendingIds(trendingEngine);
+        double topScore = trendingEngine.getTrending(100).stream()
+                .filter(article -> article.getId().equals(second)).findFirst().orElseThrow().getScore();
+        trendingEngine.snapshot();
+
+        TrendingEngine restarted = engine("node-a", Duration.ofMinutes(30));
+        restarted.restore();
+
+        assertEquals(before, trendingIds(restarted));
+        assertEquals(topScore, score(restarted, second), 0.01);
+    }
+
+    @Test
+    void eachInstanceOnlyReplacesItsOwnSnapshot() {
+        trendingEngine.snapshot();
+        TrendingEngine other = engine("node-b", Duration.ofMinutes(30));
+        other.snapshot(); // Aucun événement sur cette instance : sauvegarde vide
+
+        TrendingEngine restarted = engine("node-a", Duration.ofMinutes(30));
+        restarted.restore();
+        assertEquals(List.of(second, third, first), trendingIds(restarted));
+    }
+
+    @Test
+    void abandonedSnapshotsAreTakenOverByAnotherInstance() {
+        trendingEngine.refresh();
+        double topScore = score(trendingEngine, second);
+        trendingEngine.snapshot();
+
+        TrendingEngine other = engine("node-b", Duration.ZERO); // Toute sauvegarde antérieure est abandonnée
+        other.snapshot();
+        other.refresh();
+        assertEquals(List.of(second, third, first), trendingIds(other));
+        assertEquals(topScore, score(other, second), 0.01);
+
+        // Reprise une seule fois : retirée de la sauvegarde de node-a
+        TrendingEngine restarted = engine("node-a", Duration.ofMinutes(30));
+        restarted.restore();
+        assertEquals(List.of(), trendingIds(restarted));
+    }
+
+    private TrendingEngine engine(String nodeId, Duration orphanAfter) {
+        return new TrendingEngine(articleRepository, trendingScoreRepository, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofHours(6), 100, 1.0, 0.5, 0.01, nodeId, orphanAfter);
+    }
+
+    private static double score(TrendingEngine engine, Long articleId) {
+        return engine.getTrending(100).stream()
+                .filter(article -> article.getId().equals(articleId)).findFirst().orElseThrow().getScore();
+    }
+}
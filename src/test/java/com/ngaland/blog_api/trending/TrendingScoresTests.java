@@ -0,0 +1,96 @@
+package com.ngaland.blog_api.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingScoresTests {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long START = 1_000_000_000_000L;
+
+    private static List<Long> ids(List<TrendingScores.Entry> entries) {
+        return entries.stream().map(TrendingScores.Entry::articleId).toList();
+    }
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(1), 10, START);
+        scores.add(1, 1.0, START);
+
+        assertEquals(1.0, scores.top(START).get(0).score(), 1e-9);
+        assertEquals(0.5, scores.top(START + HOUR).get(0).score(), 1e-9);
+        assertEquals(0.25, scores.top(START + 2 * HOUR).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void recentActivityOutweighsOlderActivity() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(1), 10, START);
+        for (int i = 0; i < 3; i++) {
+            scores.add(1, 1.0, START);
+        }
+        scores.add(2, 1.0, START + 2 * HOUR);
+        scores.add(2, 1.0, START + 2 * HOUR);
+
+        List<TrendingScores.Entry> top = scores.top(START + 2 * HOUR);
+        assertEquals(List.of(2L, 1L), ids(top));
+        assertEquals(2.0, top.get(0).score(), 1e-9);
+        assertEquals(0.75, top.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void boundedTopIsRebuiltWhenAMemberLosesPoints() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(1), 2, START);
+        scores.add(1, 5.0, START);
+        scores.add(2, 4.0, START);
+        scores.add(3, 3.0, START);
+        assertEquals(List.of(1L, 2L), ids(scores.top(START)));
+
+        // Article 3, hors du classement, doit y entrer quand 1 disparaît puis quand 2 perd des points
+        scores.remove(1);
+        assertEquals(List.of(2L, 3L), ids(scores.top(START)));
+        scores.add(4, 1.0, START);
+        scores.add(2, -3.5, START);
+        assertEquals(List.of(3L, 4L), ids(scores.top(START)));
+
+        // Un score ramené à zéro est oublié
+        scores.add(4, -1.0, START);
+        assertEquals(List.of(3L, 2L), ids(scores.top(START)));
+        assertEquals(2, scores.size());
+    }
+
+    @Test
+    void rescaleKeepsScoresAndForgetsNegligibleOnes() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(1), 10, START);
+        scores.add(1, 1.0, START);
+        scores.add(2, 0.015, START);
+
+        scores.rescale(START + HOUR, 0.01);
+
+        assertEquals(1, scores.size());
+        assertEquals(0.5, scores.top(START + HOUR).get(0).score(), 1e-9);
+        scores.add(1, 1.0, START + 2 * HOUR);
+        assertEquals(1.25, scores.top(START + 2 * HOUR).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void primitiveMapGrowsAndRemovesWithoutLosingEntries() {
+        LongDoubleHashMap map = new LongDoubleHashMap(16);
+        for (long key = 1; key <= 10_000; key++) {
+            map.addTo(key, key);
+        }
+        for (long key = 2; key <= 10_000; key += 2) {
+            assertTrue(map.remove(key));
+        }
+
+        assertEquals(5_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 1 ? key : 0.0, map.get(key));
+        }
+        assertFalse(map.remove(2));
+        assertEquals(8.0, map.addTo(3, 5.0));
+    }
+}
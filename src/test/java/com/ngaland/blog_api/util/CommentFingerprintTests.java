@@ -0,0 +1,31 @@
+package com.ngaland.blog_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentFingerprintTests {
+
+    @Test
+    void matchesTheSqlFunctionOfTheMigrations() {
+        // SELECT commentaire_fingerprint(' Alice ', ' Salut ') (bd/migrations/002 et 012), sur PostgreSQL
+        assertEquals("0c4e80f4f74dda681804285761df08ae17cdb0a9c89c09d341e54d1c7939478f",
+                CommentFingerprint.of(" Alice ", " Salut "));
+    }
+
+    @Test
+    void ignoresAsciiWhitespaceAroundAndAsciiCaseOfTheAuthor() {
+        String fingerprint = CommentFingerprint.of("alice", "Salut");
+
+        assertEquals(fingerprint, CommentFingerprint.of("\tALICE \n", "\r\n Salut\f"));
+        assertNotEquals(fingerprint, CommentFingerprint.of("alice", "salut")); // Casse du contenu conservée
+        // Casse non ASCII conservée, comme translate() côté SQL
+        assertNotEquals(CommentFingerprint.of("élodie", "x"), CommentFingerprint.of("Élodie", "x"));
+    }
+
+    @Test
+    void authorAndContentBoundaryIsUnambiguous() {
+        assertNotEquals(CommentFingerprint.of("ab", "c"), CommentFingerprint.of("a", "bc"));
+        assertNotEquals(CommentFingerprint.of("a", "1:bc"), CommentFingerprint.of("1:a", "bc"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.ngaland.blog_api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentJournalTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void offersBeyondCapacityAreRefused() throws Exception {
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 2, false)) {
+            assertTrue(journal.offer(submission("un")));
+            assertTrue(journal.offer(submission("deux")));
+            assertFalse(journal.offer(submission("trois")));
+
+            journal.poll(10, 0, TimeUnit.SECONDS);
+            journal.acknowledge();
+
+            assertEquals(0, journal.depth());
+            assertTrue(journal.offer(submission("trois")));
+        }
+    }
+
+    @Test
+    void unacknowledgedSubmissionsAreReplayedAfterARestart() throws Exception {
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, true)) {
+            journal.offer(submission("enregistré"));
+            journal.offer(submission("perdu 1"));
+            journal.offer(submission("perdu 2\navec retour à la ligne"));
+            assertEquals(1, journal.poll(1, 0, TimeUnit.SECONDS).size());
+            journal.acknowledge();
+            journal.poll(10, 0, TimeUnit.SECONDS); // Lot en cours au moment de l'arrêt : jamais acquitté
+        }
+
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, true)) {
+            List<CommentSubmission> replayed = journal.poll(10, 0, TimeUnit.SECONDS);
+            assertEquals(List.of("perdu 1", "perdu 2\navec retour à la ligne"),
+                    replayed.stream().map(CommentSubmission::contenu).toList());
+        }
+    }
+
+    @Test
+    void aTornLastLineIsIgnored() throws Exception {
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, false)) {
+            journal.offer(submission("complet"));
+        }
+        // Arrêt brutal au milieu de l'écriture d'une ligne
+        Files.writeString(directory.resolve(CommentJournal.JOURNAL_FILE), "{\"trackingId\":\"", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, false)) {
+            assertEquals(1, journal.depth());
+            journal.offer(submission("après la reprise"));
+            assertEquals(List.of("complet", "après la reprise"),
+                    journal.poll(10, 0, TimeUnit.SECONDS).stream().map(CommentSubmission::contenu).toList());
+        }
+    }
+
+    @Test
+    void theJournalIsTruncatedOnceEverythingIsAcknowledged() throws Exception {
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, false)) {
+            journal.offer(submission("un"));
+            journal.offer(submission("deux"));
+            journal.poll(10, 0, TimeUnit.SECONDS);
+            journal.acknowledge();
+
+            assertEquals(0, Files.size(directory.resolve(CommentJournal.JOURNAL_FILE)));
+            assertNull(journal.oldestPendingAcceptedAt());
+        }
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, 10, false)) {
+            assertEquals(0, journal.depth());
+        }
+    }
+
+    @Test
+    void concurrentOffersAreAllForcedAndReplayed() throws Exception {
+        int writers = 8;
+        int perWriter = 50;
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, writers * perWriter, true)) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    int writer = w;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < perWriter; i++) {
+                            assertTrue(journal.offer(submission(writer + "-" + i)));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(writers * perWriter, journal.depth());
+        }
+
+        try (CommentJournal journal = CommentJournal.open(directory, objectMapper, writers * perWriter, true)) {
+            List<CommentSubmission> replayed = journal.poll(writers * perWriter, 0, TimeUnit.SECONDS);
+            assertEquals(writers * perWriter, replayed.stream().map(CommentSubmission::contenu).distinct().count());
+            // Ordre d'écriture conservé pour chaque auteur
+            List<String> firstWriter = replayed.stream().map(CommentSubmission::contenu).filter(c -> c.startsWith("0-")).toList();
+            assertEquals("0-0", firstWriter.get(0));
+            assertEquals("0-" + (perWriter - 1), firstWriter.get(perWriter - 1));
+        }
+    }
+
+    private static CommentSubmission submission(String contenu) {
+        return new CommentSubmission(UUID.randomUUID(), 1L, contenu, "alice", LocalDateTime.now());
+    }
+}
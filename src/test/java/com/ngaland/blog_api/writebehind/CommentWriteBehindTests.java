@@ -0,0 +1,112 @@
+package com.ngaland.blog_api.writebehind;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngaland.blog_api.dto.ArticleRequestDTO;
+import com.ngaland.blog_api.repository.ArticleRepository;
+import com.ngaland.blog_api.repository.CommentRepository;
+import com.ngaland.blog_api.service.ArticleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "blog.comments.write-behind.enabled=true",
+        "blog.comments.write-behind.journal-dir=target/test-comment-journal",
+        "blog.comments.write-behind.fsync=false"
+})
+@AutoConfigureMockMvc
+class CommentWriteBehindTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Long articleId;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        articleId = articleService.createArticle(new ArticleRequestDTO("Article viral", "Contenu")).getId();
+    }
+
+    @Test
+    void acceptedCommentsArePersistedInTheBackground() throws Exception {
+        String location = mockMvc.perform(post("/api/v1/articles/{articleId}/comments", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contenu\":\"Premier !\",\"auteur\":\"alice\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+
+        JsonNode submission = awaitFinalStatus(location);
+        assertEquals("CREATED", submission.get("status").asText());
+        assertTrue(commentRepository.existsById(submission.get("commentId").asLong()));
+        assertEquals(1L, articleRepository.findById(articleId).orElseThrow().getCommentCount());
+    }
+
+    @Test
+    void duplicatesAndUnknownArticlesAreReportedOnTheSubmission() throws Exception {
+        String body = "{\"contenu\":\"Même texte\",\"auteur\":\"bob\"}";
+        String first = submit(articleId, body);
+        String second = submit(articleId, body);
+        String unknown = submit(articleId + 1000, body);
+
+        assertEquals("CREATED", awaitFinalStatus(first).get("status").asText());
+        assertEquals("DUPLICATE", awaitFinalStatus(second).get("status").asText());
+        assertEquals("REJECTED", awaitFinalStatus(unknown).get("status").asText());
+    }
+
+    @Test
+    void invalidCommentsAreRejectedBeforeBeingQueued() throws Exception {
+        mockMvc.perform(post("/api/v1/articles/{articleId}/comments", articleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contenu\":\"\",\"auteur\":\"alice\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String submit(Long targetArticleId, String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/articles/{articleId}/comments", targetArticleId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+    }
+
+    private JsonNode awaitFinalStatus(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode submission;
+        do {
+            String json = mockMvc.perform(get(location)).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            submission = objectMapper.readTree(json);
+            if (!"PENDING".equals(submission.get("status").asText())) {
+                return submission;
+            }
+            Thread.sleep(20);
+        } while (System.currentTimeMillis() < deadline);
+        fail("Commentaire toujours en attente : " + submission);
+        return submission;
+    }
+}